@@ -0,0 +1,85 @@
+package com.microservices.apigateway.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Evicts cached catalog responses when Inventory Service publishes product or stock events.
+ * Every gateway instance uses its own consumer group so each one sees every event.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "gateway.cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class InventoryCacheInvalidationListener {
+
+    public static final String REGION = "inventory-catalog";
+
+    private final ResponseCache responseCache;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public InventoryCacheInvalidationListener(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @KafkaListener(topics = "${gateway.cache.invalidation.inventory-topic:inventory-events}",
+                   groupId = "${gateway.cache.invalidation.group-id:api-gateway-cache-${HOSTNAME:local}}")
+    public void onInventoryEvent(ConsumerRecord<String, String> record) {
+        String eventType = header(record, "eventType");
+        if (eventType != null && !eventType.startsWith("product.") && !eventType.startsWith("stock.")) {
+            return;
+        }
+
+        // Events are keyed by product id and carry the SKU as a header, so the payload
+        // (JSON or protobuf) only needs to be read for older producers
+        Long productId = parseId(record.key());
+        String sku = header(record, "sku");
+        if (productId != null && sku != null) {
+            responseCache.invalidateProduct(REGION, productId, sku);
+            return;
+        }
+
+        try {
+            JsonNode event = objectMapper.readTree(record.value());
+            if (productId == null) {
+                JsonNode id = event.hasNonNull("productId") ? event.get("productId") : event.get("id");
+                productId = id != null && id.canConvertToLong() ? id.asLong() : null;
+            }
+            if (sku == null && event.hasNonNull("sku")) {
+                sku = event.get("sku").asText();
+            }
+        } catch (Exception e) {
+            log.debug("Could not parse inventory event payload {}: {}", eventType, e.getMessage());
+        }
+
+        if (productId == null && sku == null) {
+            // Unknown event shape - drop the whole region rather than serve stale data
+            responseCache.invalidateRegion(REGION);
+            return;
+        }
+        responseCache.invalidateProduct(REGION, productId, sku);
+    }
+
+    private static String header(ConsumerRecord<String, String> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+
+    private static Long parseId(String key) {
+        if (key == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.microservices.apigateway.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory store behind {@link com.microservices.apigateway.filter.ResponseCacheFilter}.
+ * Entries are grouped into regions (one per cached route), each a size bounded LRU.
+ * Entries remember which product they describe, so a product event only evicts that
+ * product's entries plus the collection responses that may list it.
+ */
+@Component
+@Slf4j
+public class ResponseCache {
+
+    private static final Pattern PRODUCT_SKU_PATH = Pattern.compile("/products/sku/([^/?]+)");
+    private static final Pattern PRODUCT_ID_PATH = Pattern.compile("/products/(\\d+)(?:[/?]|$)");
+
+    private final Map<String, Region> regions = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCache(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public CachedResponse get(String region, String key) {
+        Region cacheRegion = regions.get(region);
+        if (cacheRegion == null) {
+            return null;
+        }
+        CachedResponse cached = cacheRegion.get(key);
+        if (cached != null && cached.isExpired()) {
+            cacheRegion.remove(key);
+            return null;
+        }
+        return cached;
+    }
+
+    public void put(String region, int maxEntries, String key, String path, HttpHeaders headers,
+                    byte[] body, String etag, Duration ttl) {
+        Region cacheRegion = regions.computeIfAbsent(region, name -> new Region(maxEntries));
+        cacheRegion.put(key, new CachedResponse(productRef(path), headers, body, etag,
+                System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    /**
+     * Evict entries for one product (by id and/or sku) plus every collection response in the region.
+     */
+    public void invalidateProduct(String region, Long productId, String sku) {
+        Region cacheRegion = regions.get(region);
+        if (cacheRegion == null) {
+            return;
+        }
+        String idRef = productId != null ? "id:" + productId : null;
+        String skuRef = sku != null ? "sku:" + sku : null;
+        int removed = cacheRegion.removeIf(entry -> entry.productRef == null
+                || entry.productRef.equals(idRef)
+                || entry.productRef.equals(skuRef));
+        log.debug("Invalidated {} cached responses in {} for product id={} sku={}", removed, region, productId, sku);
+    }
+
+    public void invalidateRegion(String region) {
+        Region cacheRegion = regions.get(region);
+        if (cacheRegion != null) {
+            cacheRegion.clear();
+            log.debug("Cleared response cache region {}", region);
+        }
+    }
+
+    public Counter counter(String region, String result) {
+        return Counter.builder("gateway.response.cache.requests")
+                .description("Gateway response cache lookups by result")
+                .tag("region", region)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String productRef(String path) {
+        Matcher skuMatcher = PRODUCT_SKU_PATH.matcher(path);
+        if (skuMatcher.find()) {
+            return "sku:" + skuMatcher.group(1);
+        }
+        Matcher idMatcher = PRODUCT_ID_PATH.matcher(path);
+        if (idMatcher.find()) {
+            return "id:" + idMatcher.group(1);
+        }
+        return null;
+    }
+
+    private static final class Region {
+        private final LinkedHashMap<String, CachedResponse> entries;
+
+        private Region(int maxEntries) {
+            this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        private synchronized CachedResponse get(String key) {
+            return entries.get(key);
+        }
+
+        private synchronized void put(String key, CachedResponse response) {
+            entries.put(key, response);
+        }
+
+        private synchronized void remove(String key) {
+            entries.remove(key);
+        }
+
+        private synchronized void clear() {
+            entries.clear();
+        }
+
+        private synchronized int removeIf(Predicate<CachedResponse> predicate) {
+            int before = entries.size();
+            entries.values().removeIf(predicate);
+            return before - entries.size();
+        }
+    }
+
+    /**
+     * A cached upstream 200 response.
+     */
+    public static final class CachedResponse {
+        private final String productRef;
+        private final HttpHeaders headers;
+        private final byte[] body;
+        private final String etag;
+        private final long expiresAtMillis;
+
+        private CachedResponse(String productRef, HttpHeaders headers, byte[] body, String etag, long expiresAtMillis) {
+            this.productRef = productRef;
+            this.headers = headers;
+            this.body = body;
+            this.etag = etag;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public boolean isExpired() {
+            return System.currentTimeMillis() > expiresAtMillis;
+        }
+    }
+}
@@ -1,17 +1,23 @@
 package com.microservices.apigateway.config;
 
+import com.microservices.apigateway.cache.InventoryCacheInvalidationListener;
 import com.microservices.apigateway.filter.AuthenticationFilter;
+import com.microservices.apigateway.filter.ConcurrencyLimitFilter;
+import com.microservices.apigateway.filter.RequestSizeLimitFilter;
+import com.microservices.apigateway.filter.ResponseCacheFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
 import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
@@ -22,6 +28,12 @@ public class GatewayConfig {
     @Autowired
     private AuthenticationFilter authenticationFilter;
 
+    @Autowired
+    private ResponseCacheFilter responseCacheFilter;
+
+    @Autowired
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
     @Value("${auth-service.url:http://auth-service:8082}")
     private String authServiceUrl;
 
@@ -37,6 +49,18 @@ public class GatewayConfig {
     @Value("${inventory-service.url:http://inventory-service:8084}")
     private String inventoryServiceUrl;
 
+    @Value("${gateway.cache.inventory.ttl:30s}")
+    private Duration inventoryCacheTtl;
+
+    @Value("${gateway.cache.inventory.max-entries:2000}")
+    private int inventoryCacheMaxEntries;
+
+    @Value("${gateway.cache.inventory.max-body-bytes:262144}")
+    private int inventoryCacheMaxBodyBytes;
+
+    @Value("${gateway.request.bulk-stock-max-body-size:200MB}")
+    private DataSize bulkStockMaxBodySize;
+
     /**
      * Defines all routes for API Gateway
      */
@@ -87,6 +111,7 @@ public class GatewayConfig {
                 .route("auth-service", r -> r
                         .path("/api/auth/**")
                         .filters(f -> f
+                                .filter(bulkhead("auth-service"))
                                 .retry(config -> config
                                         .setRetries(3)
                                         .setBackoff(Duration.ofMillis(100), Duration.ofMillis(1000), 2, true))
@@ -107,6 +132,7 @@ public class GatewayConfig {
                         .and()
                         .method(HttpMethod.POST)
                         .filters(f -> f
+                                .filter(bulkhead("user-service"))
                                 .retry(config -> config
                                         .setRetries(2)
                                         .setBackoff(Duration.ofMillis(100), Duration.ofMillis(500), 2, true))
@@ -125,6 +151,7 @@ public class GatewayConfig {
                         .method(HttpMethod.GET)
                         .filters(f -> f
                                 .filter(authenticationFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(bulkhead("user-service"))
                                 .retry(config -> config
                                         .setRetries(2)
                                         .setBackoff(Duration.ofMillis(100), Duration.ofMillis(500), 2, true))
@@ -141,6 +168,7 @@ public class GatewayConfig {
                         .path("/api/users/**")
                         .filters(f -> f
                                 .filter(authenticationFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(bulkhead("user-service"))
                                 .retry(config -> config
                                         .setRetries(2)
                                         .setBackoff(Duration.ofMillis(100), Duration.ofMillis(500), 2, true))
@@ -157,21 +185,62 @@ public class GatewayConfig {
                         .path("/graphql", "/playground")
                         .filters(f -> f
                                 .filter(authenticationFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(bulkhead("user-service"))
                                 .circuitBreaker(config -> config
                                         .setName("userServiceGraphQLCircuitBreaker")
                                         .setFallbackUri("forward:/fallback/graphql"))
                                 .addRequestHeader("X-Gateway-Service", "api-gateway"))
                         .uri(userServiceUrl))
 
+                // ==========================
+                // Order Service - Status Stream (requires auth, SSE)
+                // Long-lived: no retry, circuit breaker time limit, bulkhead or read timeout
+                // ==========================
+                .route("order-service-status-stream", r -> r
+                        .path("/api/orders/*/status-stream")
+                        .and()
+                        .method(HttpMethod.GET)
+                        .filters(f -> f
+                                .filter(authenticationFilter.apply(new AuthenticationFilter.Config()))
+                                .addRequestHeader("X-Gateway-Service", "api-gateway"))
+                        .metadata(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, -1)
+                        .uri(orderServiceUrl))
+
+                // ==========================
+                // Order Service - Order Creation with Idempotency-Key (requires auth)
+                // Order Service stores the outcome per key, so POST is safe to retry here
+                // ==========================
+                .route("order-service-create-idempotent", r -> r
+                        .path("/api/orders")
+                        .and()
+                        .method(HttpMethod.POST)
+                        .and()
+                        .header("Idempotency-Key")
+                        .filters(f -> f
+                                .filter(authenticationFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(bulkhead("order-service"))
+                                .retry(config -> config
+                                        .setRetries(2)
+                                        .setMethods(HttpMethod.POST)
+                                        .setBackoff(Duration.ofMillis(100), Duration.ofMillis(500), 2, true))
+                                .circuitBreaker(config -> config
+                                        .setName("orderServiceCircuitBreaker")
+                                        .setFallbackUri("forward:/fallback/orders"))
+                                .addRequestHeader("X-Gateway-Service", "api-gateway"))
+                        .uri(orderServiceUrl))
+
                 // ==========================
                 // Order Service (requires auth)
+                // Only idempotent reads are retried; writes without a key go through once
                 // ==========================
                 .route("order-service", r -> r
                         .path("/api/orders/**")
                         .filters(f -> f
                                 .filter(authenticationFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(bulkhead("order-service"))
                                 .retry(config -> config
                                         .setRetries(2)
+                                        .setMethods(HttpMethod.GET)
                                         .setBackoff(Duration.ofMillis(100), Duration.ofMillis(500), 2, true))
                                 .circuitBreaker(config -> config
                                         .setName("orderServiceCircuitBreaker")
@@ -179,6 +248,46 @@ public class GatewayConfig {
                                 .addRequestHeader("X-Gateway-Service", "api-gateway"))
                         .uri(orderServiceUrl))
 
+                // ==========================
+                // Inventory Service - Catalog Reads (requires auth, cached)
+                // ==========================
+                .route("inventory-service-catalog", r -> r
+                        .path("/api/inventory/products", "/api/inventory/products/**")
+                        .and()
+                        .method(HttpMethod.GET)
+                        .filters(f -> f
+                                .filter(authenticationFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(responseCacheFilter.apply(new ResponseCacheFilter.Config()
+                                        .setRegion(InventoryCacheInvalidationListener.REGION)
+                                        .setTtl(inventoryCacheTtl)
+                                        .setMaxEntries(inventoryCacheMaxEntries)
+                                        .setMaxBodyBytes(inventoryCacheMaxBodyBytes)))
+                                .filter(bulkhead("inventory-service"))
+                                .retry(config -> config
+                                        .setRetries(2)
+                                        .setBackoff(Duration.ofMillis(100), Duration.ofMillis(500), 2, true))
+                                .circuitBreaker(config -> config
+                                        .setName("inventoryServiceCircuitBreaker")
+                                        .setFallbackUri("forward:/fallback/inventory"))
+                                .addRequestHeader("X-Gateway-Service", "api-gateway"))
+                        .uri(inventoryServiceUrl))
+
+                // ==========================
+                // Inventory Service - Bulk Stock Import (requires auth, large streamed upload)
+                // Long-running: own body size limit, no retry, circuit breaker time limit,
+                // bulkhead or read timeout
+                // ==========================
+                .route("inventory-service-bulk-stock", r -> r
+                        .path("/api/inventory/products/stock/bulk")
+                        .and()
+                        .method(HttpMethod.POST)
+                        .filters(f -> f
+                                .filter(authenticationFilter.apply(new AuthenticationFilter.Config()))
+                                .addRequestHeader("X-Gateway-Service", "api-gateway"))
+                        .metadata(RequestSizeLimitFilter.MAX_BODY_SIZE_ATTR, bulkStockMaxBodySize.toBytes())
+                        .metadata(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, -1)
+                        .uri(inventoryServiceUrl))
+
                 // ==========================
                 // Inventory Service (requires auth)
                 // ==========================
@@ -186,6 +295,7 @@ public class GatewayConfig {
                         .path("/api/inventory/**", "/api/products/**")
                         .filters(f -> f
                                 .filter(authenticationFilter.apply(new AuthenticationFilter.Config()))
+                                .filter(bulkhead("inventory-service"))
                                 .retry(config -> config
                                         .setRetries(2)
                                         .setBackoff(Duration.ofMillis(100), Duration.ofMillis(500), 2, true))
@@ -202,6 +312,7 @@ public class GatewayConfig {
                                .path("/api/notifications", "/api/notifications/**")
                                .filters(f -> f
                                        .filter(authenticationFilter.apply(new AuthenticationFilter.Config()))
+                                       .filter(bulkhead("notification-service"))
                                        .rewritePath("/api/notifications$", "/notifications")
                                        .rewritePath("/api/notifications/(?<segment>.*)", "/notifications/${segment}")
                                        .retry(config -> config
@@ -216,6 +327,13 @@ public class GatewayConfig {
                 .build();
     }
 
+    /**
+     * Per-service bulkhead; routes to the same backend share one adaptive concurrency limit
+     */
+    private GatewayFilter bulkhead(String service) {
+        return concurrencyLimitFilter.apply(new ConcurrencyLimitFilter.Config().setName(service));
+    }
+
     // ==========================
     // Redis Rate Limiting Config
     // ==========================
@@ -233,18 +351,4 @@ public class GatewayConfig {
             return Mono.just(username != null ? username : "anonymous");
         };
     }
-
-    // ==========================
-    // Global Filter for Response Time
-    // ==========================
-    @Bean
-    public GlobalFilter responseTimeFilter() {
-        return (exchange, chain) -> {
-            long startTime = System.currentTimeMillis();
-            return chain.filter(exchange).then(Mono.fromRunnable(() -> {
-                long duration = System.currentTimeMillis() - startTime;
-                exchange.getResponse().getHeaders().add("X-Response-Time", duration + "ms");
-            }));
-        };
-    }
 }
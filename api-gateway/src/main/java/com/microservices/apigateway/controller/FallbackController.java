@@ -1,73 +1,60 @@
 package com.microservices.apigateway.controller;
 
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
+import com.microservices.apigateway.util.ErrorResponseTemplate;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.Map;
-
+/**
+ * Circuit breaker fallbacks. Payloads are pre-serialized since these endpoints
+ * receive the full request rate of a service while its breaker is open.
+ */
 @RestController
 @RequestMapping("/fallback")
 public class FallbackController {
 
-    @RequestMapping(value = "/auth", method = {RequestMethod.GET, RequestMethod.POST})
-    public Mono<ResponseEntity<Map<String, Object>>> authFallback() {
-        Map<String, Object> response = new HashMap<>();
-        response.put("timestamp", LocalDateTime.now().toString());
-        response.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
-        response.put("error", "Service Unavailable");
-        response.put("message", "Authentication service is currently unavailable. Please try again later.");
-        response.put("service", "auth-service");
+    private static final ErrorResponseTemplate AUTH_UNAVAILABLE = ErrorResponseTemplate.serviceUnavailable(
+            "Authentication service is currently unavailable. Please try again later.", "auth-service");
+    private static final ErrorResponseTemplate USERS_UNAVAILABLE = ErrorResponseTemplate.serviceUnavailable(
+            "User service is currently unavailable. Please try again later.", "user-service");
+    private static final ErrorResponseTemplate GRAPHQL_UNAVAILABLE = ErrorResponseTemplate.serviceUnavailable(
+            "GraphQL service is currently unavailable. Please try again later.", "user-service-graphql");
+    private static final ErrorResponseTemplate ORDERS_UNAVAILABLE = ErrorResponseTemplate.serviceUnavailable(
+            "Order service is currently unavailable. Please try again later.", "order-service");
+    private static final ErrorResponseTemplate INVENTORY_UNAVAILABLE = ErrorResponseTemplate.serviceUnavailable(
+            "Inventory service is currently unavailable. Please try again later.", "inventory-service");
+    private static final ErrorResponseTemplate NOTIFICATIONS_UNAVAILABLE = ErrorResponseTemplate.serviceUnavailable(
+            "Notification service is currently unavailable. Please try again later.", "notification-service");
 
-        return Mono.just(ResponseEntity
-                .status(HttpStatus.SERVICE_UNAVAILABLE)
-                .body(response));
+    @RequestMapping(value = "/auth", method = {RequestMethod.GET, RequestMethod.POST})
+    public Mono<Void> authFallback(ServerWebExchange exchange) {
+        return AUTH_UNAVAILABLE.write(exchange.getResponse(), null);
     }
 
     @RequestMapping(value = "/users", method = {RequestMethod.GET, RequestMethod.POST})
-    public Mono<ResponseEntity<Map<String, Object>>> usersFallback() {
-        Map<String, Object> response = new HashMap<>();
-        response.put("timestamp", LocalDateTime.now().toString());
-        response.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
-        response.put("error", "Service Unavailable");
-        response.put("message", "User service is currently unavailable. Please try again later.");
-        response.put("service", "user-service");
-
-        return Mono.just(ResponseEntity
-                .status(HttpStatus.SERVICE_UNAVAILABLE)
-                .body(response));
+    public Mono<Void> usersFallback(ServerWebExchange exchange) {
+        return USERS_UNAVAILABLE.write(exchange.getResponse(), null);
     }
 
     @RequestMapping(value = "/graphql", method = {RequestMethod.GET, RequestMethod.POST})
-    public Mono<ResponseEntity<Map<String, Object>>> graphqlFallback() {
-        Map<String, Object> response = new HashMap<>();
-        response.put("timestamp", LocalDateTime.now().toString());
-        response.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
-        response.put("error", "Service Unavailable");
-        response.put("message", "GraphQL service is currently unavailable. Please try again later.");
-        response.put("service", "user-service-graphql");
+    public Mono<Void> graphqlFallback(ServerWebExchange exchange) {
+        return GRAPHQL_UNAVAILABLE.write(exchange.getResponse(), null);
+    }
 
-        return Mono.just(ResponseEntity
-                .status(HttpStatus.SERVICE_UNAVAILABLE)
-                .body(response));
+    @RequestMapping(value = "/orders", method = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.PATCH, RequestMethod.DELETE})
+    public Mono<Void> ordersFallback(ServerWebExchange exchange) {
+        return ORDERS_UNAVAILABLE.write(exchange.getResponse(), null);
     }
 
-    @RequestMapping(value = "/notifications", method = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PATCH, RequestMethod.DELETE})
-    public Mono<ResponseEntity<Map<String, Object>>> notificationsFallback() {
-        Map<String, Object> response = new HashMap<>();
-        response.put("timestamp", LocalDateTime.now().toString());
-        response.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
-        response.put("error", "Service Unavailable");
-        response.put("message", "Notification service is currently unavailable. Please try again later.");
-        response.put("service", "notification-service");
+    @RequestMapping(value = "/inventory", method = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.PATCH, RequestMethod.DELETE})
+    public Mono<Void> inventoryFallback(ServerWebExchange exchange) {
+        return INVENTORY_UNAVAILABLE.write(exchange.getResponse(), null);
+    }
 
-        return Mono.just(ResponseEntity
-                .status(HttpStatus.SERVICE_UNAVAILABLE)
-                .body(response));
+    @RequestMapping(value = "/notifications", method = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PATCH, RequestMethod.DELETE})
+    public Mono<Void> notificationsFallback(ServerWebExchange exchange) {
+        return NOTIFICATIONS_UNAVAILABLE.write(exchange.getResponse(), null);
     }
-}
\ No newline at end of file
+}
@@ -7,8 +7,10 @@ import org.springframework.boot.web.reactive.error.ErrorWebExceptionHandler;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
@@ -30,10 +32,15 @@ public class GlobalErrorWebExceptionHandler implements ErrorWebExceptionHandler
         Map<String, Object> errorAttributes = new HashMap<>();
         errorAttributes.put("timestamp", LocalDateTime.now().toString());
         errorAttributes.put("path", exchange.getRequest().getPath().value());
-        errorAttributes.put("message", ex.getMessage());
+        errorAttributes.put("message", ex instanceof ResponseStatusException responseStatusException
+                ? responseStatusException.getReason()
+                : ex.getMessage());
         errorAttributes.put("error", "Gateway Error");
 
-        exchange.getResponse().setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
+        HttpStatusCode status = ex instanceof ResponseStatusException responseStatusException
+                ? responseStatusException.getStatusCode()
+                : HttpStatus.INTERNAL_SERVER_ERROR;
+        exchange.getResponse().setStatusCode(status);
         exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
 
         try {
@@ -0,0 +1,14 @@
+package com.microservices.apigateway.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Raised when a request body exceeds the gateway's configured size limit.
+ */
+public class PayloadTooLargeException extends ResponseStatusException {
+
+    public PayloadTooLargeException(long limitBytes) {
+        super(HttpStatus.PAYLOAD_TOO_LARGE, "Request body exceeds the limit of " + limitBytes + " bytes");
+    }
+}
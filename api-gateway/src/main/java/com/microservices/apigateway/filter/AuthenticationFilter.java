@@ -1,7 +1,6 @@
 package com.microservices.apigateway.filter;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.apigateway.util.ErrorResponseTemplate;
 import com.microservices.apigateway.util.JwtUtil;
 import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
@@ -11,19 +10,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
-import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -46,7 +41,28 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
     @Value("${rate-limit.refill-duration-minutes:1}")
     private int rateLimitRefillDuration;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Rejection bodies are pre-serialized; only timestamp and path are filled in per request
+    private static final ErrorResponseTemplate MISSING_AUTH_HEADER = ErrorResponseTemplate.error(
+            HttpStatus.UNAUTHORIZED, "Missing authorization header", "MISSING_AUTH_HEADER");
+    private static final ErrorResponseTemplate INVALID_AUTH_FORMAT = ErrorResponseTemplate.error(
+            HttpStatus.UNAUTHORIZED, "Invalid authorization header format. Expected: Bearer <token>", "INVALID_AUTH_FORMAT");
+    private static final ErrorResponseTemplate EMPTY_TOKEN = ErrorResponseTemplate.error(
+            HttpStatus.UNAUTHORIZED, "Token cannot be empty", "EMPTY_TOKEN");
+    private static final ErrorResponseTemplate MISSING_USERNAME = ErrorResponseTemplate.error(
+            HttpStatus.UNAUTHORIZED, "Invalid token: missing username", "MISSING_USERNAME");
+    private static final ErrorResponseTemplate RATE_LIMIT_EXCEEDED = ErrorResponseTemplate.error(
+            HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded. Please try again later.", "RATE_LIMIT_EXCEEDED");
+    private static final ErrorResponseTemplate TOKEN_EXPIRED = ErrorResponseTemplate.error(
+            HttpStatus.UNAUTHORIZED, "Token has expired. Please login again.", "TOKEN_EXPIRED");
+    private static final ErrorResponseTemplate MALFORMED_TOKEN = ErrorResponseTemplate.error(
+            HttpStatus.UNAUTHORIZED, "Invalid token format", "MALFORMED_TOKEN");
+    private static final ErrorResponseTemplate INVALID_SIGNATURE = ErrorResponseTemplate.error(
+            HttpStatus.UNAUTHORIZED, "Invalid token signature", "INVALID_SIGNATURE");
+    private static final ErrorResponseTemplate AUTH_FAILED = ErrorResponseTemplate.error(
+            HttpStatus.UNAUTHORIZED, "Authentication failed", "AUTH_FAILED");
+
+    // JwtUtil.ValidationResult messages come from a small fixed set
+    private final Map<String, ErrorResponseTemplate> invalidTokenTemplates = new ConcurrentHashMap<>();
 
     // Simple in-memory rate limiter (consider Redis for production)
     private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
@@ -58,24 +74,24 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
     @Override
     public GatewayFilter apply(Config config) {
         return (exchange, chain) -> {
+            RequestTimingFilter.markAuthStart(exchange);
             ServerHttpRequest request = exchange.getRequest();
 
             // Check if Authorization header exists
             if (!request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
-                return onError(exchange, "Missing authorization header", HttpStatus.UNAUTHORIZED, "MISSING_AUTH_HEADER");
+                return onError(exchange, MISSING_AUTH_HEADER);
             }
 
             String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
 
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                return onError(exchange, "Invalid authorization header format. Expected: Bearer <token>",
-                        HttpStatus.UNAUTHORIZED, "INVALID_AUTH_FORMAT");
+                return onError(exchange, INVALID_AUTH_FORMAT);
             }
 
             String token = authHeader.substring(7).trim();
 
             if (token.isEmpty()) {
-                return onError(exchange, "Token cannot be empty", HttpStatus.UNAUTHORIZED, "EMPTY_TOKEN");
+                return onError(exchange, EMPTY_TOKEN);
             }
 
             try {
@@ -84,7 +100,7 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
 
                 if (!validationResult.isValid()) {
                     log.warn("Token validation failed: {}", validationResult.getMessage());
-                    return onError(exchange, validationResult.getMessage(), HttpStatus.UNAUTHORIZED, "INVALID_TOKEN");
+                    return onError(exchange, invalidTokenTemplate(validationResult.getMessage()));
                 }
 
                 // Extract user information
@@ -92,14 +108,13 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
                 String role = jwtUtil.getRoleFromToken(token);
 
                 if (username == null || username.isEmpty()) {
-                    return onError(exchange, "Invalid token: missing username", HttpStatus.UNAUTHORIZED, "MISSING_USERNAME");
+                    return onError(exchange, MISSING_USERNAME);
                 }
 
                 // Rate limiting (optional)
                 if (rateLimitEnabled && !checkRateLimit(username)) {
                     log.warn("Rate limit exceeded for user: {}", username);
-                    return onError(exchange, "Rate limit exceeded. Please try again later.",
-                            HttpStatus.TOO_MANY_REQUESTS, "RATE_LIMIT_EXCEEDED");
+                    return onError(exchange, RATE_LIMIT_EXCEEDED);
                 }
 
                 // Add user information to request headers
@@ -112,21 +127,21 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
                 log.debug("User {} with role {} accessed {} {}",
                         username, role, request.getMethod(), request.getURI());
 
+                RequestTimingFilter.markAuthEnd(exchange);
                 return chain.filter(exchange.mutate().request(modifiedRequest).build());
 
             } catch (io.jsonwebtoken.ExpiredJwtException e) {
                 log.warn("Expired token attempt from IP: {}", getClientIp(request));
-                return onError(exchange, "Token has expired. Please login again.",
-                        HttpStatus.UNAUTHORIZED, "TOKEN_EXPIRED");
+                return onError(exchange, TOKEN_EXPIRED);
             } catch (io.jsonwebtoken.MalformedJwtException e) {
                 log.error("Malformed JWT token from IP: {}", getClientIp(request));
-                return onError(exchange, "Invalid token format", HttpStatus.UNAUTHORIZED, "MALFORMED_TOKEN");
+                return onError(exchange, MALFORMED_TOKEN);
             } catch (io.jsonwebtoken.security.SignatureException e) {
                 log.error("Invalid JWT signature from IP: {}", getClientIp(request));
-                return onError(exchange, "Invalid token signature", HttpStatus.UNAUTHORIZED, "INVALID_SIGNATURE");
+                return onError(exchange, INVALID_SIGNATURE);
             } catch (Exception e) {
                 log.error("JWT validation error from IP: {}: {}", getClientIp(request), e.getMessage(), e);
-                return onError(exchange, "Authentication failed", HttpStatus.UNAUTHORIZED, "AUTH_FAILED");
+                return onError(exchange, AUTH_FAILED);
             }
         };
     }
@@ -159,27 +174,17 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
         return "unknown";
     }
 
-    private Mono<Void> onError(ServerWebExchange exchange, String message, HttpStatus status, String errorCode) {
-        ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(status);
-        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-
-        Map<String, Object> errorResponse = new HashMap<>();
-        errorResponse.put("timestamp", LocalDateTime.now().toString());
-        errorResponse.put("status", status.value());
-        errorResponse.put("error", status.getReasonPhrase());
-        errorResponse.put("message", message);
-        errorResponse.put("errorCode", errorCode);
-        errorResponse.put("path", exchange.getRequest().getPath().value());
-
-        try {
-            byte[] bytes = objectMapper.writeValueAsBytes(errorResponse);
-            DataBuffer buffer = response.bufferFactory().wrap(bytes);
-            return response.writeWith(Mono.just(buffer));
-        } catch (JsonProcessingException e) {
-            log.error("Error creating error response", e);
-            return response.setComplete();
+    private ErrorResponseTemplate invalidTokenTemplate(String message) {
+        if (message == null) {
+            return AUTH_FAILED;
         }
+        return invalidTokenTemplates.computeIfAbsent(message,
+                m -> ErrorResponseTemplate.error(HttpStatus.UNAUTHORIZED, m, "INVALID_TOKEN"));
+    }
+
+    private Mono<Void> onError(ServerWebExchange exchange, ErrorResponseTemplate template) {
+        RequestTimingFilter.markAuthEnd(exchange);
+        return template.write(exchange.getResponse(), exchange.getRequest().getPath().value());
     }
 
     public static class Config {
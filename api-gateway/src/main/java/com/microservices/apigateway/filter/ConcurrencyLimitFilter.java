@@ -0,0 +1,141 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.limiter.AdaptiveConcurrencyLimiter;
+import com.microservices.apigateway.util.ErrorResponseTemplate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-backend bulkhead with an adaptive concurrency limit (see {@link AdaptiveConcurrencyLimiter}).
+ * Routes that share a {@link Config#getName() name} share one limiter, so a slow service can
+ * only tie up its own share of the gateway's upstream connections. Requests over the limit
+ * queue briefly and are then shed with a 503 and Retry-After.
+ */
+@Component
+@Slf4j
+public class ConcurrencyLimitFilter extends AbstractGatewayFilterFactory<ConcurrencyLimitFilter.Config> {
+
+    private static final ErrorResponseTemplate OVERLOADED = ErrorResponseTemplate.error(
+            HttpStatus.SERVICE_UNAVAILABLE, "Service is overloaded. Please try again shortly.", "CONCURRENCY_LIMIT_EXCEEDED");
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    @Value("${gateway.concurrency.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${gateway.concurrency.min-limit:5}")
+    private int minLimit;
+
+    @Value("${gateway.concurrency.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${gateway.concurrency.max-queue:50}")
+    private int maxQueue;
+
+    @Value("${gateway.concurrency.max-wait:500ms}")
+    private Duration maxWait;
+
+    @Value("${gateway.concurrency.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${gateway.concurrency.latency-tolerance:2.5}")
+    private double latencyTolerance;
+
+    @Value("${gateway.concurrency.min-rtt-window:60s}")
+    private Duration minRttWindow;
+
+    public ConcurrencyLimitFilter(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        AdaptiveConcurrencyLimiter limiter = limiters.computeIfAbsent(config.getName(), this::createLimiter);
+        Counter rejected = Counter.builder("gateway.route.concurrency.rejected")
+                .description("Requests shed by the route concurrency limit")
+                .tag("name", limiter.getName())
+                .register(meterRegistry);
+        Duration wait = config.getMaxWait() != null ? config.getMaxWait() : maxWait;
+
+        return (exchange, chain) -> limiter.acquire(wait).flatMap(acquired -> {
+            if (!acquired) {
+                rejected.increment();
+                log.debug("Shedding {} {} - concurrency limit {} reached for {}",
+                        exchange.getRequest().getMethod(), exchange.getRequest().getPath(),
+                        limiter.getLimit(), limiter.getName());
+                exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+                return OVERLOADED.write(exchange.getResponse(), exchange.getRequest().getPath().value());
+            }
+
+            long startNanos = System.nanoTime();
+            return chain.filter(exchange).doFinally(signal -> {
+                HttpStatusCode status = exchange.getResponse().getStatusCode();
+                boolean dropped = signal == SignalType.ON_ERROR
+                        || (status != null && status.is5xxServerError());
+                limiter.release(System.nanoTime() - startNanos, dropped);
+            });
+        });
+    }
+
+    private AdaptiveConcurrencyLimiter createLimiter(String name) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(name, initialLimit, minLimit, maxLimit,
+                maxQueue, backoffRatio, latencyTolerance, minRttWindow);
+        Gauge.builder("gateway.route.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("gateway.route.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently holding a concurrency slot")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("gateway.route.concurrency.queued", limiter, AdaptiveConcurrencyLimiter::getQueued)
+                .description("Requests waiting for a concurrency slot")
+                .tag("name", name)
+                .register(meterRegistry);
+        log.info("Concurrency limit for {} starts at {} (min {}, max {}, queue {})",
+                name, initialLimit, minLimit, maxLimit, maxQueue);
+        return limiter;
+    }
+
+    public static class Config {
+        // Limiter name; routes with the same name share one limit
+        private String name = "default";
+        // Optional per-route override of gateway.concurrency.max-wait
+        private Duration maxWait;
+
+        public String getName() {
+            return name;
+        }
+
+        public Config setName(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public Config setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.loadbalancer.LatencyAwareLoadBalancer;
+import com.microservices.apigateway.loadbalancer.UpstreamInstance;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setAlreadyRouted;
+
+/**
+ * Picks the backend instance for services configured with several replicas
+ * (see {@link LatencyAwareLoadBalancer}) and tracks per-instance latency and in-flight load.
+ * <p>
+ * With hedging enabled, idempotent GETs are sent to a second instance when the first
+ * has not answered within the service's recent p95; whichever response arrives first
+ * starts streaming and the other request is cancelled. The race is decided on the response
+ * headers and the winner's body is streamed through, so large or streaming reads (NDJSON
+ * exports) are never held in memory. Event streams are not hedged.
+ */
+@Component
+@Slf4j
+public class LatencyAwareLoadBalancerFilter implements GlobalFilter, Ordered {
+
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "transfer-encoding", "host", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "te", "trailer", "upgrade");
+
+    private final LatencyAwareLoadBalancer loadBalancer;
+    private final WebClient hedgeClient;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${gateway.load-balancer.hedge.enabled:false}")
+    private boolean hedgeEnabled;
+
+    @Value("${gateway.load-balancer.hedge.timeout:10s}")
+    private Duration hedgeTimeout;
+
+    public LatencyAwareLoadBalancerFilter(LatencyAwareLoadBalancer loadBalancer,
+                                          WebClient.Builder webClientBuilder,
+                                          MeterRegistry meterRegistry) {
+        this.loadBalancer = loadBalancer;
+        this.meterRegistry = meterRegistry;
+        this.hedgeClient = webClientBuilder.build();
+    }
+
+    @Override
+    public int getOrder() {
+        // After the route URL is resolved, before the Netty routing filter sends the request
+        return RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER + 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        URI requestUrl = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        if (requestUrl == null || isAlreadyRouted(exchange)) {
+            return chain.filter(exchange);
+        }
+        List<UpstreamInstance> pool = loadBalancer.instancesFor(requestUrl);
+        if (pool == null) {
+            return chain.filter(exchange);
+        }
+
+        UpstreamInstance primary = loadBalancer.choose(pool);
+        if (hedgeEnabled && pool.size() > 1 && isHedgeable(exchange.getRequest())) {
+            return hedged(exchange, requestUrl, pool, primary);
+        }
+
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, primary.resolve(requestUrl));
+        loadBalancer.start(primary);
+        long startNanos = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    long elapsedNanos = System.nanoTime() - startNanos;
+                    if (signal == SignalType.CANCEL) {
+                        loadBalancer.cancel(primary, elapsedNanos);
+                    } else {
+                        loadBalancer.finish(requestUrl, primary, elapsedNanos,
+                                signal == SignalType.ON_ERROR || isServerError(exchange.getResponse()));
+                    }
+                });
+    }
+
+    private Mono<Void> hedged(ServerWebExchange exchange, URI requestUrl, List<UpstreamInstance> pool,
+                              UpstreamInstance primary) {
+        UpstreamInstance secondary = loadBalancer.choose(pool, primary);
+        Duration delay = loadBalancer.hedgeDelay(requestUrl);
+
+        Race race = new Race();
+        Mono<Attempt> first = send(exchange, requestUrl, primary, false, race);
+        Mono<Attempt> second = Mono.delay(delay)
+                .then(Mono.defer(() -> send(exchange, requestUrl, secondary, true, race)));
+
+        setAlreadyRouted(exchange);
+        return Mono.firstWithValue(first, second)
+                .timeout(hedgeTimeout)
+                .flatMap(attempt -> {
+                    meterRegistry.counter("gateway.upstream.hedge.wins",
+                            "service", attempt.instance.getService(),
+                            "winner", attempt.hedge ? "hedge" : "primary").increment();
+                    return write(exchange.getResponse(), attempt.response);
+                });
+    }
+
+    private Mono<Attempt> send(ServerWebExchange exchange, URI requestUrl, UpstreamInstance instance,
+                               boolean hedge, Race race) {
+        ServerHttpRequest request = exchange.getRequest();
+        URI target = instance.resolve(requestUrl);
+        return Mono.defer(() -> {
+            loadBalancer.start(instance);
+            long startNanos = System.nanoTime();
+            boolean[] failed = {true};
+            return hedgeClient.method(request.getMethod())
+                    .uri(target)
+                    .headers(headers -> request.getHeaders().forEach((name, values) -> {
+                        if (!isHopByHop(name)) {
+                            headers.addAll(name, values);
+                        }
+                    }))
+                    .retrieve()
+                    // Upstream error statuses are relayed to the caller, not raised
+                    .onStatus(status -> true, response -> Mono.empty())
+                    .toEntityFlux(DataBuffer.class)
+                    .doOnNext(entity -> {
+                        failed[0] = entity.getStatusCode().is5xxServerError();
+                        if (race.finish(System.nanoTime() - startNanos)) {
+                            // This request never reaches UpstreamTimingFilter; the caller waited since the race began
+                            exchange.getAttributes().put(RequestTimingFilter.UPSTREAM_NANOS_ATTR,
+                                    System.nanoTime() - race.startNanos);
+                        }
+                    })
+                    // Timed to the response headers
+                    .doFinally(signal -> {
+                        long elapsedNanos = System.nanoTime() - startNanos;
+                        if (signal == SignalType.CANCEL) {
+                            // A cancelled loser took at least as long as the winner
+                            loadBalancer.cancel(instance, Math.max(elapsedNanos, race.winnerNanos));
+                        } else {
+                            loadBalancer.finish(requestUrl, instance, elapsedNanos,
+                                    signal == SignalType.ON_ERROR || failed[0]);
+                        }
+                    })
+                    .map(entity -> new Attempt(instance, entity, hedge));
+        });
+    }
+
+    private Mono<Void> write(ServerHttpResponse response, ResponseEntity<Flux<DataBuffer>> upstream) {
+        response.setStatusCode(upstream.getStatusCode());
+        upstream.getHeaders().forEach((name, values) -> {
+            if (!isHopByHop(name)) {
+                response.getHeaders().put(name, values);
+            }
+        });
+        Flux<DataBuffer> body = upstream.getBody();
+        return body != null ? response.writeWith(body) : response.setComplete();
+    }
+
+    private boolean isHedgeable(ServerHttpRequest request) {
+        HttpMethod method = request.getMethod();
+        return (method == HttpMethod.GET || method == HttpMethod.HEAD)
+                && !request.getHeaders().containsKey(HttpHeaders.UPGRADE)
+                && !request.getHeaders().getAccept().contains(MediaType.TEXT_EVENT_STREAM);
+    }
+
+    private boolean isHopByHop(String headerName) {
+        return HOP_BY_HOP_HEADERS.contains(headerName.toLowerCase(Locale.ROOT));
+    }
+
+    private boolean isServerError(ServerHttpResponse response) {
+        return response.getStatusCode() != null && response.getStatusCode().is5xxServerError();
+    }
+
+    /** Shared by the two requests of a hedge: when it began and how long the first answer took. */
+    private static final class Race {
+        private final long startNanos = System.nanoTime();
+        private volatile long winnerNanos;
+        private boolean finished;
+
+        /** Whether this answer is the first one. */
+        private synchronized boolean finish(long elapsedNanos) {
+            if (finished) {
+                return false;
+            }
+            finished = true;
+            winnerNanos = elapsedNanos;
+            return true;
+        }
+    }
+
+    private static final class Attempt {
+        private final UpstreamInstance instance;
+        private final ResponseEntity<Flux<DataBuffer>> response;
+        private final boolean hedge;
+
+        private Attempt(UpstreamInstance instance, ResponseEntity<Flux<DataBuffer>> response, boolean hedge) {
+            this.instance = instance;
+            this.response = response;
+            this.hedge = hedge;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.exception.PayloadTooLargeException;
+import com.microservices.apigateway.util.ErrorResponseTemplate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Enforces a maximum request body size without buffering the body.
+ * A declared Content-Length over the limit is rejected with 413 before anything is sent
+ * upstream; chunked bodies are counted as they stream through and the request fails
+ * with 413 as soon as the limit is crossed.
+ * <p>
+ * The limit is global unless the matched route carries its own in the
+ * {@link #MAX_BODY_SIZE_ATTR} metadata (bytes), as the bulk stock import route does.
+ */
+@Component
+@Slf4j
+public class RequestSizeLimitFilter implements GlobalFilter, Ordered {
+
+    public static final String MAX_BODY_SIZE_ATTR = "max-body-size";
+
+    private final long maxBodyBytes;
+    private final Map<Long, ErrorResponseTemplate> tooLargeTemplates = new ConcurrentHashMap<>();
+    private final Counter rejectedCounter;
+
+    public RequestSizeLimitFilter(MeterRegistry meterRegistry,
+                                  @Value("${gateway.request.max-body-size:2MB}") DataSize maxBodySize) {
+        this.maxBodyBytes = maxBodySize.toBytes();
+        this.rejectedCounter = Counter.builder("gateway.request.body.rejected")
+                .description("Requests rejected for exceeding the body size limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        // Early, so oversized requests never reach authentication or routing
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        long limit = limitFor(exchange);
+        long contentLength = request.getHeaders().getContentLength();
+        if (contentLength > limit) {
+            rejectedCounter.increment();
+            log.warn("Rejected {} {} - Content-Length {} exceeds {}",
+                    request.getMethod(), request.getPath(), contentLength, limit);
+            return tooLarge(limit).write(exchange.getResponse(), request.getPath().value());
+        }
+        if (contentLength >= 0) {
+            // Declared length is within the limit; the server enforces the declared length itself
+            return chain.filter(exchange);
+        }
+
+        AtomicLong received = new AtomicLong();
+        ServerHttpRequest limited = new ServerHttpRequestDecorator(request) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return super.getBody().handle((buffer, sink) -> {
+                    if (received.addAndGet(buffer.readableByteCount()) > limit) {
+                        DataBufferUtils.release(buffer);
+                        rejectedCounter.increment();
+                        sink.error(new PayloadTooLargeException(limit));
+                    } else {
+                        sink.next(buffer);
+                    }
+                });
+            }
+        };
+        return chain.filter(exchange.mutate().request(limited).build());
+    }
+
+    private long limitFor(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        Object routeLimit = route != null ? route.getMetadata().get(MAX_BODY_SIZE_ATTR) : null;
+        return routeLimit instanceof Number number ? number.longValue() : maxBodyBytes;
+    }
+
+    private ErrorResponseTemplate tooLarge(long limit) {
+        // One template per distinct limit; there are only a handful
+        return tooLargeTemplates.computeIfAbsent(limit, bytes -> ErrorResponseTemplate.error(
+                HttpStatus.PAYLOAD_TOO_LARGE,
+                "Request body exceeds the limit of " + bytes + " bytes", "PAYLOAD_TOO_LARGE"));
+    }
+}
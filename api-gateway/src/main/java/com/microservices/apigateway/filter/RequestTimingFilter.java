@@ -0,0 +1,156 @@
+package com.microservices.apigateway.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Times every gateway request with {@link System#nanoTime()} and records per-route,
+ * per-status timers with percentile histograms:
+ * <ul>
+ *     <li>{@code gateway.request.duration} - whole request, until the response completes</li>
+ *     <li>{@code gateway.request.auth.duration} - time spent in {@link AuthenticationFilter}</li>
+ *     <li>{@code gateway.request.upstream.duration} - time until the backend's response headers arrive</li>
+ * </ul>
+ * {@code X-Response-Time} and {@code Server-Timing} headers are written just before the
+ * response commits, so they reflect the time to first byte and are never added too late.
+ */
+@Component
+public class RequestTimingFilter implements GlobalFilter, Ordered {
+
+    static final String AUTH_START_ATTR = RequestTimingFilter.class.getName() + ".authStart";
+    static final String AUTH_NANOS_ATTR = RequestTimingFilter.class.getName() + ".authNanos";
+    static final String UPSTREAM_NANOS_ATTR = RequestTimingFilter.class.getName() + ".upstreamNanos";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public RequestTimingFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long startNanos = System.nanoTime();
+        ServerHttpResponse response = exchange.getResponse();
+        response.beforeCommit(() -> {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            response.getHeaders().set("X-Response-Time", formatMillis(elapsedNanos) + "ms");
+            response.getHeaders().set("Server-Timing", serverTiming(exchange, elapsedNanos));
+            return Mono.empty();
+        });
+
+        return chain.filter(exchange)
+                .doFinally(signal -> record(exchange, System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Called by {@link AuthenticationFilter} when it starts.
+     */
+    static void markAuthStart(ServerWebExchange exchange) {
+        exchange.getAttributes().put(AUTH_START_ATTR, System.nanoTime());
+    }
+
+    /**
+     * Called by {@link AuthenticationFilter} when it accepts or rejects the request.
+     */
+    static void markAuthEnd(ServerWebExchange exchange) {
+        Long authStart = exchange.getAttribute(AUTH_START_ATTR);
+        if (authStart != null) {
+            exchange.getAttributes().put(AUTH_NANOS_ATTR, System.nanoTime() - authStart);
+        }
+    }
+
+    private void record(ServerWebExchange exchange, long elapsedNanos) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "unmatched";
+        HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+        String status = statusCode != null ? String.valueOf(statusCode.value()) : "CLIENT_CLOSED";
+
+        timer("gateway.request.duration", "Total gateway request time", routeId, status)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        Long authNanos = exchange.getAttribute(AUTH_NANOS_ATTR);
+        if (authNanos != null) {
+            timer("gateway.request.auth.duration", "Time spent in the authentication filter", routeId, status)
+                    .record(authNanos, TimeUnit.NANOSECONDS);
+        }
+        Long upstreamNanos = exchange.getAttribute(UPSTREAM_NANOS_ATTR);
+        if (upstreamNanos != null) {
+            timer("gateway.request.upstream.duration", "Time until upstream response headers arrive", routeId, status)
+                    .record(upstreamNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String name, String description, String routeId, String status) {
+        return timers.computeIfAbsent(name + '|' + routeId + '|' + status, key -> Timer.builder(name)
+                .description(description)
+                .tag("route", routeId)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private String serverTiming(ServerWebExchange exchange, long totalNanos) {
+        StringBuilder header = new StringBuilder(64);
+        Long authNanos = exchange.getAttribute(AUTH_NANOS_ATTR);
+        if (authNanos != null) {
+            header.append("auth;dur=").append(formatMillis(authNanos)).append(", ");
+        }
+        Long upstreamNanos = exchange.getAttribute(UPSTREAM_NANOS_ATTR);
+        if (upstreamNanos != null) {
+            header.append("upstream;dur=").append(formatMillis(upstreamNanos)).append(", ");
+        }
+        return header.append("total;dur=").append(formatMillis(totalNanos)).toString();
+    }
+
+    private static String formatMillis(long nanos) {
+        // Microsecond resolution, e.g. 12.345
+        long micros = nanos / 1_000;
+        long fraction = micros % 1_000;
+        return (micros / 1_000) + "." + (fraction < 10 ? "00" : fraction < 100 ? "0" : "") + fraction;
+    }
+
+    /**
+     * Measures the backend round trip: runs immediately before the Netty routing filter,
+     * whose chain completes once the upstream response headers have been received.
+     * The time is taken on that completion signal, before it travels back up to the write
+     * response filter, which starts writing (and committing) the response as soon as it
+     * sees it. A finally hook would fire only after that and miss the Server-Timing header.
+     */
+    @Component
+    public static class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE - 1;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            long startNanos = System.nanoTime();
+            return chain.filter(exchange)
+                    .doOnTerminate(() -> exchange.getAttributes()
+                            .put(UPSTREAM_NANOS_ATTR, System.nanoTime() - startNanos));
+        }
+    }
+}
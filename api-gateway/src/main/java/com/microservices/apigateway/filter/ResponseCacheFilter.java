@@ -0,0 +1,222 @@
+package com.microservices.apigateway.filter;
+
+import com.microservices.apigateway.cache.ResponseCache;
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Caches successful GET responses per route, keyed by path, query and caller role.
+ * Responses carry an ETag, and a matching If-None-Match is answered with 304 without
+ * a body. Entries expire after the configured TTL or when {@link ResponseCache} is
+ * invalidated (see InventoryCacheInvalidationListener). Bodies over the size limit are
+ * streamed through rather than buffered.
+ * Must be applied after {@link AuthenticationFilter} so the role header is present.
+ */
+@Component
+@Slf4j
+public class ResponseCacheFilter extends AbstractGatewayFilterFactory<ResponseCacheFilter.Config> {
+
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private final ResponseCache responseCache;
+
+    public ResponseCacheFilter(ResponseCache responseCache) {
+        super(Config.class);
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        Counter hits = responseCache.counter(config.getRegion(), "hit");
+        Counter notModified = responseCache.counter(config.getRegion(), "not_modified");
+        Counter misses = responseCache.counter(config.getRegion(), "miss");
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET || isNoCache(request.getHeaders())) {
+                return chain.filter(exchange);
+            }
+
+            String key = cacheKey(request);
+            ResponseCache.CachedResponse cached = responseCache.get(config.getRegion(), key);
+            if (cached != null) {
+                if (etagMatches(request.getHeaders(), cached.getEtag())) {
+                    notModified.increment();
+                    return writeNotModified(exchange.getResponse(), cached.getEtag());
+                }
+                hits.increment();
+                return writeCached(exchange.getResponse(), cached);
+            }
+
+            misses.increment();
+            ServerHttpResponse originalResponse = exchange.getResponse();
+            ServerHttpResponseDecorator cachingResponse = new ServerHttpResponseDecorator(originalResponse) {
+                @Override
+                public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                    if (!isCacheable(getStatusCode(), getHeaders())
+                            || getHeaders().getContentLength() > config.getMaxBodyBytes()) {
+                        return super.writeWith(body);
+                    }
+                    // Hold buffers back only while the body still fits. Once it passes the limit,
+                    // the held buffers and the rest of the stream are written straight through.
+                    Flux<DataBuffer> source = Flux.from(body);
+                    AtomicLong seen = new AtomicLong();
+                    return source
+                            .bufferUntil(buffer -> seen.addAndGet(buffer.readableByteCount()) > config.getMaxBodyBytes())
+                            .switchOnFirst((first, buffers) -> {
+                                if (!first.hasValue() || seen.get() > config.getMaxBodyBytes()) {
+                                    return super.writeWith(buffers.concatMapIterable(Function.identity()));
+                                }
+                                // Under the limit, the first batch is the whole body
+                                return DataBufferUtils.join(Flux.fromIterable(first.get())).flatMap(this::cacheAndWrite);
+                            })
+                            .then();
+                }
+
+                private Mono<Void> cacheAndWrite(DataBuffer joined) {
+                    byte[] bytes = new byte[joined.readableByteCount()];
+                    joined.read(bytes);
+                    DataBufferUtils.release(joined);
+
+                    String etag = "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+                    HttpHeaders storedHeaders = new HttpHeaders();
+                    storedHeaders.setContentType(getHeaders().getContentType());
+                    responseCache.put(config.getRegion(), config.getMaxEntries(), key,
+                            request.getPath().value(), storedHeaders, bytes, etag, config.getTtl());
+
+                    getHeaders().setETag(etag);
+                    getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+                    if (etagMatches(request.getHeaders(), etag)) {
+                        setStatusCode(HttpStatus.NOT_MODIFIED);
+                        getHeaders().setContentLength(0);
+                        return super.setComplete();
+                    }
+                    return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                }
+            };
+
+            return chain.filter(exchange.mutate().response(cachingResponse).build());
+        };
+    }
+
+    private String cacheKey(ServerHttpRequest request) {
+        String role = request.getHeaders().getFirst("X-User-Role");
+        String query = request.getURI().getRawQuery();
+        return request.getPath().value()
+                + (query != null ? "?" + query : "")
+                + "|" + (role != null ? role : "ANONYMOUS");
+    }
+
+    private boolean isNoCache(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        return cacheControl != null && (cacheControl.contains("no-cache") || cacheControl.contains("no-store"));
+    }
+
+    private boolean isCacheable(HttpStatusCode status, HttpHeaders headers) {
+        if (status == null || status.value() != HttpStatus.OK.value()) {
+            return false;
+        }
+        if (headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return false;
+        }
+        String cacheControl = headers.getCacheControl();
+        return cacheControl == null || !(cacheControl.contains("no-store") || cacheControl.contains("private"));
+    }
+
+    private boolean etagMatches(HttpHeaders requestHeaders, String etag) {
+        List<String> ifNoneMatch = requestHeaders.getIfNoneMatch();
+        for (String candidate : ifNoneMatch) {
+            if ("*".equals(candidate) || etag.equals(candidate) || etag.equals(stripWeak(candidate))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private Mono<Void> writeNotModified(ServerHttpResponse response, String etag) {
+        response.setStatusCode(HttpStatus.NOT_MODIFIED);
+        response.getHeaders().setETag(etag);
+        response.getHeaders().set(CACHE_STATUS_HEADER, "HIT");
+        return response.setComplete();
+    }
+
+    private Mono<Void> writeCached(ServerHttpResponse response, ResponseCache.CachedResponse cached) {
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().addAll(cached.getHeaders());
+        response.getHeaders().setETag(cached.getEtag());
+        response.getHeaders().setContentLength(cached.getBody().length);
+        response.getHeaders().set(CACHE_STATUS_HEADER, "HIT");
+        DataBuffer buffer = response.bufferFactory().wrap(cached.getBody());
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    public static class Config {
+        // Cache region name, also used for invalidation and metrics
+        private String region = "default";
+        private Duration ttl = Duration.ofSeconds(30);
+        private int maxEntries = 1000;
+        private int maxBodyBytes = 256 * 1024;
+
+        public String getRegion() {
+            return region;
+        }
+
+        public Config setRegion(String region) {
+            this.region = region;
+            return this;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public Config setTtl(Duration ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public Config setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        public int getMaxBodyBytes() {
+            return maxBodyBytes;
+        }
+
+        public Config setMaxBodyBytes(int maxBodyBytes) {
+            this.maxBodyBytes = maxBodyBytes;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.microservices.apigateway.limiter;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive concurrency limit for one backend (a bulkhead whose size follows the backend's health).
+ * <p>
+ * The limit moves by AIMD against a latency gradient: a request that completes within
+ * {@code tolerance x} the observed minimum RTT grows the limit by {@code 1/limit}; a slower,
+ * failed or 5xx request multiplies it by {@code backoffRatio}. The minimum RTT is re-learned
+ * every {@code minRttWindow} so the baseline follows deploys and load changes. Requests over
+ * the limit wait in a bounded FIFO queue for at most {@code maxWait}; when the queue is full
+ * they are rejected immediately.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final double backoffRatio;
+    private final double tolerance;
+    private final long minRttWindowNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Queue<Sinks.Empty<Void>> waiters = new ConcurrentLinkedQueue<>();
+
+    private volatile double limit;
+    private long minRttNanos = Long.MAX_VALUE;
+    private long minRttWindowStart = System.nanoTime();
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, int maxQueue,
+                                      double backoffRatio, double tolerance, Duration minRttWindow) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueue = maxQueue;
+        this.backoffRatio = backoffRatio;
+        this.tolerance = tolerance;
+        this.minRttWindowNanos = minRttWindow.toNanos();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * Acquire a slot, waiting in the queue if needed.
+     *
+     * @return a Mono emitting {@code true} once a slot is held, or {@code false} if the request
+     *         should be shed (queue full or wait timed out)
+     */
+    public Mono<Boolean> acquire(Duration maxWait) {
+        if (tryAcquire()) {
+            return Mono.just(Boolean.TRUE);
+        }
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            return Mono.just(Boolean.FALSE);
+        }
+
+        Sinks.Empty<Void> waiter = Sinks.empty();
+        waiters.add(waiter);
+        drain();
+        return waiter.asMono()
+                .thenReturn(Boolean.TRUE)
+                .timeout(maxWait)
+                .onErrorResume(TimeoutException.class, e -> abandon(waiter))
+                .doOnCancel(() -> abandon(waiter).subscribe());
+    }
+
+    /**
+     * Release a slot and feed the outcome into the limit.
+     *
+     * @param rttNanos time the request held the slot
+     * @param dropped  true for errors, timeouts and 5xx responses
+     */
+    public void release(long rttNanos, boolean dropped) {
+        updateLimit(rttNanos, dropped);
+        inFlight.decrementAndGet();
+        drain();
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void drain() {
+        Sinks.Empty<Void> waiter;
+        while (!waiters.isEmpty() && tryAcquire()) {
+            waiter = waiters.poll();
+            if (waiter == null) {
+                inFlight.decrementAndGet();
+                return;
+            }
+            queued.decrementAndGet();
+            if (waiter.tryEmitEmpty().isFailure()) {
+                // Waiter already timed out or went away; hand the slot back
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private Mono<Boolean> abandon(Sinks.Empty<Void> waiter) {
+        if (waiters.remove(waiter)) {
+            queued.decrementAndGet();
+            waiter.tryEmitError(new TimeoutException("Concurrency limit wait expired for " + name));
+            return Mono.just(Boolean.FALSE);
+        }
+        // Lost the race with drain(): the slot was granted, release it unused
+        if (waiter.tryEmitError(new TimeoutException()).isFailure()) {
+            inFlight.decrementAndGet();
+            drain();
+        }
+        return Mono.just(Boolean.FALSE);
+    }
+
+    private synchronized void updateLimit(long rttNanos, boolean dropped) {
+        long now = System.nanoTime();
+        if (now - minRttWindowStart > minRttWindowNanos) {
+            minRttNanos = Long.MAX_VALUE;
+            minRttWindowStart = now;
+        }
+        if (!dropped && rttNanos < minRttNanos) {
+            minRttNanos = rttNanos;
+        }
+
+        double newLimit;
+        if (dropped || (minRttNanos != Long.MAX_VALUE && rttNanos > minRttNanos * tolerance)) {
+            newLimit = limit * backoffRatio;
+        } else if (inFlight.get() * 2 >= limit) {
+            // Only grow while the limit is actually being used
+            newLimit = limit + 1.0 / limit;
+        } else {
+            newLimit = limit;
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+}
@@ -0,0 +1,189 @@
+package com.microservices.apigateway.loadbalancer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency-aware instance selection for replicated backends.
+ * <p>
+ * Each service listed with more than one instance gets a pool. Requests pick two
+ * random instances and go to the one with the lower EWMA latency x in-flight score
+ * (power of two choices), which steers load away from a slow pod without the herd
+ * effect of always picking the single best instance. Services configured with one
+ * URL are left to the normal routing path.
+ */
+@Component
+@Slf4j
+public class LatencyAwareLoadBalancer {
+
+    private static final long HEDGE_DELAY_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<String, List<UpstreamInstance>> pools = new HashMap<>();
+    private final Map<String, Timer> serviceTimers = new HashMap<>();
+    private final Map<String, long[]> hedgeDelayCache = new ConcurrentHashMap<>();
+    private final long errorPenaltyNanos;
+    private final long hedgeMinDelayNanos;
+    private final long hedgeMaxDelayNanos;
+
+    public LatencyAwareLoadBalancer(MeterRegistry meterRegistry,
+                                    @Value("${gateway.load-balancer.decay:10s}") Duration decay,
+                                    @Value("${gateway.load-balancer.error-penalty:1s}") Duration errorPenalty,
+                                    @Value("${gateway.load-balancer.hedge.min-delay:20ms}") Duration hedgeMinDelay,
+                                    @Value("${gateway.load-balancer.hedge.max-delay:500ms}") Duration hedgeMaxDelay,
+                                    @Value("${auth-service.url:http://auth-service:8082}") String authServiceUrl,
+                                    @Value("${auth-service.instances:}") String authServiceInstances,
+                                    @Value("${user-service.url:http://user-service:8081}") String userServiceUrl,
+                                    @Value("${user-service.instances:}") String userServiceInstances,
+                                    @Value("${order-service.url:http://order-service:8083}") String orderServiceUrl,
+                                    @Value("${order-service.instances:}") String orderServiceInstances,
+                                    @Value("${inventory-service.url:http://inventory-service:8084}") String inventoryServiceUrl,
+                                    @Value("${inventory-service.instances:}") String inventoryServiceInstances,
+                                    @Value("${notification-service.url:http://notification-service:8085}") String notificationServiceUrl,
+                                    @Value("${notification-service.instances:}") String notificationServiceInstances) {
+        this.errorPenaltyNanos = errorPenalty.toNanos();
+        this.hedgeMinDelayNanos = hedgeMinDelay.toNanos();
+        this.hedgeMaxDelayNanos = hedgeMaxDelay.toNanos();
+
+        long decayNanos = decay.toNanos();
+        register("auth-service", authServiceUrl, authServiceInstances, decayNanos, meterRegistry);
+        register("user-service", userServiceUrl, userServiceInstances, decayNanos, meterRegistry);
+        register("order-service", orderServiceUrl, orderServiceInstances, decayNanos, meterRegistry);
+        register("inventory-service", inventoryServiceUrl, inventoryServiceInstances, decayNanos, meterRegistry);
+        register("notification-service", notificationServiceUrl, notificationServiceInstances, decayNanos, meterRegistry);
+    }
+
+    private void register(String service, String routeUrl, String instances, long decayNanos,
+                          MeterRegistry meterRegistry) {
+        List<String> urls = Arrays.stream(instances.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+        if (urls.size() < 2) {
+            return;
+        }
+
+        List<UpstreamInstance> pool = new ArrayList<>();
+        for (String url : urls) {
+            pool.add(new UpstreamInstance(service, URI.create(url), decayNanos, meterRegistry));
+        }
+        String key = poolKey(URI.create(routeUrl));
+        pools.put(key, Collections.unmodifiableList(pool));
+        serviceTimers.put(key, Timer.builder("gateway.upstream.service.latency")
+                .description("Upstream response latency across all instances of a service")
+                .tag("service", service)
+                .publishPercentiles(0.95)
+                .register(meterRegistry));
+        log.info("Latency-aware load balancing enabled for {} across {} instances", service, pool.size());
+    }
+
+    /**
+     * Instances for the service a routed request URL points at, or {@code null} if that
+     * service is not load balanced here.
+     */
+    public List<UpstreamInstance> instancesFor(URI requestUrl) {
+        if (pools.isEmpty()) {
+            return null;
+        }
+        return pools.get(poolKey(requestUrl));
+    }
+
+    /**
+     * Power-of-two-choices pick.
+     */
+    public UpstreamInstance choose(List<UpstreamInstance> pool) {
+        return choose(pool, null);
+    }
+
+    /**
+     * Power-of-two-choices pick that avoids {@code exclude}, used for hedged requests.
+     */
+    public UpstreamInstance choose(List<UpstreamInstance> pool, UpstreamInstance exclude) {
+        List<UpstreamInstance> candidates = pool;
+        if (exclude != null) {
+            candidates = new ArrayList<>(pool);
+            candidates.remove(exclude);
+        }
+        int size = candidates.size();
+        if (size == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        UpstreamInstance a = candidates.get(first);
+        UpstreamInstance b = candidates.get(second);
+        return a.score() <= b.score() ? a : b;
+    }
+
+    public void start(UpstreamInstance instance) {
+        instance.start();
+    }
+
+    public void finish(URI requestUrl, UpstreamInstance instance, long elapsedNanos, boolean failed) {
+        instance.finish(elapsedNanos, failed, errorPenaltyNanos);
+        if (!failed) {
+            Timer serviceTimer = serviceTimers.get(poolKey(requestUrl));
+            if (serviceTimer != null) {
+                serviceTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Close a request that was cancelled before it finished: a hedge loser or a client that
+     * went away. Its elapsed time is cut short, so it only feeds the instance's EWMA, never the
+     * service p95 that sets the hedge delay; callers charge at least the winner's time.
+     */
+    public void cancel(UpstreamInstance instance, long elapsedNanos) {
+        instance.finish(elapsedNanos, false, errorPenaltyNanos);
+    }
+
+    /**
+     * Delay before a hedged request is sent: the service's recent p95 latency,
+     * clamped to the configured bounds and refreshed at most once per second.
+     */
+    public Duration hedgeDelay(URI requestUrl) {
+        String key = poolKey(requestUrl);
+        long now = System.nanoTime();
+        long[] cached = hedgeDelayCache.get(key);
+        if (cached != null && now - cached[1] < HEDGE_DELAY_REFRESH_NANOS) {
+            return Duration.ofNanos(cached[0]);
+        }
+
+        long p95Nanos = hedgeMaxDelayNanos;
+        Timer serviceTimer = serviceTimers.get(key);
+        if (serviceTimer != null) {
+            for (ValueAtPercentile percentile : serviceTimer.takeSnapshot().percentileValues()) {
+                if (percentile.percentile() == 0.95 && percentile.value() > 0) {
+                    p95Nanos = (long) percentile.value(TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+        long delay = Math.max(hedgeMinDelayNanos, Math.min(hedgeMaxDelayNanos, p95Nanos));
+        hedgeDelayCache.put(key, new long[] {delay, now});
+        return Duration.ofNanos(delay);
+    }
+
+    private static String poolKey(URI uri) {
+        return uri.getScheme() + "://" + uri.getAuthority();
+    }
+}
@@ -0,0 +1,115 @@
+package com.microservices.apigateway.loadbalancer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One backend replica with its live load signals: requests in flight and an
+ * exponentially weighted moving average of response latency. The EWMA decays by
+ * elapsed time rather than by sample count, so an idle instance's score ages
+ * towards fresh samples quickly once it receives traffic again.
+ */
+public class UpstreamInstance {
+
+    private final String service;
+    private final URI baseUri;
+    private final long decayNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Timer latencyTimer;
+    private final Counter errorCounter;
+
+    private double ewmaNanos;
+    private long lastUpdateNanos;
+
+    UpstreamInstance(String service, URI baseUri, long decayNanos, MeterRegistry meterRegistry) {
+        this.service = service;
+        this.baseUri = baseUri;
+        this.decayNanos = decayNanos;
+        this.lastUpdateNanos = System.nanoTime();
+
+        String instance = baseUri.getAuthority();
+        this.latencyTimer = Timer.builder("gateway.upstream.latency")
+                .description("Upstream response latency per backend instance")
+                .tag("service", service)
+                .tag("instance", instance)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.errorCounter = Counter.builder("gateway.upstream.errors")
+                .description("Failed or 5xx upstream responses per backend instance")
+                .tag("service", service)
+                .tag("instance", instance)
+                .register(meterRegistry);
+        Gauge.builder("gateway.upstream.inflight", inFlight, AtomicInteger::get)
+                .description("Requests currently in flight per backend instance")
+                .tag("service", service)
+                .tag("instance", instance)
+                .register(meterRegistry);
+        Gauge.builder("gateway.upstream.ewma", this, i -> i.currentEwmaNanos() / 1_000_000.0)
+                .description("EWMA upstream latency in milliseconds per backend instance")
+                .tag("service", service)
+                .tag("instance", instance)
+                .register(meterRegistry);
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    public URI getBaseUri() {
+        return baseUri;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Rewrite a request URL to point at this instance, keeping path and query.
+     */
+    public URI resolve(URI requestUrl) {
+        String query = requestUrl.getRawQuery();
+        return URI.create(baseUri.getScheme() + "://" + baseUri.getRawAuthority()
+                + requestUrl.getRawPath() + (query != null ? "?" + query : ""));
+    }
+
+    /**
+     * Load score used by power-of-two-choices; lower is better.
+     */
+    double score() {
+        return (currentEwmaNanos() + 1) * (inFlight.get() + 1);
+    }
+
+    void start() {
+        inFlight.incrementAndGet();
+    }
+
+    void finish(long elapsedNanos, boolean failed, long errorPenaltyNanos) {
+        inFlight.decrementAndGet();
+        latencyTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (failed) {
+            errorCounter.increment();
+        }
+        recordSample(failed ? Math.max(elapsedNanos, errorPenaltyNanos) : elapsedNanos);
+    }
+
+    private synchronized void recordSample(long sampleNanos) {
+        long now = System.nanoTime();
+        if (ewmaNanos == 0) {
+            ewmaNanos = sampleNanos;
+        } else {
+            double weight = Math.exp(-(double) (now - lastUpdateNanos) / decayNanos);
+            ewmaNanos = ewmaNanos * weight + sampleNanos * (1 - weight);
+        }
+        lastUpdateNanos = now;
+    }
+
+    private synchronized double currentEwmaNanos() {
+        return ewmaNanos;
+    }
+}
@@ -0,0 +1,146 @@
+package com.microservices.apigateway.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pre-serialized JSON error body. The constant fields are serialized once; rendering only
+ * splices the timestamp (cached per second) and, optionally, the request path in as bytes.
+ * Used on rejection and fallback paths that can run at full request rate during an auth
+ * storm or backend outage, where building a map and running Jackson per response adds up.
+ */
+public final class ErrorResponseTemplate {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final byte[] HEAD = "{\"timestamp\":\"".getBytes(StandardCharsets.UTF_8);
+
+    private static volatile CachedTimestamp cachedTimestamp = new CachedTimestamp(-1, new byte[0]);
+
+    private final HttpStatus status;
+    private final byte[] middle;
+    private final byte[] tail;
+    private final boolean includePath;
+
+    private ErrorResponseTemplate(HttpStatus status, Map<String, Object> fields, boolean includePath) {
+        this.status = status;
+        this.includePath = includePath;
+        try {
+            String json = OBJECT_MAPPER.writeValueAsString(fields);
+            String inner = json.substring(1, json.length() - 1);
+            this.middle = ("\"," + inner + (includePath ? ",\"path\":\"" : "")).getBytes(StandardCharsets.UTF_8);
+            this.tail = (includePath ? "\"}" : "}").getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize error template", e);
+        }
+    }
+
+    /**
+     * Template with timestamp, status, error, message, errorCode and the request path.
+     */
+    public static ErrorResponseTemplate error(HttpStatus status, String message, String errorCode) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("status", status.value());
+        fields.put("error", status.getReasonPhrase());
+        fields.put("message", message);
+        fields.put("errorCode", errorCode);
+        return new ErrorResponseTemplate(status, fields, true);
+    }
+
+    /**
+     * Template for a circuit breaker fallback: timestamp, status, error, message and service.
+     */
+    public static ErrorResponseTemplate serviceUnavailable(String message, String service) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        fields.put("error", "Service Unavailable");
+        fields.put("message", message);
+        fields.put("service", service);
+        return new ErrorResponseTemplate(HttpStatus.SERVICE_UNAVAILABLE, fields, false);
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Render the body for one response.
+     *
+     * @param path request path; ignored by templates without a path field
+     */
+    public byte[] render(String path) {
+        byte[] timestamp = timestamp();
+        byte[] pathBytes = includePath ? escape(path).getBytes(StandardCharsets.UTF_8) : new byte[0];
+
+        byte[] body = new byte[HEAD.length + timestamp.length + middle.length + pathBytes.length + tail.length];
+        int offset = 0;
+        System.arraycopy(HEAD, 0, body, offset, HEAD.length);
+        offset += HEAD.length;
+        System.arraycopy(timestamp, 0, body, offset, timestamp.length);
+        offset += timestamp.length;
+        System.arraycopy(middle, 0, body, offset, middle.length);
+        offset += middle.length;
+        System.arraycopy(pathBytes, 0, body, offset, pathBytes.length);
+        offset += pathBytes.length;
+        System.arraycopy(tail, 0, body, offset, tail.length);
+        return body;
+    }
+
+    /**
+     * Set status and content type and write the rendered body, wrapping the byte array
+     * in a buffer without copying.
+     */
+    public Mono<Void> write(ServerHttpResponse response, String path) {
+        byte[] body = render(path);
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    private static byte[] timestamp() {
+        long second = System.currentTimeMillis() / 1000;
+        CachedTimestamp cached = cachedTimestamp;
+        if (cached.epochSecond != second) {
+            String formatted = LocalDateTime.now(ZoneId.systemDefault()).format(TIMESTAMP_FORMAT);
+            cached = new CachedTimestamp(second, formatted.getBytes(StandardCharsets.UTF_8));
+            cachedTimestamp = cached;
+        }
+        return cached.bytes;
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\' || c < 0x20) {
+                return new String(JsonStringEncoder.getInstance().quoteAsString(value));
+            }
+        }
+        return value;
+    }
+
+    private static final class CachedTimestamp {
+        private final long epochSecond;
+        private final byte[] bytes;
+
+        private CachedTimestamp(long epochSecond, byte[] bytes) {
+            this.epochSecond = epochSecond;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.microservices.apigateway;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Wire size and CPU cost of gzip on catalog-style JSON at the sizes the gateway serves,
+ * using the deflate level Reactor Netty's response compression uses (6).
+ * Opt-in: {@code mvn -pl api-gateway test -Dgateway.benchmark=true}
+ */
+@EnabledIfSystemProperty(named = "gateway.benchmark", matches = "true")
+class ResponseCompressionBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCompressionBenchmarkTest.class);
+    private static final int[] PRODUCT_COUNTS = {5, 50, 500, 5_000};
+    private static final long TARGET_BYTES = 200L * 1024 * 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void gzipCatalogPayloads() throws IOException {
+        for (int products : PRODUCT_COUNTS) {
+            byte[] json = objectMapper.writeValueAsBytes(catalogPage(products));
+            byte[] compressed = gzip(json);
+            assertThat(compressed.length).isLessThan(json.length);
+
+            // Compress roughly the same volume for every size so timings are comparable
+            int iterations = (int) Math.max(50, TARGET_BYTES / json.length);
+            long sink = 0;
+            for (int i = 0; i < iterations / 5; i++) {
+                sink += gzip(json).length;
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += gzip(json).length;
+            }
+            double micros = (System.nanoTime() - start) / 1_000.0 / iterations;
+
+            log.info("{} products: {} B -> {} B gzip ({}% of original), {} us/response, {} MB/s [{}]",
+                    products, json.length, compressed.length,
+                    String.format("%.1f", 100.0 * compressed.length / json.length),
+                    String.format("%.1f", micros),
+                    String.format("%.0f", json.length / micros),
+                    sink);
+        }
+    }
+
+    private static Map<String, Object> catalogPage(int products) {
+        List<Map<String, Object>> content = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            Map<String, Object> product = new LinkedHashMap<>();
+            product.put("id", 10_000 + i);
+            product.put("name", "Product " + i + " - " + (i % 3 == 0 ? "Wireless Headphones" : "Stainless Water Bottle"));
+            product.put("sku", String.format("SKU-%06d", i));
+            product.put("description", "Durable everyday item, model " + (i % 17) + ", ships in 2-3 business days.");
+            product.put("price", new BigDecimal("19.99").add(BigDecimal.valueOf(i % 40)));
+            product.put("quantityInStock", (i * 37) % 500);
+            product.put("reservedQuantity", i % 7);
+            product.put("category", i % 2 == 0 ? "ELECTRONICS" : "HOME");
+            product.put("status", "ACTIVE");
+            product.put("isActive", true);
+            product.put("updatedAt", "2026-10-19T02:15:13");
+            content.add(product);
+        }
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("content", content);
+        page.put("size", products);
+        page.put("nextCursor", "MTAwMDA");
+        return page;
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(6);
+            }
+        }) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,95 @@
+package com.microservices.apigateway.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rejection body rendering: the pre-serialized template next to the per-request HashMap and
+ * Jackson serialization the authentication filter used before.
+ * Opt-in: {@code mvn -pl api-gateway test -Dgateway.benchmark=true}
+ */
+@EnabledIfSystemProperty(named = "gateway.benchmark", matches = "true")
+class ErrorResponseTemplateBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ErrorResponseTemplateBenchmarkTest.class);
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 2_000_000;
+    private static final String PATH = "/api/orders/12345";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void compareRejectionBodies() throws Exception {
+        ErrorResponseTemplate template = ErrorResponseTemplate.error(HttpStatus.UNAUTHORIZED,
+                "Token has expired. Please login again.", "TOKEN_EXPIRED");
+
+        Function<String, byte[]> perRequest = this::serializePerRequest;
+        Function<String, byte[]> preSerialized = template::render;
+
+        assertThat(withoutTimestamp(preSerialized.apply(PATH))).isEqualTo(withoutTimestamp(perRequest.apply(PATH)));
+        report("HashMap + Jackson", perRequest);
+        report("pre-serialized template", preSerialized);
+    }
+
+    /** The rejection path before templates: a fresh map and a Jackson pass per response. */
+    private byte[] serializePerRequest(String path) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now().toString());
+        errorResponse.put("status", HttpStatus.UNAUTHORIZED.value());
+        errorResponse.put("error", HttpStatus.UNAUTHORIZED.getReasonPhrase());
+        errorResponse.put("message", "Token has expired. Please login again.");
+        errorResponse.put("errorCode", "TOKEN_EXPIRED");
+        errorResponse.put("path", path);
+        try {
+            return objectMapper.writeValueAsBytes(errorResponse);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private JsonNode withoutTimestamp(byte[] body) throws Exception {
+        ObjectNode node = (ObjectNode) objectMapper.readTree(body);
+        node.remove("timestamp");
+        return node;
+    }
+
+    private static void report(String mode, Function<String, byte[]> render) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += render.apply(PATH).length;
+        }
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += render.apply(PATH).length;
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        log.info("{}: {} ns/response, {} bytes allocated/response [{}]",
+                mode,
+                String.format("%.0f", elapsed / (double) ITERATIONS),
+                String.format("%.0f", allocated / (double) ITERATIONS),
+                sink);
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+}
@@ -1,9 +1,129 @@
 package com.microservices.auth.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.io.IOException;
 
 @Configuration
 @EnableKafka
+@Slf4j
 public class KafkaConfig {
+
+    public static final String RETRY_TOPIC_SUFFIX = "-retry";
+    public static final String DEAD_LETTER_TOPIC_SUFFIX = "-dlq";
+
+    private static final String USER_EVENTS_TOPIC = "user-events";
+
+    @Value("${app.kafka.user-events.partitions:3}")
+    private int userEventsPartitions;
+
+    /**
+     * Retry and dead-letter topics for user-events, created with its partition count so a
+     * failed record is republished to the partition it came from.
+     */
+    @Bean
+    public NewTopic userEventsRetryTopic() {
+        return TopicBuilder.name(USER_EVENTS_TOPIC + RETRY_TOPIC_SUFFIX)
+                .partitions(userEventsPartitions)
+                .build();
+    }
+
+    @Bean
+    public NewTopic userEventsDeadLetterTopic() {
+        return TopicBuilder.name(USER_EVENTS_TOPIC + DEAD_LETTER_TOPIC_SUFFIX)
+                .partitions(userEventsPartitions)
+                .build();
+    }
+
+    /**
+     * Error handler picked up by the listener container factory.
+     * <p>
+     * A record that fails on a main topic is not retried in place, which would stall its
+     * partition. It is republished to {@code <topic>-retry} straight away, and the records
+     * after it in the poll are redelivered. The retry topic has its own listener, where the
+     * record is retried with an exponential backoff that only holds up other retries. Once
+     * the attempts run out, it is published to {@code <topic>-dlq}, from where it can be
+     * replayed. Unreadable payloads go straight to the dead-letter topic.
+     */
+    @Bean
+    public DefaultErrorHandler kafkaErrorHandler(KafkaTemplate<Object, Object> kafkaTemplate,
+                                                 MeterRegistry meterRegistry,
+                                                 @Value("${app.kafka.user-events.retry.attempts:4}") int attempts,
+                                                 @Value("${app.kafka.user-events.retry.delay-ms:1000}") long delayMs,
+                                                 @Value("${app.kafka.user-events.retry.multiplier:4}") double multiplier,
+                                                 @Value("${app.kafka.user-events.retry.max-delay-ms:60000}") long maxDelayMs) {
+        Counter retryCounter = Counter.builder("auth.user.events.retried")
+                .description("User events moved to the retry topic after failing on the main topic")
+                .tag("service", "auth-service")
+                .register(meterRegistry);
+        Counter deadLetterCounter = Counter.builder("auth.user.events.dead.letter")
+                .description("User events that exhausted their retries")
+                .tag("service", "auth-service")
+                .register(meterRegistry);
+
+        DeadLetterPublishingRecoverer retryPublisher = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, exception) -> new TopicPartition(record.topic() + RETRY_TOPIC_SUFFIX, record.partition()));
+        DeadLetterPublishingRecoverer deadLetterPublisher = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, exception) -> new TopicPartition(mainTopic(record.topic()) + DEAD_LETTER_TOPIC_SUFFIX,
+                        record.partition()));
+        // Keep the main topic as the original, so a DLQ replay goes back there and not to the retry topic
+        deadLetterPublisher.setAppendOriginalHeaders(false);
+
+        // The first attempt on the retry topic is the second overall; the rest are backed off
+        ExponentialBackOffWithMaxRetries retryTopicBackOff = new ExponentialBackOffWithMaxRetries(Math.max(attempts - 2, 0));
+        retryTopicBackOff.setInitialInterval(delayMs);
+        retryTopicBackOff.setMultiplier(multiplier);
+        retryTopicBackOff.setMaxInterval(maxDelayMs);
+
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler((record, exception) -> {
+            if (!isRetryTopic(record.topic()) && !isUnreadable(exception) && attempts > 1) {
+                retryCounter.increment();
+                log.warn("Moving record {}-{}@{} to the retry topic: {}", record.topic(), record.partition(),
+                        record.offset(), exception.getMessage());
+                retryPublisher.accept(record, exception);
+                return;
+            }
+            deadLetterCounter.increment();
+            log.error("Parking record {}-{}@{} on dead-letter topic: {}", record.topic(), record.partition(),
+                    record.offset(), exception.getMessage());
+            deadLetterPublisher.accept(record, exception);
+        }, retryTopicBackOff);
+        // No in-place retries on main topics; a null backoff falls back to the retry topic backoff
+        FixedBackOff noRetries = new FixedBackOff(0L, 0L);
+        errorHandler.setBackOffFunction((record, exception) -> isRetryTopic(record.topic()) ? null : noRetries);
+        // Unreadable payloads will not parse on a second attempt either
+        errorHandler.addNotRetryableExceptions(IOException.class);
+        return errorHandler;
+    }
+
+    private static boolean isRetryTopic(String topic) {
+        return topic.endsWith(RETRY_TOPIC_SUFFIX);
+    }
+
+    private static String mainTopic(String topic) {
+        return isRetryTopic(topic) ? topic.substring(0, topic.length() - RETRY_TOPIC_SUFFIX.length()) : topic;
+    }
+
+    private static boolean isUnreadable(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -1,154 +1,137 @@
 package com.microservices.auth.consumer;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.microservices.auth.entity.User;
-import com.microservices.auth.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.microservices.auth.config.KafkaConfig;
+import com.microservices.auth.dto.UserSyncEvent;
+import com.microservices.auth.service.UserSyncService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
-import java.util.Map;
-
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consumes user-events a poll at a time. Consecutive creates are synced together;
+ * updates are applied in order between them. When a record fails, everything before it
+ * has already been applied, so the listener reports its index and the container's error
+ * handler (see KafkaConfig) commits up to it and moves it to user-events-retry. Records on
+ * the retry topic are handled one at a time and end up on user-events-dlq if they keep failing.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class UserEventConsumer {
 
-    private final ObjectMapper objectMapper;
-    private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final ObjectReader eventReader;
+    private final UserSyncService userSyncService;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
+
+    public UserEventConsumer(ObjectMapper objectMapper,
+                             UserSyncService userSyncService,
+                             MeterRegistry meterRegistry) {
+        this.eventReader = objectMapper.readerFor(UserSyncEvent.class);
+        this.userSyncService = userSyncService;
+        this.batchTimer = Timer.builder("auth.user.sync.batch.time")
+                .description("Time taken to apply one poll of user events")
+                .tag("service", "auth-service")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("auth.user.sync.batch.size")
+                .description("User events received per poll")
+                .tag("service", "auth-service")
+                .register(meterRegistry);
+    }
 
-    @KafkaListener(topics = "user-events", groupId = "auth-service-dev")
-    public void handleUserEvent(@Payload String message,
-                               @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-                               @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-                               @Header(KafkaHeaders.OFFSET) long offset,
-                               Acknowledgment acknowledgment) {
-        try {
-            log.info("Received user event from topic: {}, partition: {}, offset: {}", topic, partition, offset);
-            log.debug("Message content: {}", message);
+    @KafkaListener(topics = "user-events", groupId = "auth-service-dev", batch = "true")
+    public void handleUserEvents(List<ConsumerRecord<String, String>> records, Acknowledgment acknowledgment) {
+        log.debug("Received {} user events", records.size());
+        batchSize.record(records.size());
+        batchTimer.record(() -> process(records));
+        acknowledgment.acknowledge();
+    }
 
-            // Parse the message
-            Map<String, Object> eventData = objectMapper.readValue(message, Map.class);
-            String eventType = (String) eventData.get("eventType");
+    @KafkaListener(topics = "user-events" + KafkaConfig.RETRY_TOPIC_SUFFIX, groupId = "auth-service-dev")
+    public void handleRetriedUserEvent(ConsumerRecord<String, String> record, Acknowledgment acknowledgment) {
+        log.info("Retrying user event {}-{}@{}", record.topic(), record.partition(), record.offset());
+        process(List.of(record));
+        acknowledgment.acknowledge();
+    }
 
-            switch (eventType) {
-                case "USER_CREATED_FROM_USER_SERVICE":
-                    handleUserCreatedFromUserService(eventData);
-                    break;
-                case "USER_UPDATED_FROM_USER_SERVICE":
-                    handleUserUpdatedFromUserService(eventData);
-                    break;
-                default:
-                    log.debug("Ignoring event type: {} (not relevant to auth service)", eventType);
+    private void process(List<ConsumerRecord<String, String>> records) {
+        PendingCreates creates = new PendingCreates();
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, String> record = records.get(i);
+            UserSyncEvent event;
+            try {
+                event = eventReader.readValue(record.value());
+            } catch (IOException e) {
+                flush(creates);
+                throw new BatchListenerFailedException("Unreadable user event at offset " + record.offset(), e, i);
             }
 
-            // Acknowledge the message
-            acknowledgment.acknowledge();
-            log.info("Successfully processed user event from topic: {}, partition: {}, offset: {}", topic, partition, offset);
-
-        } catch (Exception e) {
-            log.error("Error processing user event from topic: {}, partition: {}, offset: {}", topic, partition, offset, e);
-            // In production, you might want to send to DLQ or retry
-            // For now, we'll acknowledge to prevent infinite retries
-            acknowledgment.acknowledge();
+            if (UserSyncEvent.USER_CREATED.equals(event.getEventType())) {
+                creates.add(i, event);
+            } else if (UserSyncEvent.USER_UPDATED.equals(event.getEventType())) {
+                flush(creates);
+                try {
+                    userSyncService.updateUser(event);
+                } catch (RuntimeException e) {
+                    throw new BatchListenerFailedException("Failed to update user " + event.getUsername(), e, i);
+                }
+            } else {
+                log.debug("Ignoring event type: {} (not relevant to auth service)", event.getEventType());
+            }
         }
+        flush(creates);
     }
 
-    private void handleUserCreatedFromUserService(Map<String, Object> eventData) {
+    private void flush(PendingCreates creates) {
+        if (creates.events.isEmpty()) {
+            return;
+        }
         try {
-            String username = (String) eventData.get("username");
-            String email = (String) eventData.get("email");
-            String firstName = (String) eventData.get("firstName");
-            String lastName = (String) eventData.get("lastName");
-            String password = (String) eventData.get("password");
-            String roleString = (String) eventData.get("role");
-
-            log.info("Processing USER_CREATED_FROM_USER_SERVICE event for user: {} with role: {}", username, roleString);
-
-            // Check if user already exists in auth database
-            if (userRepository.existsByUsername(username)) {
-                log.info("User {} already exists in auth database, skipping creation", username);
-                return;
+            userSyncService.createUsers(creates.events);
+        } catch (RuntimeException batchFailure) {
+            if (creates.events.size() == 1) {
+                throw new BatchListenerFailedException("Failed to sync user " + creates.events.get(0).getUsername(),
+                        batchFailure, creates.indexes.get(0));
             }
-
-            // Parse role from event data, default to USER if not provided or invalid
-            User.UserRole role;
-            try {
-                role = User.UserRole.valueOf(roleString != null ? roleString : "USER");
-            } catch (IllegalArgumentException e) {
-                log.warn("Invalid role '{}' for user {}, defaulting to USER", roleString, username);
-                role = User.UserRole.USER;
+            // Find the offending record; the ones before it still get applied
+            log.warn("Batch sync of {} users failed, retrying one by one: {}",
+                    creates.events.size(), batchFailure.getMessage());
+            for (int j = 0; j < creates.events.size(); j++) {
+                UserSyncEvent event = creates.events.get(j);
+                try {
+                    userSyncService.createUsers(List.of(event));
+                } catch (RuntimeException e) {
+                    throw new BatchListenerFailedException("Failed to sync user " + event.getUsername(),
+                            e, creates.indexes.get(j));
+                }
             }
-
-            // Create user in auth database
-            User user = new User();
-            user.setUsername(username);
-            user.setEmail(email);
-            user.setPassword(passwordEncoder.encode(password));
-            user.setRole(role);
-            user.setEnabled(true);
-            user.setFailedLoginAttempts(0);
-            user.setAccountLocked(false);
-            user.setCreatedAt(LocalDateTime.now());
-            user.setUpdatedAt(LocalDateTime.now());
-            user.setCreatedBy("user-service");
-            user.setUpdatedBy("user-service");
-
-            userRepository.save(user);
-            
-            log.info("Successfully created user in auth database for: {} with role: {}", username, role);
-
-        } catch (Exception e) {
-            log.error("Error processing user created event from user service: {}", eventData, e);
-            throw e; // Re-throw to trigger error handling
         }
+        creates.clear();
     }
 
-    private void handleUserUpdatedFromUserService(Map<String, Object> eventData) {
-        try {
-            String username = (String) eventData.get("username");
-            String email = (String) eventData.get("email");
-            String firstName = (String) eventData.get("firstName");
-            String lastName = (String) eventData.get("lastName");
-
-            log.info("Processing USER_UPDATED_FROM_USER_SERVICE event for user: {}", username);
+    private static final class PendingCreates {
+        private final List<Integer> indexes = new ArrayList<>();
+        private final List<UserSyncEvent> events = new ArrayList<>();
 
-            // Find user in auth database
-            User user = userRepository.findByUsername(username)
-                    .orElse(null);
-            
-            if (user == null) {
-                log.warn("User {} not found in auth database, skipping update", username);
-                return;
-            }
-
-            // Update user fields
-            boolean needsUpdate = false;
-            if (email != null && !email.equals(user.getEmail())) {
-                user.setEmail(email);
-                needsUpdate = true;
-            }
-            
-            if (needsUpdate) {
-                user.setUpdatedAt(LocalDateTime.now());
-                user.setUpdatedBy("user-service");
-                userRepository.save(user);
-                log.info("Successfully updated user in auth database for: {}", username);
-            } else {
-                log.info("No changes needed for user: {}", username);
-            }
+        private void add(int index, UserSyncEvent event) {
+            indexes.add(index);
+            events.add(event);
+        }
 
-        } catch (Exception e) {
-            log.error("Error processing user updated event from user service: {}", eventData, e);
-            throw e; // Re-throw to trigger error handling
+        private void clear() {
+            indexes.clear();
+            events.clear();
         }
     }
 }
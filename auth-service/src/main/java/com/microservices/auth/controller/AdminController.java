@@ -1,12 +1,15 @@
 package com.microservices.auth.controller;
 
+import com.microservices.auth.dto.DeadLetterReplayResponse;
 import com.microservices.auth.dto.SessionResponse;
 import com.microservices.auth.entity.User;
 import com.microservices.auth.repository.UserRepository;
 import com.microservices.auth.service.AdminService;
+import com.microservices.auth.service.DeadLetterReplayService;
 import com.microservices.auth.service.RefreshTokenService;
 import com.microservices.auth.service.SessionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -25,6 +28,7 @@ public class AdminController {
     private final SessionService sessionService;
     private final RefreshTokenService refreshTokenService;
     private final UserRepository userRepository;
+    private final DeadLetterReplayService deadLetterReplayService;
 
     @PostMapping("/unlock-account/{username}")
     public ResponseEntity<Map<String, Object>> unlockAccount(@PathVariable String username) {
@@ -68,4 +72,15 @@ public class AdminController {
         response.put("message", "All sessions terminated successfully");
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/kafka/user-events/dlq/replay")
+    public ResponseEntity<?> replayUserEventDeadLetters(
+            @RequestParam(defaultValue = "1000") int maxRecords) throws Exception {
+        try {
+            DeadLetterReplayResponse result = deadLetterReplayService.replay(Math.max(1, Math.min(maxRecords, 100_000)));
+            return ResponseEntity.ok(result);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+}
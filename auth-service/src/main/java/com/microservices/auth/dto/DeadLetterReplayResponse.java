@@ -0,0 +1,18 @@
+package com.microservices.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeadLetterReplayResponse {
+    private String deadLetterTopic;
+    private long replayed;
+    private int batches;
+    private long remaining;
+    private long durationMs;
+}
@@ -0,0 +1,32 @@
+package com.microservices.auth.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * User change published by User Service on user-events
+ * (USER_CREATED_FROM_USER_SERVICE, USER_UPDATED_FROM_USER_SERVICE).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UserSyncEvent {
+
+    public static final String USER_CREATED = "USER_CREATED_FROM_USER_SERVICE";
+    public static final String USER_UPDATED = "USER_UPDATED_FROM_USER_SERVICE";
+
+    private String eventType;
+    private String username;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private String password;
+    private String role;
+    private Long timestamp;
+    private String source;
+}
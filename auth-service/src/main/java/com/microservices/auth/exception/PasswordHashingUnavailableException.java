@@ -0,0 +1,14 @@
+package com.microservices.auth.exception;
+
+/**
+ * Thrown when the password hashing pool is saturated and the request is shed.
+ */
+public class PasswordHashingUnavailableException extends RuntimeException {
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -2,7 +2,6 @@ package com.microservices.auth.repository;
 
 import com.microservices.auth.entity.IpLockout;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -40,13 +39,6 @@ public interface IpLockoutRepository extends JpaRepository<IpLockout, Long> {
     @Query("SELECT il FROM IpLockout il WHERE il.lockedUntil IS NOT NULL AND il.lockedUntil <= :now")
     List<IpLockout> findExpiredLockouts(@Param("now") LocalDateTime now);
 
-    /**
-     * Delete expired lockouts
-     */
-    @Modifying
-    @Query("DELETE FROM IpLockout il WHERE il.lockedUntil IS NOT NULL AND il.lockedUntil <= :now")
-    int deleteExpiredLockouts(@Param("now") LocalDateTime now);
-
     /**
      * Count total lockouts by IP address
      */
@@ -0,0 +1,33 @@
+package com.microservices.auth.repository;
+
+import com.microservices.auth.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Take over the lease if it has lapsed or is already ours; returns 1 on success
+     */
+    @Modifying
+    @Query("UPDATE JobLease jl SET jl.owner = :owner, jl.leaseUntil = :leaseUntil " +
+            "WHERE jl.jobName = :jobName AND (jl.leaseUntil < :now OR jl.owner = :owner)")
+    int tryAcquire(String jobName, String owner, LocalDateTime leaseUntil, LocalDateTime now);
+
+    /**
+     * Plain insert (no merge) so a concurrent insert fails on the primary key instead of overwriting
+     */
+    @Modifying
+    @Query(value = "INSERT INTO job_leases (job_name, owner, lease_until) VALUES (:jobName, :owner, :leaseUntil)",
+            nativeQuery = true)
+    int insert(String jobName, String owner, LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE JobLease jl SET jl.leaseUntil = :now WHERE jl.jobName = :jobName AND jl.owner = :owner")
+    int release(String jobName, String owner, LocalDateTime now);
+}
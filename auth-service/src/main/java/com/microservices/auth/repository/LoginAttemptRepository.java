@@ -2,7 +2,6 @@ package com.microservices.auth.repository;
 
 import com.microservices.auth.entity.LoginAttempt;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -39,13 +38,6 @@ public interface LoginAttemptRepository extends JpaRepository<LoginAttempt, Long
     @Query("SELECT la FROM LoginAttempt la WHERE la.username = :username AND la.ipAddress = :ipAddress ORDER BY la.createdAt DESC")
     List<LoginAttempt> findByUsernameAndIpAddress(@Param("username") String username, @Param("ipAddress") String ipAddress);
 
-    /**
-     * Delete expired login attempts
-     */
-    @Modifying
-    @Query("DELETE FROM LoginAttempt la WHERE la.expiresAt < :now")
-    int deleteExpiredAttempts(@Param("now") LocalDateTime now);
-
     /**
      * Count total login attempts by IP address
      */
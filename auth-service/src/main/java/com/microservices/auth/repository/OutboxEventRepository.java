@@ -3,7 +3,6 @@ package com.microservices.auth.repository;
 import com.microservices.auth.entity.OutboxEvent;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -19,14 +18,6 @@ public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>
     @Query("SELECT oe FROM OutboxEvent oe WHERE oe.processed = false ORDER BY oe.createdAt ASC")
     List<OutboxEvent> findByProcessedFalseOrderByCreatedAtAsc();
 
-    @Modifying
-    @Query("DELETE FROM OutboxEvent oe WHERE oe.processed = true AND oe.processedAt < :cutoffDate")
-    void deleteProcessedEventsOlderThan(LocalDateTime cutoffDate);
-
-    @Modifying
-    @Query("DELETE FROM OutboxEvent oe WHERE oe.processed = true AND oe.createdAt < :cutoffDate")
-    int deleteByProcessedTrueAndCreatedAtBefore(LocalDateTime cutoffDate);
-
     @Query("SELECT COUNT(oe) FROM OutboxEvent oe WHERE oe.processed = false")
     long countUnprocessedEvents();
 
@@ -24,10 +24,6 @@ public interface UserSessionRepository extends JpaRepository<UserSession, Long>
     @Query("UPDATE UserSession us SET us.active = false, us.loggedOutAt = :now WHERE us.user = :user")
     void deactivateAllUserSessions(User user, LocalDateTime now);
 
-    @Modifying
-    @Query("UPDATE UserSession us SET us.active = false, us.loggedOutAt = :now WHERE us.expiresAt < :now")
-    void deactivateExpiredSessions(LocalDateTime now);
-
     @Query("SELECT COUNT(us) FROM UserSession us WHERE us.user = :user AND us.active = true")
     long countActiveSessionsByUser(User user);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.microservices.auth.security;
 
 import com.microservices.auth.util.JwtUtil;
+import com.microservices.auth.util.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -43,9 +44,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = extractJwtFromRequest(request);
 
-            if (jwt != null && jwtUtil.validateToken(jwt)) {
-                String username = jwtUtil.getUsernameFromToken(jwt);
-                String role = jwtUtil.getRoleFromToken(jwt);
+            VerifiedToken verified = jwt != null ? jwtUtil.parseVerified(jwt).orElse(null) : null;
+
+            if (verified != null) {
+                String username = verified.getUsername();
+                String role = verified.getRole();
 
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
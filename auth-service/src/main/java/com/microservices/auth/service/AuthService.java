@@ -19,7 +19,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,7 +31,7 @@ import java.util.Map;
 @Slf4j
 public class AuthService {
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtUtil jwtUtil;
     private final RefreshTokenService refreshTokenService;
     private final SessionService sessionService;
@@ -40,7 +39,7 @@ public class AuthService {
     private final OutboxEventRepository outboxEventRepository;
     private final UserServiceClient userServiceClient;
     private final ObjectMapper objectMapper;
-    private final CircuitBreakerService circuitBreakerService;
+    private final UserProfileSyncService userProfileSyncService;
 
     @Value("${app.security.max-failed-attempts:5}")
     private int maxFailedAttempts;
@@ -50,9 +49,6 @@ public class AuthService {
 
     @Value("${jwt.access-token-expiration}")
     private Long accessTokenExpiration;
-    
-    @Value("${internal.api.key}")
-    private String internalApiKey;
 
     @Transactional
     public AuthResponse register(RegisterRequest request, String ipAddress, DeviceInfo deviceInfo) {
@@ -71,7 +67,7 @@ public class AuthService {
         User user = new User();
         user.setUsername(sanitizedUsername);
         user.setEmail(sanitizedEmail);
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
         user.setRole(User.UserRole.USER);
         user.setEnabled(true);
         user.setLastLoginIp(ipAddress);
@@ -104,27 +100,15 @@ public class AuthService {
         // This ensures reliable delivery via Kafka with retry mechanism
         publishUserCreatedEvent(user, request.getFirstName(), request.getLastName());
         
-        // Also try direct sync as backup (non-blocking) with circuit breaker protection
-        try {
-            CreateUserProfileRequest profileRequest = new CreateUserProfileRequest(
+        // Also try direct sync as backup, after commit and off the request thread
+        userProfileSyncService.syncAfterCommit(new CreateUserProfileRequest(
                 user.getId(),
                 user.getUsername(),
                 user.getEmail(),
                 "MANAGED_BY_AUTH_SERVICE", // Don't send password
                 request.getFirstName(),
                 request.getLastName()
-            );
-            
-            boolean syncSuccess = circuitBreakerService.executeUserServiceCall(profileRequest, internalApiKey);
-            if (syncSuccess) {
-                log.info("User profile created in User Service via direct sync for user: {}", sanitizedUsername);
-            } else {
-                log.warn("Direct sync failed for user: {} - Circuit breaker may be open or service unavailable", sanitizedUsername);
-            }
-        } catch (Exception e) {
-            log.warn("Direct sync failed for user: {} - Kafka event will handle sync. Error: {}", sanitizedUsername, e.getMessage());
-            // Don't fail registration - Kafka event will retry
-        }
+        ));
 
         // Generate access token
         String accessToken = jwtUtil.generateToken(user.getUsername(), user.getRole().name());
@@ -167,11 +151,17 @@ public class AuthService {
         }
 
         // Verify password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
             handleFailedLogin(user, ipAddress);
             throw new AuthenticationException("Invalid credentials");
         }
 
+        // Transparently upgrade hashes created with an older BCrypt cost
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHashingService.encode(request.getPassword()));
+            log.info("Password hash upgraded to current cost for user: {}", sanitizedUsername);
+        }
+
         // Successful login - reset failed attempts and update login info
         handleSuccessfulLogin(user, ipAddress);
 
@@ -212,28 +202,31 @@ public class AuthService {
 
     @Transactional
     public RefreshTokenResponse refreshAccessToken(RefreshTokenRequest request) {
-        RefreshToken refreshToken = refreshTokenService.findByToken(request.getRefreshToken());
+        // Served from the token cache; only a miss or stale entry reads the DB
+        RefreshTokenService.CachedToken refreshToken =
+                refreshTokenService.findCachedByToken(request.getRefreshToken());
         refreshTokenService.verifyExpiration(refreshToken);
-
-        User user = refreshToken.getUser();
+        // Refreshing is how a client keeps its session alive; the timestamp is written behind
+        sessionService.updateDeviceSessionLastAccess(refreshToken.getUserId(), refreshToken.getDeviceId());
 
         // Generate new access token
-        String newAccessToken = jwtUtil.generateToken(user.getUsername(), user.getRole().name());
+        String newAccessToken = jwtUtil.generateToken(refreshToken.getUsername(), refreshToken.getRole());
 
         // Optionally rotate refresh token for better security
         String newRefreshToken = refreshToken.getToken();
         // Uncomment below to enable refresh token rotation
-        // refreshTokenService.revokeToken(refreshToken.getToken());
+        // RefreshToken current = refreshTokenService.findByToken(refreshToken.getToken());
+        // refreshTokenService.revokeToken(current.getToken());
         // RefreshToken newRefreshTokenEntity = refreshTokenService.createRefreshToken(
-        //         user,
-        //         refreshToken.getDeviceId(),
-        //         refreshToken.getDeviceName(),
-        //         refreshToken.getIpAddress(),
-        //         refreshToken.getUserAgent()
+        //         current.getUser(),
+        //         current.getDeviceId(),
+        //         current.getDeviceName(),
+        //         current.getIpAddress(),
+        //         current.getUserAgent()
         // );
         // newRefreshToken = newRefreshTokenEntity.getToken();
 
-        log.info("Access token refreshed for user: {}", user.getUsername());
+        log.info("Access token refreshed for user: {}", refreshToken.getUsername());
 
         return new RefreshTokenResponse(
                 newAccessToken,
@@ -244,16 +237,9 @@ public class AuthService {
     }
 
     public ValidateTokenResponse validateToken(String token) {
-        try {
-            if (jwtUtil.validateToken(token)) {
-                String username = jwtUtil.getUsernameFromToken(token);
-                String role = jwtUtil.getRoleFromToken(token);
-                return new ValidateTokenResponse(true, username, role);
-            }
-        } catch (Exception e) {
-            log.debug("Token validation failed: {}", e.getMessage());
-        }
-        return new ValidateTokenResponse(false, null, null);
+        return jwtUtil.parseVerified(token)
+                .map(verified -> new ValidateTokenResponse(true, verified.getUsername(), verified.getRole()))
+                .orElseGet(() -> new ValidateTokenResponse(false, null, null));
     }
 
     @Transactional
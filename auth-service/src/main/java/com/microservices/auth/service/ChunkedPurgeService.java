@@ -0,0 +1,114 @@
+package com.microservices.auth.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs large cleanup statements in bounded id batches instead of one unbounded
+ * UPDATE/DELETE. Each batch commits on its own, with a short pause in between,
+ * so locks stay short and WAL is produced gradually. A job lease keeps replicas
+ * from purging the same table at the same time.
+ */
+@Service
+@Slf4j
+public class ChunkedPurgeService {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final JobLeaseService jobLeaseService;
+    private final TransactionTemplate batchTransaction;
+
+    @Value("${app.purge.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.purge.pause-ms:100}")
+    private long pauseMillis;
+
+    @Value("${app.purge.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${app.purge.max-batches:10000}")
+    private int maxBatches;
+
+    public ChunkedPurgeService(NamedParameterJdbcTemplate jdbcTemplate,
+                               JobLeaseService jobLeaseService,
+                               PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jobLeaseService = jobLeaseService;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Purge rows in batches.
+     *
+     * @param jobName      lease name; also used in log output
+     * @param selectIdsSql query returning matching ids; must accept a {@code :limit} parameter
+     * @param applySql     statement applied to one batch; must accept an {@code :ids} list parameter
+     * @param params       shared parameters for both statements
+     * @return number of rows affected, or -1 if another replica holds the lease
+     */
+    public long purge(String jobName, String selectIdsSql, String applySql, Map<String, ?> params) {
+        Duration leaseDuration = Duration.ofSeconds(leaseSeconds);
+        if (!jobLeaseService.tryAcquire(jobName, leaseDuration)) {
+            log.info("Skipping {} - lease held by another instance", jobName);
+            return -1;
+        }
+
+        long startNanos = System.nanoTime();
+        long total = 0;
+        int batches = 0;
+        try {
+            while (batches < maxBatches && !Thread.currentThread().isInterrupted()) {
+                MapSqlParameterSource selectParams = new MapSqlParameterSource(params).addValue("limit", batchSize);
+                List<Long> ids = jdbcTemplate.queryForList(selectIdsSql, selectParams, Long.class);
+                if (ids.isEmpty()) {
+                    break;
+                }
+
+                MapSqlParameterSource applyParams = new MapSqlParameterSource(params).addValue("ids", ids);
+                Integer affected = batchTransaction.execute(status -> jdbcTemplate.update(applySql, applyParams));
+                total += affected != null ? affected : 0;
+                batches++;
+
+                if (ids.size() < batchSize) {
+                    break;
+                }
+
+                // Keep the lease alive for long runs, and stop if we lost it
+                if (!jobLeaseService.tryAcquire(jobName, leaseDuration)) {
+                    log.warn("Lost lease for {} after {} batches, stopping", jobName, batches);
+                    break;
+                }
+                pause();
+            }
+        } finally {
+            jobLeaseService.release(jobName);
+        }
+
+        double seconds = Math.max((System.nanoTime() - startNanos) / 1_000_000_000.0, 0.001);
+        log.info("{} purged {} rows in {} batches ({} s, {} rows/s)",
+                jobName, total, batches, String.format("%.2f", seconds), String.format("%.0f", total / seconds));
+        return total;
+    }
+
+    private void pause() {
+        if (pauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.microservices.auth.service;
+
+import com.microservices.auth.dto.DeadLetterReplayResponse;
+import com.microservices.common.kafka.KafkaProducerTemplates;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Re-injects records parked on the user-events dead-letter topic back onto the topic they
+ * failed on. Records are sent in batches; a batch's DLQ offsets are committed only after every
+ * record in it has been acknowledged by the broker, so an interrupted replay resumes where it
+ * stopped. Only records present when the replay starts are considered, so events that fail
+ * again and return to the DLQ are not replayed in a loop.
+ */
+@Service
+@Slf4j
+public class DeadLetterReplayService {
+
+    private static final String DLT_HEADER_PREFIX = "kafka_dlt-";
+    private static final String RETRY_HEADER_PREFIX = "retry_topic-";
+    private static final int MAX_EMPTY_POLLS = 3;
+
+    private final ConsumerFactory<String, String> consumerFactory;
+    private final KafkaProducerTemplates producerTemplates;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${kafka.topics.user-events-dlq:user-events-dlq}")
+    private String deadLetterTopic;
+
+    // Used when a record lacks the original-topic header; matches the UserEventConsumer topic
+    @Value("${app.kafka.dlq-replay.target-topic:user-events}")
+    private String defaultTargetTopic;
+
+    @Value("${app.kafka.dlq-replay.group-id:auth-service-dlq-replay}")
+    private String groupId;
+
+    @Value("${app.kafka.dlq-replay.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.kafka.dlq-replay.pause-ms:100}")
+    private long pauseMillis;
+
+    @Value("${app.kafka.dlq-replay.send-timeout-seconds:30}")
+    private long sendTimeoutSeconds;
+
+    public DeadLetterReplayService(ConsumerFactory<String, String> consumerFactory,
+                                   KafkaProducerTemplates producerTemplates) {
+        this.consumerFactory = consumerFactory;
+        this.producerTemplates = producerTemplates;
+    }
+
+    /**
+     * @param maxRecords upper bound on records replayed by this call
+     * @throws IllegalStateException if another replay is already running on this instance
+     */
+    public DeadLetterReplayResponse replay(int maxRecords) throws Exception {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A dead-letter replay is already running");
+        }
+        long startNanos = System.nanoTime();
+        try (Consumer<String, String> consumer = createConsumer()) {
+            List<TopicPartition> partitions = consumer.partitionsFor(deadLetterTopic).stream()
+                    .map(info -> new TopicPartition(info.topic(), info.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            long replayed = 0;
+            int batches = 0;
+            int emptyPolls = 0;
+            while (replayed < maxRecords && !caughtUp(consumer, endOffsets)
+                    && emptyPolls < MAX_EMPTY_POLLS && !Thread.currentThread().isInterrupted()) {
+                ConsumerRecords<String, String> records = consumer.poll(Duration.ofSeconds(1));
+                emptyPolls = records.isEmpty() ? emptyPolls + 1 : 0;
+                List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>();
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                for (ConsumerRecord<String, String> record : records) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (replayed >= maxRecords || record.offset() >= endOffsets.get(partition)) {
+                        continue;
+                    }
+                    sends.add(resend(record));
+                    offsets.put(partition, new OffsetAndMetadata(record.offset() + 1));
+                    replayed++;
+                }
+                if (sends.isEmpty()) {
+                    continue;
+                }
+
+                CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).get(sendTimeoutSeconds, TimeUnit.SECONDS);
+                consumer.commitSync(offsets);
+                batches++;
+                pause();
+            }
+
+            long remaining = remaining(consumer, endOffsets);
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            log.info("Replayed {} records from {} in {} batches ({} ms), {} left",
+                    replayed, deadLetterTopic, batches, durationMs, remaining);
+            return DeadLetterReplayResponse.builder()
+                    .deadLetterTopic(deadLetterTopic)
+                    .replayed(replayed)
+                    .batches(batches)
+                    .remaining(remaining)
+                    .durationMs(durationMs)
+                    .build();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private CompletableFuture<SendResult<String, String>> resend(ConsumerRecord<String, String> record) {
+        Header originalTopic = record.headers().lastHeader(KafkaHeaders.DLT_ORIGINAL_TOPIC);
+        String target = originalTopic != null
+                ? new String(originalTopic.value(), StandardCharsets.UTF_8) : defaultTargetTopic;
+
+        ProducerRecord<String, String> replay = new ProducerRecord<>(target, record.key(), record.value());
+        for (Header header : record.headers()) {
+            // Failure and retry bookkeeping must not follow the record back onto the main topic
+            if (!header.key().startsWith(DLT_HEADER_PREFIX) && !header.key().startsWith(RETRY_HEADER_PREFIX)) {
+                replay.headers().add(header);
+            }
+        }
+        return producerTemplates.<String, String>forTopic(target).send(replay);
+    }
+
+    private Consumer<String, String> createConsumer() {
+        Properties overrides = new Properties();
+        overrides.setProperty(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        overrides.setProperty(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        overrides.setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(batchSize));
+        overrides.setProperty(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        overrides.setProperty(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        return consumerFactory.createConsumer(groupId, null, "-replay", overrides);
+    }
+
+    private boolean caughtUp(Consumer<String, String> consumer, Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            if (consumer.position(end.getKey()) < end.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long remaining(Consumer<String, String> consumer, Map<TopicPartition, Long> endOffsets) {
+        Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(endOffsets.keySet());
+        long remaining = 0;
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            OffsetAndMetadata position = committed.get(end.getKey());
+            long start = position != null ? position.offset() : consumer.beginningOffsets(List.of(end.getKey())).get(end.getKey());
+            remaining += Math.max(end.getValue() - start, 0);
+        }
+        return remaining;
+    }
+
+    private void pause() {
+        if (pauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -6,10 +6,13 @@ import com.microservices.auth.repository.IpLockoutRepository;
 import com.microservices.auth.repository.LoginAttemptRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -24,6 +27,7 @@ public class IpLoginProtectionService {
 
     private final LoginAttemptRepository loginAttemptRepository;
     private final IpLockoutRepository ipLockoutRepository;
+    private final ChunkedPurgeService chunkedPurgeService;
 
     // Configuration constants
     private static final int MAX_FAILED_ATTEMPTS = 3;
@@ -56,9 +60,6 @@ public class IpLoginProtectionService {
             ipLockoutRepository.save(ipLockout);
             log.info("Reset failed attempts for IP: {}", ipAddress);
         }
-        
-        // Clean up expired attempts
-        cleanupExpiredAttempts();
     }
 
     /**
@@ -86,9 +87,6 @@ public class IpLoginProtectionService {
             log.warn("Locking IP {} for {} minutes due to {} failed attempts", 
                     ipAddress, LOCKOUT_DURATION_MINUTES, lockout.getFailedAttempts());
         }
-        
-        // Clean up expired attempts
-        cleanupExpiredAttempts();
     }
 
     /**
@@ -162,18 +160,27 @@ public class IpLoginProtectionService {
     /**
      * Clean up expired login attempts and lockouts
      */
-    @Transactional
+    @Scheduled(cron = "0 15 * * * ?") // Run hourly
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Batches commit individually
     public void cleanupExpiredAttempts() {
-        LocalDateTime now = LocalDateTime.now();
+        Map<String, Object> params = Map.of("now", LocalDateTime.now());
         
         // Delete expired login attempts
-        int deletedAttempts = loginAttemptRepository.deleteExpiredAttempts(now);
+        long deletedAttempts = chunkedPurgeService.purge(
+                "login-attempt-cleanup",
+                "SELECT id FROM login_attempts WHERE expires_at < :now ORDER BY id LIMIT :limit",
+                "DELETE FROM login_attempts WHERE id IN (:ids)",
+                params);
         if (deletedAttempts > 0) {
             log.debug("Cleaned up {} expired login attempts", deletedAttempts);
         }
         
         // Delete expired lockouts
-        int deletedLockouts = ipLockoutRepository.deleteExpiredLockouts(now);
+        long deletedLockouts = chunkedPurgeService.purge(
+                "ip-lockout-cleanup",
+                "SELECT id FROM ip_lockouts WHERE locked_until IS NOT NULL AND locked_until <= :now ORDER BY id LIMIT :limit",
+                "DELETE FROM ip_lockouts WHERE id IN (:ids)",
+                params);
         if (deletedLockouts > 0) {
             log.debug("Cleaned up {} expired IP lockouts", deletedLockouts);
         }
@@ -0,0 +1,76 @@
+package com.microservices.auth.service;
+
+import com.microservices.auth.repository.JobLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DB-backed leases so scheduled jobs run on a single replica at a time.
+ * Each lease call commits on its own, independent of any caller transaction.
+ */
+@Service
+@Slf4j
+public class JobLeaseService {
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String ownerId;
+
+    public JobLeaseService(JobLeaseRepository jobLeaseRepository, PlatformTransactionManager transactionManager) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ownerId = resolveHostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Acquire (or extend) the lease for a job. Returns false if another replica holds it.
+     */
+    public boolean tryAcquire(String jobName, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plus(duration);
+        try {
+            Integer updated = transactionTemplate.execute(status ->
+                    jobLeaseRepository.tryAcquire(jobName, ownerId, leaseUntil, now));
+            if (updated != null && updated > 0) {
+                return true;
+            }
+            if (jobLeaseRepository.existsById(jobName)) {
+                return false;
+            }
+            transactionTemplate.executeWithoutResult(status ->
+                    jobLeaseRepository.insert(jobName, ownerId, leaseUntil));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Another replica inserted the lease row first
+            log.debug("Lease {} was created concurrently by another instance", jobName);
+            return false;
+        }
+    }
+
+    public void release(String jobName) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jobLeaseRepository.release(jobName, ownerId, LocalDateTime.now()));
+        } catch (Exception e) {
+            log.warn("Failed to release lease {}: {}", jobName, e.getMessage());
+        }
+    }
+
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown-host";
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microservices.auth.client.UserServiceClient;
 import com.microservices.auth.entity.OutboxEvent;
 import com.microservices.auth.repository.OutboxEventRepository;
+import com.microservices.common.kafka.KafkaProducerTemplates;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -27,9 +28,10 @@ import java.util.concurrent.CompletableFuture;
 public class OutboxEventProcessor {
 
     private final OutboxEventRepository outboxEventRepository;
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaProducerTemplates producerTemplates;
     private final UserServiceClient userServiceClient;
     private final ObjectMapper objectMapper;
+    private final ChunkedPurgeService chunkedPurgeService;
 
     @Value("${app.kafka.topic.user-events}")
     private String userEventsTopic;
@@ -108,6 +110,7 @@ public class OutboxEventProcessor {
      */
     private boolean publishToKafka(OutboxEvent event) {
         try {
+            KafkaTemplate<String, String> kafkaTemplate = producerTemplates.forTopic(userEventsTopic);
             CompletableFuture<SendResult<String, String>> future = kafkaTemplate.send(
                     userEventsTopic, 
                     event.getAggregateId(), 
@@ -238,11 +241,14 @@ public class OutboxEventProcessor {
      * Clean up old processed events (run daily)
      */
     @Scheduled(cron = "0 0 2 * * ?") // Run at 2 AM daily
-    @Transactional
     public void cleanupOldEvents() {
         try {
             LocalDateTime cutoffDate = LocalDateTime.now().minusDays(7);
-            int deletedCount = outboxEventRepository.deleteByProcessedTrueAndCreatedAtBefore(cutoffDate);
+            long deletedCount = chunkedPurgeService.purge(
+                    "outbox-cleanup",
+                    "SELECT id FROM outbox_events WHERE processed = true AND created_at < :cutoff ORDER BY id LIMIT :limit",
+                    "DELETE FROM outbox_events WHERE id IN (:ids)",
+                    Map.of("cutoff", cutoffDate));
             log.info("Cleaned up {} old processed outbox events", deletedCount);
         } catch (Exception e) {
             log.error("Error cleaning up old outbox events: {}", e.getMessage(), e);
@@ -4,16 +4,23 @@ import com.microservices.auth.entity.RefreshToken;
 import com.microservices.auth.entity.User;
 import com.microservices.auth.repository.RefreshTokenRepository;
 import com.microservices.auth.util.JwtUtil;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 @Service
 @RequiredArgsConstructor
@@ -22,10 +29,21 @@ public class RefreshTokenService {
 
     private final RefreshTokenRepository refreshTokenRepository;
     private final JwtUtil jwtUtil;
+    private final ChunkedPurgeService chunkedPurgeService;
 
     @Value("${jwt.refresh-token-expiration}")
     private Long refreshTokenExpiration;
 
+    // Bounded staleness for revocations made on other replicas
+    @Value("${app.token-cache.ttl-seconds:60}")
+    private long cacheTtlSeconds;
+
+    @Value("${app.token-cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    // Refresh token lookups served without a DB round trip; invalidated after every local revocation commits
+    private final Map<String, CachedToken> tokenCache = new ConcurrentHashMap<>();
+
     @Transactional
     public RefreshToken createRefreshToken(User user, String deviceId, String deviceName,
                                            String ipAddress, String userAgent) {
@@ -38,11 +56,14 @@ public class RefreshTokenService {
         refreshToken.setIpAddress(ipAddress);
         refreshToken.setUserAgent(userAgent);
 
-        return refreshTokenRepository.save(refreshToken);
+        RefreshToken saved = refreshTokenRepository.save(refreshToken);
+        cacheAfterCommit(CachedToken.from(saved));
+        return saved;
     }
 
     public RefreshToken verifyExpiration(RefreshToken token) {
         if (token.isExpired()) {
+            tokenCache.remove(token.getToken());
             refreshTokenRepository.delete(token);
             throw new RuntimeException("Refresh token expired. Please login again");
         }
@@ -54,38 +75,171 @@ public class RefreshTokenService {
         return token;
     }
 
+    public CachedToken verifyExpiration(CachedToken token) {
+        if (token.isExpired()) {
+            tokenCache.remove(token.getToken());
+            refreshTokenRepository.deleteById(token.getId());
+            throw new RuntimeException("Refresh token expired. Please login again");
+        }
+
+        if (token.isRevoked()) {
+            throw new RuntimeException("Refresh token has been revoked. Please login again");
+        }
+
+        return token;
+    }
+
     public RefreshToken findByToken(String token) {
         return refreshTokenRepository.findByToken(token)
                 .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
     }
 
+    /**
+     * Cached lookup used on the refresh hot path. Falls back to the DB on miss
+     * or once the cached snapshot is older than the configured TTL.
+     */
+    public CachedToken findCachedByToken(String token) {
+        CachedToken cached = tokenCache.get(token);
+        if (cached != null && !cached.isStale(cacheTtlSeconds)) {
+            return cached;
+        }
+
+        CachedToken loaded = refreshTokenRepository.findByTokenWithUser(token)
+                .map(CachedToken::from)
+                .orElseThrow(() -> {
+                    tokenCache.remove(token);
+                    return new RuntimeException("Invalid refresh token");
+                });
+        cache(loaded);
+        return loaded;
+    }
+
     @Transactional
     public void revokeToken(String token) {
         RefreshToken refreshToken = findByToken(token);
         refreshToken.setRevoked(true);
         refreshToken.setRevokedAt(LocalDateTime.now());
         refreshTokenRepository.save(refreshToken);
+        evictAfterCommit(cached -> cached.getToken().equals(token));
     }
 
     @Transactional
     public void revokeAllUserTokens(User user) {
         refreshTokenRepository.revokeAllUserTokens(user, LocalDateTime.now());
+        evictAfterCommit(cached -> Objects.equals(cached.getUserId(), user.getId()));
     }
 
     @Transactional
     public void revokeUserDeviceTokens(User user, String deviceId) {
         refreshTokenRepository.revokeUserDeviceTokens(user, deviceId, LocalDateTime.now());
+        evictAfterCommit(cached -> Objects.equals(cached.getUserId(), user.getId())
+                && Objects.equals(cached.getDeviceId(), deviceId));
     }
 
-    @Transactional
     @Scheduled(cron = "0 0 2 * * ?")  // Run daily at 2 AM
     public void cleanupExpiredTokens() {
         log.info("Starting cleanup of expired refresh tokens");
-        refreshTokenRepository.deleteExpiredTokens(LocalDateTime.now());
+        chunkedPurgeService.purge(
+                "refresh-token-cleanup",
+                "SELECT id FROM refresh_tokens WHERE expiry_date < :now ORDER BY id LIMIT :limit",
+                "DELETE FROM refresh_tokens WHERE id IN (:ids)",
+                Map.of("now", LocalDateTime.now()));
+        tokenCache.values().removeIf(CachedToken::isExpired);
         log.info("Completed cleanup of expired refresh tokens");
     }
 
     public List<RefreshToken> getUserTokens(User user) {
         return refreshTokenRepository.findByUser(user);
     }
-}
\ No newline at end of file
+
+    /**
+     * Evict matching entries once the revocation commits. Evicting earlier lets a concurrent
+     * miss reload the not-yet-revoked row and cache it for a full TTL.
+     */
+    private void evictAfterCommit(Predicate<CachedToken> matches) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tokenCache.values().removeIf(matches);
+                }
+            });
+        } else {
+            tokenCache.values().removeIf(matches);
+        }
+    }
+
+    /** Cache a token created in the current transaction once it commits, so a rollback leaves nothing behind. */
+    private void cacheAfterCommit(CachedToken token) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache(token);
+                }
+            });
+        } else {
+            cache(token);
+        }
+    }
+
+    private void cache(CachedToken token) {
+        if (tokenCache.size() >= cacheMaxSize) {
+            tokenCache.values().removeIf(cached -> cached.isExpired() || cached.isStale(cacheTtlSeconds));
+            if (tokenCache.size() >= cacheMaxSize) {
+                return;
+            }
+        }
+        tokenCache.put(token.getToken(), token);
+    }
+
+    /**
+     * Immutable snapshot of a refresh token and the user fields needed to mint an access token
+     */
+    @Getter
+    public static class CachedToken {
+        private final Long id;
+        private final String token;
+        private final Long userId;
+        private final String username;
+        private final String role;
+        private final String deviceId;
+        private final LocalDateTime expiryDate;
+        private final boolean revoked;
+        private final long cachedAtMillis = System.currentTimeMillis();
+
+        private CachedToken(Long id, String token, Long userId, String username, String role,
+                            String deviceId, LocalDateTime expiryDate, boolean revoked) {
+            this.id = id;
+            this.token = token;
+            this.userId = userId;
+            this.username = username;
+            this.role = role;
+            this.deviceId = deviceId;
+            this.expiryDate = expiryDate;
+            this.revoked = revoked;
+        }
+
+        static CachedToken from(RefreshToken refreshToken) {
+            User user = refreshToken.getUser();
+            return new CachedToken(
+                    refreshToken.getId(),
+                    refreshToken.getToken(),
+                    user.getId(),
+                    user.getUsername(),
+                    user.getRole().name(),
+                    refreshToken.getDeviceId(),
+                    refreshToken.getExpiryDate(),
+                    Boolean.TRUE.equals(refreshToken.getRevoked())
+            );
+        }
+
+        public boolean isExpired() {
+            return LocalDateTime.now().isAfter(expiryDate);
+        }
+
+        boolean isStale(long ttlSeconds) {
+            return System.currentTimeMillis() - cachedAtMillis > ttlSeconds * 1000;
+        }
+    }
+}
@@ -7,13 +7,20 @@ import com.microservices.auth.repository.UserSessionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,10 +29,17 @@ import java.util.stream.Collectors;
 public class SessionService {
 
     private final UserSessionRepository sessionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ChunkedPurgeService chunkedPurgeService;
 
     @Value("${jwt.refresh-token-expiration}")
     private Long sessionExpiration;
 
+    // Latest access time per session, coalesced until the next flush
+    private final Map<String, LocalDateTime> pendingLastAccess = new ConcurrentHashMap<>();
+    // Same for sessions seen through their refresh token, which knows the user and device but not the session token
+    private final Map<DeviceSession, LocalDateTime> pendingDeviceAccess = new ConcurrentHashMap<>();
+
     @Transactional
     public UserSession createSession(User user, String deviceId, String deviceName,
                                      String deviceType, String ipAddress, String userAgent) {
@@ -42,16 +56,68 @@ public class SessionService {
         return sessionRepository.save(session);
     }
 
-    @Transactional
+    /**
+     * Record a session access. The timestamp is written behind in batches by
+     * {@link #flushLastAccessUpdates()}, so hot sessions cost one UPDATE per flush
+     * instead of a read and a full save per request.
+     */
     public void updateSessionLastAccess(String sessionToken) {
-        sessionRepository.findBySessionToken(sessionToken).ifPresent(session -> {
-            session.setLastAccessedAt(LocalDateTime.now());
-            sessionRepository.save(session);
-        });
+        pendingLastAccess.put(sessionToken, LocalDateTime.now());
+    }
+
+    /**
+     * Record an access to the user's active sessions on a device, written behind like
+     * {@link #updateSessionLastAccess(String)}. Called when a refresh token is validated.
+     */
+    public void updateDeviceSessionLastAccess(Long userId, String deviceId) {
+        pendingDeviceAccess.put(new DeviceSession(userId, deviceId), LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${app.session.last-access-flush-ms:5000}")
+    public void flushLastAccessUpdates() {
+        // Terminated sessions are skipped by the active guard
+        flush(pendingLastAccess,
+                "UPDATE user_sessions SET last_accessed_at = ? WHERE session_token = ? AND active = true",
+                sessionToken -> new Object[]{sessionToken});
+        flush(pendingDeviceAccess,
+                "UPDATE user_sessions SET last_accessed_at = ? WHERE user_id = ? "
+                        + "AND device_id IS NOT DISTINCT FROM ? AND active = true",
+                session -> new Object[]{session.userId, session.deviceId});
+    }
+
+    private <K> void flush(Map<K, LocalDateTime> pending, String sql, Function<K, Object[]> keyColumns) {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>(pending.size());
+        List<K> keys = new ArrayList<>(pending.size());
+        for (Map.Entry<K, LocalDateTime> entry : pending.entrySet()) {
+            // Only drop the entry if no newer access arrived while we were draining
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                Object[] key = keyColumns.apply(entry.getKey());
+                Object[] row = new Object[key.length + 1];
+                row[0] = Timestamp.valueOf(entry.getValue());
+                System.arraycopy(key, 0, row, 1, key.length);
+                batch.add(row);
+                keys.add(entry.getKey());
+            }
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(sql, batch);
+            log.debug("Flushed last access time for {} sessions", batch.size());
+        } catch (Exception e) {
+            log.warn("Failed to flush last access time for {} sessions: {}", batch.size(), e.getMessage());
+            for (int i = 0; i < keys.size(); i++) {
+                pending.putIfAbsent(keys.get(i), ((Timestamp) batch.get(i)[0]).toLocalDateTime());
+            }
+        }
     }
 
     @Transactional
     public void terminateSession(String sessionToken) {
+        pendingLastAccess.remove(sessionToken);
         sessionRepository.findBySessionToken(sessionToken).ifPresent(session -> {
             session.setActive(false);
             session.setLoggedOutAt(LocalDateTime.now());
@@ -74,11 +140,15 @@ public class SessionService {
         return sessionRepository.countActiveSessionsByUser(user);
     }
 
-    @Transactional
     @Scheduled(cron = "0 */30 * * * ?")  // Run every 30 minutes
     public void cleanupExpiredSessions() {
         log.info("Starting cleanup of expired sessions");
-        sessionRepository.deactivateExpiredSessions(LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        chunkedPurgeService.purge(
+                "session-cleanup",
+                "SELECT id FROM user_sessions WHERE active = true AND expires_at < :now ORDER BY id LIMIT :limit",
+                "UPDATE user_sessions SET active = false, logged_out_at = :now WHERE id IN (:ids)",
+                Map.of("now", now));
         log.info("Completed cleanup of expired sessions");
     }
 
@@ -94,4 +164,30 @@ public class SessionService {
                 session.getActive()
         );
     }
-}
\ No newline at end of file
+
+    private static final class DeviceSession {
+        private final Long userId;
+        private final String deviceId;
+
+        private DeviceSession(Long userId, String deviceId) {
+            this.userId = userId;
+            this.deviceId = deviceId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DeviceSession other)) {
+                return false;
+            }
+            return Objects.equals(userId, other.userId) && Objects.equals(deviceId, other.deviceId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, deviceId);
+        }
+    }
+}
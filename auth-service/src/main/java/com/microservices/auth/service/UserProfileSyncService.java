@@ -0,0 +1,132 @@
+package com.microservices.auth.service;
+
+import com.microservices.auth.dto.CreateUserProfileRequest;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Best-effort direct sync of new user profiles to User Service.
+ * Runs after the registering transaction commits, on a small bounded pool,
+ * so registration never waits on (or holds a DB connection for) the HTTP call.
+ * The outbox event written in the same transaction remains the reliable path,
+ * which is why saturated pools simply drop the direct call.
+ */
+@Service
+@Slf4j
+public class UserProfileSyncService {
+
+    private final CircuitBreakerService circuitBreakerService;
+    private final ThreadPoolExecutor executor;
+    private final Timer directSyncTimer;
+
+    @Value("${internal.api.key}")
+    private String internalApiKey;
+
+    public UserProfileSyncService(CircuitBreakerService circuitBreakerService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.sync.direct.pool-size:2}") int poolSize,
+                                  @Value("${app.sync.direct.queue-capacity:200}") int queueCapacity) {
+        this.circuitBreakerService = circuitBreakerService;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "user-sync-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+
+        this.directSyncTimer = Timer.builder("auth.user.sync.direct.time")
+                .description("Time taken by direct user profile sync calls to User Service")
+                .tag("service", "auth-service")
+                .register(meterRegistry);
+        Gauge.builder("auth.user.sync.direct.queue", executor, e -> e.getQueue().size())
+                .description("Direct user profile sync calls waiting to run")
+                .tag("service", "auth-service")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Schedule the direct sync once the current transaction commits.
+     * Nothing is sent if the transaction rolls back.
+     */
+    public void syncAfterCommit(CreateUserProfileRequest request) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(request);
+                }
+            });
+        } else {
+            dispatch(request);
+        }
+    }
+
+    private void dispatch(CreateUserProfileRequest request) {
+        Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+        try {
+            executor.execute(() -> {
+                if (mdcContext != null) {
+                    MDC.setContextMap(mdcContext);
+                }
+                try {
+                    directSyncTimer.record(() -> sync(request));
+                } finally {
+                    MDC.clear();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Direct sync queue full, skipping direct sync for user: {} - Kafka event will handle sync",
+                    request.getUsername());
+        }
+    }
+
+    private void sync(CreateUserProfileRequest request) {
+        try {
+            boolean syncSuccess = circuitBreakerService.executeUserServiceCall(request, internalApiKey);
+            if (syncSuccess) {
+                log.info("User profile created in User Service via direct sync for user: {}", request.getUsername());
+            } else {
+                log.warn("Direct sync failed for user: {} - Circuit breaker may be open or service unavailable",
+                        request.getUsername());
+            }
+        } catch (Exception e) {
+            log.warn("Direct sync failed for user: {} - Kafka event will handle sync. Error: {}",
+                    request.getUsername(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
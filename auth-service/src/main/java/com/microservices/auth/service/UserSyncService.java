@@ -0,0 +1,130 @@
+package com.microservices.auth.service;
+
+import com.microservices.auth.dto.UserSyncEvent;
+import com.microservices.auth.entity.User;
+import com.microservices.auth.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies users created and updated in User Service to the auth database.
+ * Creates are handled a poll at a time: one lookup for existing usernames, passwords
+ * hashed in parallel on the hashing pool, then a single JDBC batch insert.
+ */
+@Service
+@Slf4j
+public class UserSyncService {
+
+    private static final String SYNC_ACTOR = "user-service";
+
+    private static final String INSERT_USER_SQL = """
+            INSERT INTO auth_users (username, email, password, role, enabled, failed_login_attempts,
+                                    account_locked, email_verified, two_factor_enabled,
+                                    created_at, updated_at, password_changed_at, created_by, updated_by)
+            VALUES (:username, :email, :password, :role, true, 0, false, false, false,
+                    :now, :now, :now, :actor, :actor)
+            """;
+
+    private final UserRepository userRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate insertTransaction;
+
+    public UserSyncService(UserRepository userRepository,
+                           PasswordHashingService passwordHashingService,
+                           NamedParameterJdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.insertTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Hashing runs before any transaction is opened, so a batch holds a connection only for
+     * the insert itself rather than for the hundreds of milliseconds BCrypt takes.
+     * A user registered directly in auth between the lookup and the insert fails the whole
+     * batch; callers retry record by record, which repeats the lookup.
+     *
+     * @return number of users inserted
+     */
+    public int createUsers(List<UserSyncEvent> events) {
+        // Last event per username wins within a poll
+        Map<String, UserSyncEvent> byUsername = new LinkedHashMap<>();
+        for (UserSyncEvent event : events) {
+            byUsername.put(event.getUsername(), event);
+        }
+
+        Set<String> existing = userRepository.findExistingUsernames(byUsername.keySet());
+        List<UserSyncEvent> newUsers = byUsername.values().stream()
+                .filter(event -> !existing.contains(event.getUsername()))
+                .toList();
+        if (newUsers.isEmpty()) {
+            log.debug("All {} synced users already exist in auth database", byUsername.size());
+            return 0;
+        }
+
+        List<String> hashes = passwordHashingService.encodeAll(
+                newUsers.stream().map(UserSyncEvent::getPassword).toList());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<SqlParameterSource> rows = new ArrayList<>(newUsers.size());
+        for (int i = 0; i < newUsers.size(); i++) {
+            UserSyncEvent event = newUsers.get(i);
+            rows.add(new MapSqlParameterSource()
+                    .addValue("username", event.getUsername())
+                    .addValue("email", event.getEmail())
+                    .addValue("password", hashes.get(i))
+                    .addValue("role", parseRole(event).name())
+                    .addValue("now", now)
+                    .addValue("actor", SYNC_ACTOR));
+        }
+
+        insertTransaction.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_USER_SQL, rows.toArray(new SqlParameterSource[0])));
+        log.info("Synced {} new users from User Service ({} already present)",
+                newUsers.size(), existing.size());
+        return newUsers.size();
+    }
+
+    @Transactional
+    public void updateUser(UserSyncEvent event) {
+        User user = userRepository.findByUsername(event.getUsername()).orElse(null);
+        if (user == null) {
+            log.warn("User {} not found in auth database, skipping update", event.getUsername());
+            return;
+        }
+
+        if (event.getEmail() != null && !event.getEmail().equals(user.getEmail())) {
+            user.setEmail(event.getEmail());
+            user.setUpdatedAt(LocalDateTime.now());
+            user.setUpdatedBy(SYNC_ACTOR);
+            userRepository.save(user);
+            log.info("Successfully updated user in auth database for: {}", event.getUsername());
+        } else {
+            log.info("No changes needed for user: {}", event.getUsername());
+        }
+    }
+
+    private User.UserRole parseRole(UserSyncEvent event) {
+        try {
+            return User.UserRole.valueOf(event.getRole() != null ? event.getRole() : "USER");
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid role '{}' for user {}, defaulting to USER", event.getRole(), event.getUsername());
+            return User.UserRole.USER;
+        }
+    }
+}
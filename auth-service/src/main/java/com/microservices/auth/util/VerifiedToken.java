@@ -0,0 +1,17 @@
+package com.microservices.auth.util;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Claims of a token whose signature and expiry have already been checked
+ */
+@Getter
+@RequiredArgsConstructor
+public class VerifiedToken {
+    private final String username;
+    private final String role;
+    private final Date expiration;
+}
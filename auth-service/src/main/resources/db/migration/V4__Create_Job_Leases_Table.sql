@@ -0,0 +1,16 @@
+-- Migration to create job_leases table
+-- Scheduled cleanup jobs take a time-bound lease so only one replica runs each job at a time
+
+CREATE TABLE job_leases (
+    job_name VARCHAR(100) PRIMARY KEY,
+    owner VARCHAR(150) NOT NULL,
+    lease_until TIMESTAMP NOT NULL
+);
+
+-- Cleanup jobs select expired rows in id order, in bounded batches
+CREATE INDEX idx_refresh_tokens_expiry_date ON refresh_tokens(expiry_date);
+CREATE INDEX idx_user_sessions_active_expires_at ON user_sessions(active, expires_at);
+
+COMMENT ON TABLE job_leases IS 'Leases that keep scheduled jobs from running on several replicas at once';
+COMMENT ON COLUMN job_leases.owner IS 'Instance currently holding the lease';
+COMMENT ON COLUMN job_leases.lease_until IS 'Lease expiry; other instances may take over after this time';
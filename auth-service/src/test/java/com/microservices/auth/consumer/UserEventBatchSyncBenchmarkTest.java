@@ -0,0 +1,108 @@
+package com.microservices.auth.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.auth.dto.UserSyncEvent;
+import com.microservices.auth.service.UserSyncService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * End-to-end throughput of the batch user-events listener against H2 and an embedded broker,
+ * next to the same creates applied one event at a time (a lookup, a hash and an insert each).
+ * BCrypt runs at strength 4 so the numbers reflect the listener and the database rather than
+ * hashing, which PasswordHashingBenchmarkTest covers.
+ * Opt-in because it is slow: {@code mvn -pl auth-service test -Dauth.benchmark=true}
+ */
+@EnabledIfSystemProperty(named = "auth.benchmark", matches = "true")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.mail.password=benchmark",
+        "internal.api.key=benchmark",
+        "app.security.bcrypt-strength=4",
+        "spring.kafka.listener.ack-mode=manual",
+        "spring.kafka.consumer.max-poll-records=500",
+        "logging.level.com.microservices.auth=WARN"
+})
+@ActiveProfiles("dev")
+@EmbeddedKafka(partitions = 1, topics = {"user-events", "user-events-retry", "user-events-dlq"},
+        bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class UserEventBatchSyncBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(UserEventBatchSyncBenchmarkTest.class);
+    private static final int EVENTS = 20_000;
+    private static final int SINGLE_EVENTS = 1_000;
+
+    @Autowired
+    private KafkaTemplate<Object, Object> kafkaTemplate;
+
+    @Autowired
+    private UserSyncService userSyncService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void syncTwentyThousandCreates() throws Exception {
+        long usersBefore = countUsers();
+        long start = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            kafkaTemplate.send("user-events", "batch-" + i, objectMapper.writeValueAsString(event("batch-" + i)));
+        }
+        kafkaTemplate.flush();
+        await().atMost(Duration.ofMinutes(5)).pollInterval(Duration.ofMillis(100))
+                .until(() -> countUsers() - usersBefore >= EVENTS);
+        double batchSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        start = System.nanoTime();
+        for (int i = 0; i < SINGLE_EVENTS; i++) {
+            userSyncService.createUsers(List.of(event("single-" + i)));
+        }
+        double singleSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        assertThat(countUsers() - usersBefore).isEqualTo(EVENTS + SINGLE_EVENTS);
+
+        DistributionSummary pollSize = meterRegistry.get("auth.user.sync.batch.size").summary();
+        log.warn("Batch listener: {} events in {} s ({} events/s, {} events/poll on average); one at a time: {} events/s",
+                EVENTS,
+                String.format("%.1f", batchSeconds),
+                String.format("%.0f", EVENTS / batchSeconds),
+                String.format("%.0f", pollSize.mean()),
+                String.format("%.0f", SINGLE_EVENTS / singleSeconds));
+    }
+
+    private long countUsers() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM auth_users", Long.class);
+    }
+
+    private static UserSyncEvent event(String username) {
+        return UserSyncEvent.builder()
+                .eventType(UserSyncEvent.USER_CREATED)
+                .username(username)
+                .email(username + "@example.com")
+                .password("Benchmark-Password-1")
+                .role("USER")
+                .timestamp(System.currentTimeMillis())
+                .source("benchmark")
+                .build();
+    }
+}
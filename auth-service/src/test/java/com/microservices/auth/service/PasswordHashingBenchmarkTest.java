@@ -0,0 +1,82 @@
+package com.microservices.auth.service;
+
+import com.microservices.auth.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * BCrypt under a burst of concurrent logins: hashing directly on 64 request threads, as before,
+ * against going through {@link PasswordHashingService}'s core-sized pool with a bounded queue.
+ * Reports throughput, caller latency and how many requests were shed.
+ * Opt-in because it is slow: {@code mvn -pl auth-service test -Dauth.benchmark=true}
+ */
+@EnabledIfSystemProperty(named = "auth.benchmark", matches = "true")
+class PasswordHashingBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingBenchmarkTest.class);
+    private static final int REQUEST_THREADS = 64;
+    private static final int HASHES = 512;
+    private static final int BCRYPT_STRENGTH = 10;
+
+    @Test
+    void compareDirectAndPooledHashing() throws Exception {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(BCRYPT_STRENGTH);
+        run("direct", encoder::encode);
+
+        PasswordHashingService hashingService = new PasswordHashingService(
+                encoder, new SimpleMeterRegistry(), 0, 64, 5000);
+        try {
+            run("pooled", hashingService::encode);
+        } finally {
+            hashingService.shutdown();
+        }
+    }
+
+    private void run(String mode, UnaryOperator<String> encode) throws Exception {
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        AtomicInteger shed = new AtomicInteger();
+        try {
+            long start = System.nanoTime();
+            List<Future<Long>> latencies = new ArrayList<>(HASHES);
+            for (int i = 0; i < HASHES; i++) {
+                String password = "benchmark-password-" + i;
+                latencies.add(requestThreads.submit(() -> {
+                    long requestStart = System.nanoTime();
+                    try {
+                        encode.apply(password);
+                    } catch (PasswordHashingUnavailableException e) {
+                        shed.incrementAndGet();
+                    }
+                    return System.nanoTime() - requestStart;
+                }));
+            }
+            long[] nanos = new long[HASHES];
+            for (int i = 0; i < HASHES; i++) {
+                nanos[i] = latencies.get(i).get();
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            Arrays.sort(nanos);
+            log.info("{}: {} hashes/s, p50 {} ms, p99 {} ms, {} shed",
+                    mode,
+                    String.format("%.0f", (HASHES - shed.get()) / seconds),
+                    String.format("%.1f", nanos[HASHES / 2] / 1_000_000.0),
+                    String.format("%.1f", nanos[(int) (HASHES * 0.99)] / 1_000_000.0),
+                    shed.get());
+        } finally {
+            requestThreads.shutdown();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.microservices.auth.service;
+
+import com.microservices.auth.dto.CreateUserProfileRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Registration-path latency with the user-service call made inline, as AuthService.register
+ * used to, against handing it to {@link UserProfileSyncService}. User Service is a stub that
+ * answers after a fixed delay.
+ * Opt-in because it is slow: {@code mvn -pl auth-service test -Dauth.benchmark=true}
+ */
+@EnabledIfSystemProperty(named = "auth.benchmark", matches = "true")
+class UserProfileSyncBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(UserProfileSyncBenchmarkTest.class);
+    private static final int REGISTRATIONS = 400;
+    private static final int CALLERS = 16;
+    private static final long USER_SERVICE_DELAY_MILLIS = 50;
+
+    @Test
+    void compareInlineAndAfterCommitSync() throws Exception {
+        CircuitBreakerService userService = mock(CircuitBreakerService.class);
+        when(userService.executeUserServiceCall(any(), anyString())).thenAnswer(invocation -> {
+            Thread.sleep(USER_SERVICE_DELAY_MILLIS);
+            return true;
+        });
+        UserProfileSyncService syncService = new UserProfileSyncService(userService, new SimpleMeterRegistry(), 2, 200);
+        ReflectionTestUtils.setField(syncService, "internalApiKey", "benchmark");
+        try {
+            report("inline", run(request -> userService.executeUserServiceCall(request, "benchmark")));
+            report("after commit", run(syncService::syncAfterCommit));
+        } finally {
+            syncService.shutdown();
+        }
+    }
+
+    private long[] run(Consumer<CreateUserProfileRequest> sync) throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<Long>> latencies = new ArrayList<>(REGISTRATIONS);
+            for (int i = 0; i < REGISTRATIONS; i++) {
+                CreateUserProfileRequest request = new CreateUserProfileRequest(
+                        (long) i, "user" + i, "user" + i + "@example.com", null, "Bench", "User");
+                latencies.add(callers.submit(() -> {
+                    long start = System.nanoTime();
+                    sync.accept(request);
+                    return System.nanoTime() - start;
+                }));
+            }
+            long[] nanos = new long[REGISTRATIONS];
+            for (int i = 0; i < REGISTRATIONS; i++) {
+                nanos[i] = latencies.get(i).get();
+            }
+            Arrays.sort(nanos);
+            return nanos;
+        } finally {
+            callers.shutdown();
+        }
+    }
+
+    private static void report(String mode, long[] sortedNanos) {
+        log.info("{}: caller p50 {} ms, p99 {} ms",
+                mode,
+                String.format("%.2f", sortedNanos[sortedNanos.length / 2] / 1_000_000.0),
+                String.format("%.2f", sortedNanos[(int) (sortedNanos.length * 0.99)] / 1_000_000.0));
+    }
+}
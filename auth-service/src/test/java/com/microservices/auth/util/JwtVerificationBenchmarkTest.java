@@ -0,0 +1,79 @@
+package com.microservices.auth.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.function.ToIntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Per-request token verification cost. The old path derived the key and built a parser on
+ * every call and parsed each token three times (validity, username, role). The new path uses
+ * the cached parser with a single {@link JwtUtil#parseVerified} call.
+ * Opt-in: {@code mvn -pl auth-service test -Dauth.benchmark=true}
+ */
+@EnabledIfSystemProperty(named = "auth.benchmark", matches = "true")
+class JwtVerificationBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtVerificationBenchmarkTest.class);
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 200_000;
+
+    @Test
+    void compareVerificationPaths() {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "accessTokenExpiration", 3_600_000L);
+        jwtUtil.init();
+        String token = jwtUtil.generateToken("benchmark-user", "USER");
+
+        ToIntFunction<String> perCall = this::verifyPerCall;
+        ToIntFunction<String> singleParse = t -> jwtUtil.parseVerified(t)
+                .map(verified -> verified.getUsername().length() + verified.getRole().length())
+                .orElse(0);
+
+        assertThat(perCall.applyAsInt(token)).isEqualTo(singleParse.applyAsInt(token));
+        report("per-call key, three parses", perCall, token);
+        report("cached parser, one parse", singleParse, token);
+    }
+
+    /** The pre-change behaviour: key and parser rebuilt for each of the three reads. */
+    private int verifyPerCall(String token) {
+        parse(token);
+        String username = parse(token).getSubject();
+        String role = parse(token).get("role", String.class);
+        return username.length() + role.length();
+    }
+
+    private static Claims parse(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    private static void report(String mode, ToIntFunction<String> verify, String token) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += verify.applyAsInt(token);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += verify.applyAsInt(token);
+        }
+        double nanosPerOp = (System.nanoTime() - start) / (double) ITERATIONS;
+        log.info("{}: {} us/token ({} tokens/s) [{}]",
+                mode,
+                String.format("%.2f", nanosPerOp / 1_000),
+                String.format("%.0f", 1_000_000_000 / nanosPerOp),
+                sink);
+    }
+}
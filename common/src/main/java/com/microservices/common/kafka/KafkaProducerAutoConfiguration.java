@@ -0,0 +1,76 @@
+package com.microservices.common.kafka;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.ProducerListener;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shared Kafka producer setup for every service that depends on {@code common}.
+ *
+ * <pre>
+ * kafka:
+ *   producer:
+ *     profile: balanced          # low-latency | balanced | throughput
+ *     topics:
+ *       user-events: low-latency # per-topic override
+ * </pre>
+ *
+ * The default profile is applied to Spring Boot's producer factory underneath any explicit
+ * {@code spring.kafka.producer.*} settings, which still win.
+ */
+@AutoConfiguration(before = KafkaAutoConfiguration.class)
+@ConditionalOnClass(KafkaTemplate.class)
+public class KafkaProducerAutoConfiguration {
+
+    @Bean
+    public KafkaProducerProfiles kafkaProducerProfiles(@Value("${kafka.producer.profile:balanced}") String profile,
+                                                       Environment environment) {
+        Map<String, String> topicProfiles = Binder.get(environment)
+                .bind("kafka.producer.topics", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of());
+        return new KafkaProducerProfiles(ProducerProfile.of(profile), topicProfiles);
+    }
+
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer producerProfileCustomizer(KafkaProducerProfiles profiles) {
+        return producerFactory -> {
+            Map<String, Object> existing = producerFactory.getConfigurationProperties();
+            Map<String, Object> defaults = new HashMap<>();
+            profiles.getDefaultProfile().producerConfigs().forEach((key, value) -> {
+                if (!existing.containsKey(key)) {
+                    defaults.put(key, value);
+                }
+            });
+            producerFactory.updateConfigs(defaults);
+        };
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(ProducerListener.class)
+    public ProducerListener<Object, Object> kafkaProducerListener(MeterRegistry meterRegistry,
+                                                                  KafkaProducerProfiles profiles) {
+        return new ProducerMetricsListener(meterRegistry, profiles);
+    }
+
+    @Bean
+    public KafkaProducerTemplates kafkaProducerTemplates(KafkaTemplate<Object, Object> kafkaTemplate,
+                                                         ProducerFactory<Object, Object> producerFactory,
+                                                         KafkaProducerProfiles profiles,
+                                                         ProducerListener<Object, Object> kafkaProducerListener) {
+        return new KafkaProducerTemplates(kafkaTemplate, producerFactory, profiles, kafkaProducerListener);
+    }
+}
@@ -0,0 +1,28 @@
+package com.microservices.common.kafka;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resolved producer profiles: the service-wide default plus per-topic overrides
+ * from {@code kafka.producer.topics.<topic>}.
+ */
+public class KafkaProducerProfiles {
+
+    private final ProducerProfile defaultProfile;
+    private final Map<String, ProducerProfile> topicProfiles;
+
+    public KafkaProducerProfiles(ProducerProfile defaultProfile, Map<String, String> topicProfiles) {
+        this.defaultProfile = defaultProfile;
+        this.topicProfiles = new HashMap<>();
+        topicProfiles.forEach((topic, profile) -> this.topicProfiles.put(topic, ProducerProfile.of(profile)));
+    }
+
+    public ProducerProfile getDefaultProfile() {
+        return defaultProfile;
+    }
+
+    public ProducerProfile profileFor(String topic) {
+        return topic != null ? topicProfiles.getOrDefault(topic, defaultProfile) : defaultProfile;
+    }
+}
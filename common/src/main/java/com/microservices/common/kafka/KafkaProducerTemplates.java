@@ -0,0 +1,79 @@
+package com.microservices.common.kafka;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.ProducerListener;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out the KafkaTemplate to use for a topic. Topics on the default profile share
+ * Spring Boot's template; topics with a per-topic profile (or extra producer settings,
+ * such as a different value serializer) get their own producer, created once and shared
+ * by every topic with the same settings.
+ */
+@Slf4j
+public class KafkaProducerTemplates implements DisposableBean {
+
+    private final KafkaTemplate<Object, Object> defaultTemplate;
+    private final ProducerFactory<Object, Object> producerFactory;
+    private final KafkaProducerProfiles profiles;
+    private final ProducerListener<Object, Object> producerListener;
+    private final Map<String, KafkaTemplate<Object, Object>> templates = new ConcurrentHashMap<>();
+
+    public KafkaProducerTemplates(KafkaTemplate<Object, Object> defaultTemplate,
+                                  ProducerFactory<Object, Object> producerFactory,
+                                  KafkaProducerProfiles profiles,
+                                  ProducerListener<Object, Object> producerListener) {
+        this.defaultTemplate = defaultTemplate;
+        this.producerFactory = producerFactory;
+        this.profiles = profiles;
+        this.producerListener = producerListener;
+    }
+
+    public <K, V> KafkaTemplate<K, V> forTopic(String topic) {
+        return forTopic(topic, Map.of());
+    }
+
+    /**
+     * @param topic           destination topic, used to look up its profile
+     * @param configOverrides producer settings applied on top of the profile
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> KafkaTemplate<K, V> forTopic(String topic, Map<String, Object> configOverrides) {
+        ProducerProfile profile = profiles.profileFor(topic);
+        if (profile == profiles.getDefaultProfile() && configOverrides.isEmpty()) {
+            return (KafkaTemplate<K, V>) (KafkaTemplate<?, ?>) defaultTemplate;
+        }
+        String key = profile.id() + new TreeMap<>(configOverrides);
+        KafkaTemplate<Object, Object> template =
+                templates.computeIfAbsent(key, k -> createTemplate(profile, configOverrides));
+        return (KafkaTemplate<K, V>) (KafkaTemplate<?, ?>) template;
+    }
+
+    private KafkaTemplate<Object, Object> createTemplate(ProducerProfile profile, Map<String, Object> configOverrides) {
+        // The shared factory already carries the default profile, so only a different profile is re-applied
+        Map<String, Object> configs = profile == profiles.getDefaultProfile()
+                ? new TreeMap<>() : new TreeMap<>(profile.producerConfigs());
+        configs.putAll(configOverrides);
+        log.info("Creating Kafka producer for profile {} with overrides {}", profile.id(), configOverrides.keySet());
+
+        KafkaTemplate<Object, Object> template = new KafkaTemplate<>(producerFactory.copyWithConfigurationOverride(configs));
+        template.setProducerListener(producerListener);
+        return template;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (KafkaTemplate<Object, Object> template : templates.values()) {
+            if (template.getProducerFactory() instanceof DisposableBean disposable) {
+                disposable.destroy();
+            }
+        }
+        templates.clear();
+    }
+}
@@ -0,0 +1,94 @@
+package com.microservices.common.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.kafka.support.ProducerListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records send-to-ack latency, serialized record size and send failures per topic.
+ * Client-side batch metrics (batch-size-avg, record-queue-time-avg, compression-rate-avg)
+ * are exported separately by Spring Boot's Kafka client metrics binding.
+ *
+ * <p>Latency is measured from the timestamp the producer stamps on the record at send
+ * time, so records sent with an explicit timestamp are not timed.
+ */
+@Slf4j
+public class ProducerMetricsListener implements ProducerListener<Object, Object> {
+
+    private final MeterRegistry meterRegistry;
+    private final KafkaProducerProfiles profiles;
+    private final Map<String, TopicMeters> meters = new ConcurrentHashMap<>();
+
+    public ProducerMetricsListener(MeterRegistry meterRegistry, KafkaProducerProfiles profiles) {
+        this.meterRegistry = meterRegistry;
+        this.profiles = profiles;
+    }
+
+    @Override
+    public void onSuccess(ProducerRecord<Object, Object> producerRecord, RecordMetadata recordMetadata) {
+        TopicMeters topicMeters = meters(producerRecord.topic());
+        if (producerRecord.timestamp() == null && recordMetadata.hasTimestamp()) {
+            long latencyMs = System.currentTimeMillis() - recordMetadata.timestamp();
+            if (latencyMs >= 0) {
+                topicMeters.sendLatency.record(latencyMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        int size = Math.max(recordMetadata.serializedKeySize(), 0) + Math.max(recordMetadata.serializedValueSize(), 0);
+        topicMeters.recordSize.record(size);
+    }
+
+    @Override
+    public void onError(ProducerRecord<Object, Object> producerRecord, RecordMetadata recordMetadata,
+                        Exception exception) {
+        meters(producerRecord.topic()).errors.increment();
+        log.error("Failed to send record to topic {} with key {}: {}",
+                producerRecord.topic(), producerRecord.key(), exception.getMessage());
+    }
+
+    private TopicMeters meters(String topic) {
+        return meters.computeIfAbsent(topic, this::createMeters);
+    }
+
+    private TopicMeters createMeters(String topic) {
+        String profile = profiles.profileFor(topic).id();
+        Timer sendLatency = Timer.builder("kafka.producer.send.latency")
+                .description("Time from send until the broker acknowledged the record")
+                .tag("topic", topic)
+                .tag("profile", profile)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        DistributionSummary recordSize = DistributionSummary.builder("kafka.producer.record.size")
+                .description("Serialized key and value size of sent records")
+                .baseUnit("bytes")
+                .tag("topic", topic)
+                .tag("profile", profile)
+                .register(meterRegistry);
+        Counter errors = Counter.builder("kafka.producer.send.errors")
+                .description("Records the producer failed to send")
+                .tag("topic", topic)
+                .tag("profile", profile)
+                .register(meterRegistry);
+        return new TopicMeters(sendLatency, recordSize, errors);
+    }
+
+    private static final class TopicMeters {
+        private final Timer sendLatency;
+        private final DistributionSummary recordSize;
+        private final Counter errors;
+
+        private TopicMeters(Timer sendLatency, DistributionSummary recordSize, Counter errors) {
+            this.sendLatency = sendLatency;
+            this.recordSize = recordSize;
+            this.errors = errors;
+        }
+    }
+}
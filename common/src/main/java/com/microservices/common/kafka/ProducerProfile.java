@@ -0,0 +1,62 @@
+package com.microservices.common.kafka;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Producer tuning presets shared by all services. Every profile is idempotent with
+ * {@code acks=all}; with idempotence up to five in-flight requests still keep per-partition
+ * ordering, so batching does not cost ordering guarantees.
+ */
+public enum ProducerProfile {
+
+    /** Send as soon as possible; small batches, cheap compression */
+    LOW_LATENCY(0, 16 * 1024, "lz4"),
+
+    /** Default: a few milliseconds of linger to fill batches for request-path events */
+    BALANCED(5, 64 * 1024, "lz4"),
+
+    /** Bulk and background traffic; larger batches compressed with zstd */
+    THROUGHPUT(20, 256 * 1024, "zstd");
+
+    private final int lingerMs;
+    private final int batchSize;
+    private final String compressionType;
+
+    ProducerProfile(int lingerMs, int batchSize, String compressionType) {
+        this.lingerMs = lingerMs;
+        this.batchSize = batchSize;
+        this.compressionType = compressionType;
+    }
+
+    public Map<String, Object> producerConfigs() {
+        Map<String, Object> configs = new HashMap<>();
+        configs.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configs.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configs.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        configs.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configs.put(ProducerConfig.ACKS_CONFIG, "all");
+        configs.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        return configs;
+    }
+
+    /**
+     * Name used in configuration, e.g. {@code low-latency}
+     */
+    public String id() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    public static ProducerProfile of(String value) {
+        String normalized = value.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+        for (ProducerProfile profile : values()) {
+            if (profile.name().equals(normalized)) {
+                return profile;
+            }
+        }
+        throw new IllegalArgumentException("Unknown Kafka producer profile: " + value);
+    }
+}
@@ -0,0 +1,95 @@
+package com.microservices.common.kafka;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput of each producer profile against an embedded broker.
+ * Opt-in because it is slow: {@code mvn -pl common test -Dkafka.benchmark=true}
+ */
+@EnabledIfSystemProperty(named = "kafka.benchmark", matches = "true")
+@EmbeddedKafka(partitions = 3, topics = ProducerProfileBenchmarkTest.TOPIC)
+class ProducerProfileBenchmarkTest {
+
+    static final String TOPIC = "producer-profile-benchmark";
+
+    private static final Logger log = LoggerFactory.getLogger(ProducerProfileBenchmarkTest.class);
+    private static final int WARMUP_RECORDS = 5_000;
+    private static final int RECORDS = 50_000;
+
+    @Test
+    void compareProfiles(EmbeddedKafkaBroker broker) throws Exception {
+        String payload = samplePayload();
+        for (ProducerProfile profile : ProducerProfile.values()) {
+            Map<String, Object> configs = new HashMap<>(profile.producerConfigs());
+            configs.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+            configs.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+            configs.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+            DefaultKafkaProducerFactory<String, String> producerFactory = new DefaultKafkaProducerFactory<>(configs);
+            try {
+                KafkaTemplate<String, String> template = new KafkaTemplate<>(producerFactory);
+                send(template, payload, WARMUP_RECORDS);
+
+                long start = System.nanoTime();
+                send(template, payload, RECORDS);
+                double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+                log.info("{}: {} records/s, {} MB/s, avg batch {} bytes, compression ratio {}",
+                        profile.id(),
+                        String.format("%.0f", RECORDS / seconds),
+                        String.format("%.1f", RECORDS * (double) payload.length() / seconds / 1_048_576),
+                        String.format("%.0f", metric(template, "batch-size-avg")),
+                        String.format("%.2f", metric(template, "compression-rate-avg")));
+            } finally {
+                producerFactory.destroy();
+            }
+        }
+    }
+
+    private void send(KafkaTemplate<String, String> template, String payload, int count) throws Exception {
+        List<CompletableFuture<SendResult<String, String>>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            futures.add(template.send(TOPIC, String.valueOf(i % 1_000), payload));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(2, TimeUnit.MINUTES);
+        assertThat(futures).allMatch(future -> !future.isCompletedExceptionally());
+    }
+
+    private double metric(KafkaTemplate<String, String> template, String name) {
+        for (Map.Entry<MetricName, ? extends Metric> entry : template.metrics().entrySet()) {
+            if (entry.getKey().name().equals(name) && entry.getKey().group().equals("producer-metrics")) {
+                Object value = entry.getValue().metricValue();
+                return value instanceof Number number ? number.doubleValue() : Double.NaN;
+            }
+        }
+        return Double.NaN;
+    }
+
+    private String samplePayload() {
+        // Roughly the size and shape of a stock event
+        return "{\"eventId\":\"4a1f0f55-1c1e-4b7b-9a7e-3f5a2c9d0e11\",\"eventType\":\"stock.updated\","
+                + "\"occurredAt\":\"2025-01-15T10:30:00\",\"productId\":42,\"sku\":\"SKU-00042\","
+                + "\"previousQuantity\":120,\"newQuantity\":118,\"delta\":-2,"
+                + "\"referenceId\":\"ORD-20250115-000123\",\"referenceType\":\"ORDER\"}";
+    }
+}
@@ -129,7 +129,7 @@ const AdminDashboard: React.FC = () => {
         let lowStockProducts = 0;
         try {
           const lowStockResponse = await inventoryAPI.getLowStockProducts();
-          lowStockProducts = lowStockResponse.data.length || 0;
+          lowStockProducts = lowStockResponse.data.totalElements || 0;
         } catch (error) {
           console.warn("Failed to fetch low stock products:", error);
         }
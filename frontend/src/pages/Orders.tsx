@@ -84,8 +84,15 @@ const Orders: React.FC = () => {
   // Fetch available products for order creation
   const fetchProducts = async () => {
     try {
-      const response = await inventoryAPI.getProducts();
-      setAvailableProducts(response.data);
+      // Walk every keyset page so products past the first page can be ordered too
+      const products: Product[] = [];
+      let cursor: string | undefined;
+      do {
+        const response = await inventoryAPI.getProductsAfter({ cursor, size: 200 });
+        products.push(...(response.data.content || []));
+        cursor = response.data.nextCursor || undefined;
+      } while (cursor);
+      setAvailableProducts(products);
     } catch (err: unknown) {
       console.error("Failed to fetch products:", err);
     }
@@ -201,7 +201,11 @@ export const inventoryAPI = {
     size?: number;
     search?: string;
     status?: string;
-  }) => api.get("/api/inventory/products", { params }),
+  }) => api.get("/api/inventory/products/paged", { params }),
+
+  // Keyset pages ordered by id; pass the previous page's nextCursor to continue
+  getProductsAfter: (params?: { cursor?: string; size?: number }) =>
+    api.get("/api/inventory/products", { params }),
 
   getProductById: (id: number) => api.get(`/api/inventory/products/${id}`),
 
@@ -1,21 +1,36 @@
 package com.microservices.inventoryservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.inventoryservice.dto.BulkStockImportSummary;
+import com.microservices.inventoryservice.dto.BulkStockRowResult;
+import com.microservices.inventoryservice.dto.ProductPage;
 import com.microservices.inventoryservice.dto.ProductRequest;
 import com.microservices.inventoryservice.dto.ProductResponse;
+import com.microservices.inventoryservice.dto.ProductSearchResponse;
+import com.microservices.inventoryservice.service.BulkStockImportService;
 import com.microservices.inventoryservice.service.ProductService;
+import com.microservices.inventoryservice.service.StockMutationBusyException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/inventory")
@@ -24,7 +39,10 @@ import java.util.List;
 @Tag(name = "Inventory Management", description = "APIs for managing inventory and products")
 public class ProductController {
     
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    
     private final ProductService productService;
+    private final ObjectMapper objectMapper;
     
     @PostMapping("/products")
     @Operation(summary = "Create a new product", description = "Creates a new product in the inventory")
@@ -42,6 +60,27 @@ public class ProductController {
         return ResponseEntity.ok(productResponse);
     }
     
+    @GetMapping("/products/search")
+    @Operation(summary = "Search products",
+               description = "Ranked full-text search over name, SKU, tags, brand, category and description, with facet counts and cursor paging")
+    public ResponseEntity<ProductSearchResponse> searchProducts(
+            @Parameter(description = "Search text; every word must match, the last one as a prefix")
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "nextCursor from the previous page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        log.debug("Searching products: {}", q);
+        try {
+            return ResponseEntity.ok(productService.searchProducts(q, category, brand, minPrice, maxPrice, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/products/sku/{sku}")
     @Operation(summary = "Get product by SKU", description = "Retrieves a product by its SKU")
     public ResponseEntity<ProductResponse> getProductBySku(@PathVariable String sku) {
@@ -51,11 +90,38 @@ public class ProductController {
     }
     
     @GetMapping("/products")
-    @Operation(summary = "Get all products", description = "Retrieves all products")
-    public ResponseEntity<List<ProductResponse>> getAllProducts() {
-        log.info("Getting all products");
-        List<ProductResponse> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    @Operation(summary = "Get all products", description = "Retrieves products by id, one keyset page at a time")
+    public ResponseEntity<ProductPage> getAllProducts(
+            @Parameter(description = "nextCursor from the previous page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        log.debug("Getting products after cursor: {}", cursor);
+        return page(ProductService.Listing.ALL, cursor, size);
+    }
+    
+    @GetMapping(value = "/products/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export products",
+               description = "Streams every product in the listing (ALL, ACTIVE, LOW_STOCK, OUT_OF_STOCK) as NDJSON")
+    public void exportProducts(
+            @RequestParam(defaultValue = "ALL") ProductService.Listing listing,
+            HttpServletResponse response) throws IOException {
+        log.info("Exporting products: {}", listing);
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        // A full dump must not be kept by the gateway response cache or any intermediary
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        OutputStream out = response.getOutputStream();
+        productService.exportProducts(listing, products -> {
+            try {
+                for (ProductResponse product : products) {
+                    writeLine(out, product);
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.flush();
     }
     
     @GetMapping("/products/paged")
@@ -68,11 +134,12 @@ public class ProductController {
     }
     
     @GetMapping("/products/active")
-    @Operation(summary = "Get active products", description = "Retrieves all active products")
-    public ResponseEntity<List<ProductResponse>> getActiveProducts() {
-        log.info("Getting active products");
-        List<ProductResponse> products = productService.getActiveProducts();
-        return ResponseEntity.ok(products);
+    @Operation(summary = "Get active products", description = "Retrieves active products, one keyset page at a time")
+    public ResponseEntity<ProductPage> getActiveProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        log.debug("Getting active products after cursor: {}", cursor);
+        return page(ProductService.Listing.ACTIVE, cursor, size);
     }
     
     @GetMapping("/products/active/paged")
@@ -85,19 +152,29 @@ public class ProductController {
     }
     
     @GetMapping("/products/low-stock")
-    @Operation(summary = "Get low stock products", description = "Retrieves products with low stock")
-    public ResponseEntity<List<ProductResponse>> getLowStockProducts() {
-        log.info("Getting low stock products");
-        List<ProductResponse> products = productService.getLowStockProducts();
-        return ResponseEntity.ok(products);
+    @Operation(summary = "Get low stock products", description = "Retrieves products with low stock, one keyset page at a time")
+    public ResponseEntity<ProductPage> getLowStockProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        log.debug("Getting low stock products after cursor: {}", cursor);
+        return page(ProductService.Listing.LOW_STOCK, cursor, size);
     }
     
     @GetMapping("/products/out-of-stock")
-    @Operation(summary = "Get out of stock products", description = "Retrieves products that are out of stock")
-    public ResponseEntity<List<ProductResponse>> getOutOfStockProducts() {
-        log.info("Getting out of stock products");
-        List<ProductResponse> products = productService.getOutOfStockProducts();
-        return ResponseEntity.ok(products);
+    @Operation(summary = "Get out of stock products", description = "Retrieves products that are out of stock, one keyset page at a time")
+    public ResponseEntity<ProductPage> getOutOfStockProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        log.debug("Getting out of stock products after cursor: {}", cursor);
+        return page(ProductService.Listing.OUT_OF_STOCK, cursor, size);
+    }
+    
+    private ResponseEntity<ProductPage> page(ProductService.Listing listing, String cursor, int size) {
+        try {
+            return ResponseEntity.ok(productService.getProducts(listing, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @PutMapping("/products/{id}")
@@ -118,8 +195,53 @@ public class ProductController {
             @RequestParam String reason,
             @RequestParam String performedBy) {
         log.info("Updating stock for product: {} to {}", id, quantity);
-        ProductResponse productResponse = productService.updateStock(id, quantity, reason, performedBy);
-        return ResponseEntity.ok(productResponse);
+        try {
+            return ResponseEntity.ok(productService.updateStock(id, quantity, reason, performedBy));
+        } catch (IllegalStateException e) {
+            // Below the reserved quantity
+            log.warn(e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
+    @PostMapping(value = "/products/stock/bulk",
+                 consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE},
+                 produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Bulk update stock",
+               description = "Streams a CSV (sku,quantity[,mode][,reason]) or NDJSON upload and applies it in chunks. "
+                       + "mode is SET (default) or ADJUST. Responds with one NDJSON result per row as each chunk "
+                       + "commits, followed by a summary line")
+    public void bulkUpdateStock(
+            @RequestParam String performedBy,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        BulkStockImportService.Format format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.parseMediaType(TEXT_CSV_VALUE))
+                ? BulkStockImportService.Format.CSV
+                : BulkStockImportService.Format.NDJSON;
+        log.info("Bulk stock update ({}) by {}", format, performedBy);
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+        BulkStockImportSummary summary = productService.importStock(request.getInputStream(), format, performedBy,
+                results -> {
+                    try {
+                        for (BulkStockRowResult result : results) {
+                            writeLine(out, result);
+                        }
+                        // Results reach the client chunk by chunk; a disconnect stops the import
+                        out.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        writeLine(out, Map.of("summary", summary));
+        out.flush();
+    }
+    
+    private void writeLine(OutputStream out, Object value) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(value));
+        out.write('\n');
     }
     
     @GetMapping("/products/{productId}/availability")
@@ -127,20 +249,33 @@ public class ProductController {
     public ResponseEntity<Boolean> checkProductAvailability(
             @PathVariable Long productId,
             @RequestParam Integer quantity) {
-        log.info("Checking availability for product: {} quantity: {}", productId, quantity);
+        log.debug("Checking availability for product: {} quantity: {}", productId, quantity);
         boolean available = productService.checkProductAvailability(productId, quantity);
         return ResponseEntity.ok(available);
     }
     
     @PostMapping("/products/{productId}/reserve")
-    @Operation(summary = "Reserve stock", description = "Reserves stock for a product")
+    @Operation(summary = "Reserve stock", description = "Places a time-limited hold on stock; it expires unless confirmed or released")
     public ResponseEntity<ProductResponse> reserveStock(
             @PathVariable Long productId,
             @RequestParam Integer quantity,
             @RequestParam String referenceId,
-            @RequestParam String referenceType) {
+            @RequestParam String referenceType,
+            @Parameter(description = "Hold lifetime in seconds; defaults to the configured TTL")
+            @RequestParam(required = false) Long ttlSeconds) {
         log.info("Reserving stock for product: {} quantity: {}", productId, quantity);
-        ProductResponse productResponse = productService.reserveStock(productId, quantity, referenceId, referenceType);
+        ProductResponse productResponse = productService.reserveStock(productId, quantity, referenceId, referenceType, ttlSeconds);
+        return ResponseEntity.ok(productResponse);
+    }
+    
+    @PostMapping("/products/{productId}/reserve/confirm")
+    @Operation(summary = "Confirm reservation", description = "Turns the active hold for a reference into a stock-out")
+    public ResponseEntity<ProductResponse> confirmReservation(
+            @PathVariable Long productId,
+            @RequestParam String referenceId,
+            @RequestParam String referenceType) {
+        log.info("Confirming reservation for product: {} {}: {}", productId, referenceType, referenceId);
+        ProductResponse productResponse = productService.confirmReservation(productId, referenceId, referenceType);
         return ResponseEntity.ok(productResponse);
     }
     
@@ -155,5 +290,13 @@ public class ProductController {
         ProductResponse productResponse = productService.releaseStock(productId, quantity, referenceId, referenceType);
         return ResponseEntity.ok(productResponse);
     }
+    
+    @ExceptionHandler(StockMutationBusyException.class)
+    public ResponseEntity<Void> stockMutationBusy(StockMutationBusyException e) {
+        log.warn(e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
 }
 
@@ -0,0 +1,22 @@
+package com.microservices.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStockImportSummary {
+
+    private String importId;
+    private long rows;
+    private long updated;
+    private long unchanged;
+    private long notFound;
+    private long invalid;
+    private long failed;
+    private long elapsedMs;
+}
@@ -0,0 +1,29 @@
+package com.microservices.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of a bulk stock import, as a CSV record ({@code sku,quantity[,mode][,reason]})
+ * or an NDJSON object with the same field names.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStockRow {
+
+    public enum Mode {
+        /** quantity is the new on-hand stock */
+        SET,
+        /** quantity is added to on-hand stock; negative values remove units */
+        ADJUST
+    }
+
+    private String sku;
+    private Integer quantity;
+    private Mode mode;
+    private String reason;
+}
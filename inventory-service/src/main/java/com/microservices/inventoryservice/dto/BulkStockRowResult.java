@@ -0,0 +1,32 @@
+package com.microservices.inventoryservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkStockRowResult {
+
+    public enum Status {
+        UPDATED,
+        UNCHANGED,
+        NOT_FOUND,
+        INVALID,
+        FAILED
+    }
+
+    /** 1-based data row number, not counting a CSV header or blank lines */
+    private Long row;
+    private String sku;
+    private Status status;
+    private Long productId;
+    private Integer previousQuantity;
+    private Integer newQuantity;
+    private String error;
+}
@@ -0,0 +1,24 @@
+package com.microservices.inventoryservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductPage {
+
+    private List<ProductResponse> content;
+    private int size;
+    // Pass back as ?cursor= for the next page; null on the last page
+    private String nextCursor;
+    // Only on the first page
+    private Long totalElements;
+}
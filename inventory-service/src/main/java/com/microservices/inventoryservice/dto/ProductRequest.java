@@ -3,6 +3,7 @@ package com.microservices.inventoryservice.dto;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -42,6 +43,9 @@ public class ProductRequest {
     
     private String brand;
     
+    @Size(max = 1000, message = "Tags must not exceed 1000 characters")
+    private String tags; // Comma-separated
+    
     private BigDecimal weight;
     
     private String dimensions;
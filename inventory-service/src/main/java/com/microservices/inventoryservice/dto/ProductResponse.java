@@ -21,10 +21,13 @@ public class ProductResponse {
     private String sku;
     private BigDecimal price;
     private Integer quantityInStock;
+    private Integer reservedQuantity;
+    private Integer availableQuantity;
     private Integer minStockLevel;
     private Integer maxStockLevel;
     private String category;
     private String brand;
+    private String tags;
     private BigDecimal weight;
     private String dimensions;
     private Boolean isActive;
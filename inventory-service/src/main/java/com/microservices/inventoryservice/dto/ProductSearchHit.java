@@ -0,0 +1,23 @@
+package com.microservices.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchHit {
+
+    private Long id;
+    private String sku;
+    private String name;
+    private String brand;
+    private String category;
+    private BigDecimal price;
+    private Double score;
+}
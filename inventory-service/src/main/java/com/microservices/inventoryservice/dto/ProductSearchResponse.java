@@ -0,0 +1,23 @@
+package com.microservices.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchResponse {
+
+    private List<ProductSearchHit> items;
+    private long total;
+    // Facet name (category, brand, price) -> value -> matching products
+    private Map<String, Map<String, Long>> facets;
+    // Pass back as ?cursor= for the next page; null on the last page
+    private String nextCursor;
+}
@@ -19,8 +19,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class InventoryTransaction {
     
+    // Pooled sequence ids let Hibernate batch ledger inserts; IDENTITY forces one INSERT per entry
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_transactions_seq")
+    @SequenceGenerator(name = "inventory_transactions_seq", sequenceName = "inventory_transactions_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
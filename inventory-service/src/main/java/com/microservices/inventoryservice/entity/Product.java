@@ -72,6 +72,14 @@ public class Product {
     @Column(name = "quantity_in_stock", nullable = false)
     private Integer quantityInStock;
     
+    /**
+     * Units held by active reservations; maintained together with the holds in stock_reservations.
+     */
+    @Builder.Default
+    @PositiveOrZero(message = "Reserved quantity must be positive or zero")
+    @Column(name = "reserved_quantity", nullable = false)
+    private Integer reservedQuantity = 0;
+    
     @NotNull(message = "Minimum stock level is required")
     @PositiveOrZero(message = "Minimum stock level must be positive or zero")
     @Column(name = "min_stock_level", nullable = false)
@@ -204,6 +212,13 @@ public class Product {
         return quantityInStock <= 0;
     }
 
+    /**
+     * Units that can still be reserved: on hand minus active holds
+     */
+    public int getAvailableQuantity() {
+        return quantityInStock - (reservedQuantity != null ? reservedQuantity : 0);
+    }
+
     /**
      * Check if product needs reordering
      */
@@ -0,0 +1,70 @@
+package com.microservices.inventoryservice.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Time-limited hold on product stock for an order or cart.
+ * Active holds are summed into {@link Product#getReservedQuantity()}; a hold that is neither
+ * confirmed nor released before {@code expiresAt} is expired by the reservation reaper.
+ */
+@Entity
+@Table(name = "stock_reservations",
+       indexes = {
+           @Index(name = "idx_stock_reservations_status_expires_at", columnList = "status, expires_at"),
+           @Index(name = "idx_stock_reservations_reference", columnList = "product_id, reference_id, reference_type")
+       })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    @NotNull(message = "Product id is required")
+    private Long productId;
+
+    @Column(name = "quantity", nullable = false)
+    @NotNull(message = "Quantity is required")
+    @Positive(message = "Quantity must be positive")
+    private Integer quantity;
+
+    @Column(name = "reference_id", nullable = false, length = 100)
+    private String referenceId;
+
+    @Column(name = "reference_type", nullable = false, length = 50)
+    private String referenceType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "resolved_at")
+    private LocalDateTime resolvedAt;
+
+    public enum Status {
+        ACTIVE,      // Holding stock
+        CONFIRMED,   // Converted into a stock-out
+        RELEASED,    // Given back by the caller
+        EXPIRED      // Given back by the reaper
+    }
+}
@@ -0,0 +1,157 @@
+package com.microservices.inventoryservice.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.microservices.inventoryservice.event.proto.ProductEventMessage;
+import com.microservices.inventoryservice.event.proto.StockEventMessage;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * JSON and protobuf encodings of the inventory events. JSON stays the default wire format;
+ * protobuf is the compact option for high-volume stock traffic.
+ */
+@Component
+public class InventoryEventCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public InventoryEventCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public String toJson(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize " + event.getClass().getSimpleName(), e);
+        }
+    }
+
+    public <T> T fromJson(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot deserialize " + type.getSimpleName(), e);
+        }
+    }
+
+    public byte[] toProtobuf(ProductEvent event) {
+        ProductEventMessage.Builder message = ProductEventMessage.newBuilder()
+                .setEventId(nullToEmpty(event.getEventId()))
+                .setEventType(nullToEmpty(event.getEventType()))
+                .setOccurredAt(event.getOccurredAt() != null ? event.getOccurredAt().toString() : "")
+                .setProductId(event.getProductId() != null ? event.getProductId() : 0L)
+                .setSku(nullToEmpty(event.getSku()))
+                .setName(nullToEmpty(event.getName()))
+                .setCategory(nullToEmpty(event.getCategory()))
+                .setDescription(nullToEmpty(event.getDescription()))
+                .setBrand(nullToEmpty(event.getBrand()))
+                .setTags(nullToEmpty(event.getTags()))
+                .setPrice(event.getPrice() != null ? event.getPrice().toPlainString() : "")
+                .setStatus(nullToEmpty(event.getStatus()));
+        if (event.getActive() != null) {
+            message.setActive(event.getActive());
+        }
+        if (event.getQuantityInStock() != null) {
+            message.setQuantityInStock(event.getQuantityInStock());
+        }
+        if (event.getAvailableQuantity() != null) {
+            message.setAvailableQuantity(event.getAvailableQuantity());
+        }
+        if (event.getMinStockLevel() != null) {
+            message.setMinStockLevel(event.getMinStockLevel());
+        }
+        if (event.getVersion() != null) {
+            message.setVersion(event.getVersion());
+        }
+        return message.build().toByteArray();
+    }
+
+    public byte[] toProtobuf(StockEvent event) {
+        StockEventMessage.Builder message = StockEventMessage.newBuilder()
+                .setEventId(nullToEmpty(event.getEventId()))
+                .setEventType(nullToEmpty(event.getEventType()))
+                .setOccurredAt(event.getOccurredAt() != null ? event.getOccurredAt().toString() : "")
+                .setProductId(event.getProductId() != null ? event.getProductId() : 0L)
+                .setSku(nullToEmpty(event.getSku()))
+                .setReferenceId(nullToEmpty(event.getReferenceId()))
+                .setReferenceType(nullToEmpty(event.getReferenceType()));
+        if (event.getPreviousQuantity() != null) {
+            message.setPreviousQuantity(event.getPreviousQuantity());
+        }
+        if (event.getNewQuantity() != null) {
+            message.setNewQuantity(event.getNewQuantity());
+        }
+        if (event.getDelta() != null) {
+            message.setDelta(event.getDelta());
+        }
+        if (event.getAvailableQuantity() != null) {
+            message.setAvailableQuantity(event.getAvailableQuantity());
+        }
+        if (event.getVersion() != null) {
+            message.setVersion(event.getVersion());
+        }
+        return message.build().toByteArray();
+    }
+
+    public ProductEvent productFromProtobuf(byte[] bytes) {
+        try {
+            ProductEventMessage message = ProductEventMessage.parseFrom(bytes);
+            return ProductEvent.builder()
+                    .eventId(emptyToNull(message.getEventId()))
+                    .eventType(emptyToNull(message.getEventType()))
+                    .occurredAt(message.getOccurredAt().isEmpty() ? null : LocalDateTime.parse(message.getOccurredAt()))
+                    .productId(message.getProductId())
+                    .sku(emptyToNull(message.getSku()))
+                    .name(emptyToNull(message.getName()))
+                    .category(emptyToNull(message.getCategory()))
+                    .description(emptyToNull(message.getDescription()))
+                    .brand(emptyToNull(message.getBrand()))
+                    .tags(emptyToNull(message.getTags()))
+                    .price(message.getPrice().isEmpty() ? null : new BigDecimal(message.getPrice()))
+                    .status(emptyToNull(message.getStatus()))
+                    .active(message.hasActive() ? message.getActive() : null)
+                    .quantityInStock(message.hasQuantityInStock() ? message.getQuantityInStock() : null)
+                    .minStockLevel(message.hasMinStockLevel() ? message.getMinStockLevel() : null)
+                    .availableQuantity(message.hasAvailableQuantity() ? message.getAvailableQuantity() : null)
+                    .version(message.hasVersion() ? message.getVersion() : null)
+                    .build();
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalArgumentException("Cannot decode ProductEvent", e);
+        }
+    }
+
+    public StockEvent stockFromProtobuf(byte[] bytes) {
+        try {
+            StockEventMessage message = StockEventMessage.parseFrom(bytes);
+            return StockEvent.builder()
+                    .eventId(emptyToNull(message.getEventId()))
+                    .eventType(emptyToNull(message.getEventType()))
+                    .occurredAt(message.getOccurredAt().isEmpty() ? null : LocalDateTime.parse(message.getOccurredAt()))
+                    .productId(message.getProductId())
+                    .sku(emptyToNull(message.getSku()))
+                    .previousQuantity(message.hasPreviousQuantity() ? message.getPreviousQuantity() : null)
+                    .newQuantity(message.hasNewQuantity() ? message.getNewQuantity() : null)
+                    .delta(message.hasDelta() ? message.getDelta() : null)
+                    .referenceId(emptyToNull(message.getReferenceId()))
+                    .referenceType(emptyToNull(message.getReferenceType()))
+                    .availableQuantity(message.hasAvailableQuantity() ? message.getAvailableQuantity() : null)
+                    .version(message.hasVersion() ? message.getVersion() : null)
+                    .build();
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalArgumentException("Cannot decode StockEvent", e);
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
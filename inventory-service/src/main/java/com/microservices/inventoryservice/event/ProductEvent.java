@@ -0,0 +1,70 @@
+package com.microservices.inventoryservice.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.microservices.inventoryservice.entity.Product;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Catalog change published to inventory-events (product.created, product.updated).
+ * Carries only the fields consumers need, never the JPA entity; the text fields are enough
+ * for other instances to update their search index without reading the product back.
+ * {@code version} is the product row version the event describes, for ordering events per product.
+ * Schema changes must stay backward compatible: add fields, never rename or remove them.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProductEvent {
+
+    public static final String PRODUCT_CREATED = "product.created";
+    public static final String PRODUCT_UPDATED = "product.updated";
+
+    private String eventId;
+    private String eventType;
+    private LocalDateTime occurredAt;
+    private Long productId;
+    private String sku;
+    private String name;
+    private String category;
+    private String description;
+    private String brand;
+    private String tags;
+    private BigDecimal price;
+    private String status;
+    private Boolean active;
+    private Integer quantityInStock;
+    private Integer minStockLevel;
+    private Integer availableQuantity;
+    private Long version;
+
+    public static ProductEvent of(String eventType, Product product) {
+        return ProductEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType(eventType)
+                .occurredAt(LocalDateTime.now())
+                .productId(product.getId())
+                .sku(product.getSku())
+                .name(product.getName())
+                .category(product.getCategory())
+                .description(product.getDescription())
+                .brand(product.getBrand())
+                .tags(product.getTags())
+                .price(product.getPrice())
+                .status(product.getStatus() != null ? product.getStatus().name() : null)
+                .active(product.getIsActive())
+                .quantityInStock(product.getQuantityInStock())
+                .minStockLevel(product.getMinStockLevel())
+                .availableQuantity(product.getQuantityInStock() != null ? product.getAvailableQuantity() : null)
+                .version(product.getVersion())
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.microservices.inventoryservice.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.microservices.inventoryservice.entity.Product;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Stock movement published to inventory-events (stock.updated, stock.reserved, stock.released,
+ * stock.committed, stock.expired, stock.low, stock.out). {@code delta} is the signed change applied
+ * to the on-hand stock level; reservation holds leave it at zero and move {@code availableQuantity}.
+ * {@code version} is the product row version the event describes, for ordering events per product.
+ * Schema changes must stay backward compatible: add fields, never rename or remove them.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class StockEvent {
+
+    public static final String STOCK_UPDATED = "stock.updated";
+    public static final String STOCK_RESERVED = "stock.reserved";
+    public static final String STOCK_RELEASED = "stock.released";
+    public static final String STOCK_COMMITTED = "stock.committed";
+    public static final String STOCK_EXPIRED = "stock.expired";
+    public static final String STOCK_LOW = "stock.low";
+    public static final String STOCK_OUT = "stock.out";
+
+    private String eventId;
+    private String eventType;
+    private LocalDateTime occurredAt;
+    private Long productId;
+    private String sku;
+    private Integer previousQuantity;
+    private Integer newQuantity;
+    private Integer delta;
+    private String referenceId;
+    private String referenceType;
+    private Integer availableQuantity;
+    private Long version;
+
+    public static StockEvent of(String eventType, Product product, Integer previousQuantity, Integer newQuantity,
+                                String referenceId, String referenceType) {
+        Integer delta = previousQuantity != null && newQuantity != null ? newQuantity - previousQuantity : null;
+        return StockEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType(eventType)
+                .occurredAt(LocalDateTime.now())
+                .productId(product.getId())
+                .sku(product.getSku())
+                .previousQuantity(previousQuantity)
+                .newQuantity(newQuantity)
+                .delta(delta)
+                .referenceId(referenceId)
+                .referenceType(referenceType)
+                .availableQuantity(product.getQuantityInStock() != null ? product.getAvailableQuantity() : null)
+                .version(product.getVersion())
+                .build();
+    }
+}
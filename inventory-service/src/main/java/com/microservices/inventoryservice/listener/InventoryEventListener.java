@@ -0,0 +1,92 @@
+package com.microservices.inventoryservice.listener;
+
+import com.microservices.inventoryservice.event.InventoryEventCodec;
+import com.microservices.inventoryservice.event.ProductEvent;
+import com.microservices.inventoryservice.event.StockEvent;
+import com.microservices.inventoryservice.search.ProductSearchIndex;
+import com.microservices.inventoryservice.service.AvailabilityCache;
+import com.microservices.inventoryservice.service.InventoryEventPublisher;
+import com.microservices.inventoryservice.service.StockLevelTracker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Keeps this instance's in-memory inventory state (availability snapshots, search index,
+ * low/out-of-stock sets) in step with changes made by other instances.
+ * Every instance consumes with its own group and from the latest offset; values are read as
+ * raw bytes because the payload may be JSON or protobuf depending on the producer's encoding.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryEventListener {
+
+    private final InventoryEventCodec codec;
+    private final AvailabilityCache availabilityCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final StockLevelTracker stockLevelTracker;
+
+    @KafkaListener(topics = "${kafka.topics.inventory-events:inventory-events}",
+                   groupId = "${app.inventory-events.state-group-id:inventory-service-state-${HOSTNAME:local}}",
+                   properties = {
+                           "auto.offset.reset=latest",
+                           "value.deserializer=org.apache.kafka.common.serialization.ByteArrayDeserializer"
+                   })
+    public void onInventoryEvent(ConsumerRecord<String, byte[]> record) {
+        String eventType = header(record, InventoryEventPublisher.EVENT_TYPE_HEADER);
+        if (eventType == null || record.value() == null) {
+            return;
+        }
+        boolean protobuf = InventoryEventPublisher.CONTENT_TYPE_PROTOBUF.equals(
+                header(record, InventoryEventPublisher.CONTENT_TYPE_HEADER));
+
+        try {
+            if (eventType.startsWith("product.")) {
+                ProductEvent event = protobuf
+                        ? codec.productFromProtobuf(record.value())
+                        : codec.fromJson(new String(record.value(), StandardCharsets.UTF_8), ProductEvent.class);
+                availabilityCache.apply(event.getProductId(), event.getAvailableQuantity(), event.getActive(),
+                        event.getVersion());
+                productSearchIndex.index(event);
+                stockLevelTracker.apply(event.getProductId(), event.getQuantityInStock(),
+                        event.getMinStockLevel(), event.getActive());
+            } else if (eventType.startsWith("stock.")) {
+                StockEvent event = protobuf
+                        ? codec.stockFromProtobuf(record.value())
+                        : codec.fromJson(new String(record.value(), StandardCharsets.UTF_8), StockEvent.class);
+                availabilityCache.apply(event.getProductId(), event.getAvailableQuantity(), null, event.getVersion());
+                stockLevelTracker.apply(event.getProductId(), event.getNewQuantity(), null, null);
+            }
+        } catch (Exception e) {
+            // Drop the snapshot so the next check goes to the database instead of serving stale data
+            log.warn("Could not process inventory event {} from partition {} offset {}: {}",
+                    eventType, record.partition(), record.offset(), e.getMessage());
+            Long productId = parseId(record.key());
+            if (productId != null) {
+                availabilityCache.evict(productId);
+            }
+        }
+    }
+
+    private static String header(ConsumerRecord<String, byte[]> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+
+    private static Long parseId(String key) {
+        if (key == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.microservices.inventoryservice.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The product columns shown in list responses, read without loading the full entity.
+ */
+public interface ProductListView {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    String getSku();
+
+    BigDecimal getPrice();
+
+    Integer getQuantityInStock();
+
+    Integer getReservedQuantity();
+
+    Integer getMinStockLevel();
+
+    Integer getMaxStockLevel();
+
+    String getCategory();
+
+    String getBrand();
+
+    String getTags();
+
+    BigDecimal getWeight();
+
+    String getDimensions();
+
+    Boolean getIsActive();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    String getCreatedBy();
+
+    String getUpdatedBy();
+}
@@ -7,15 +7,49 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
     
+    String LIST_VIEW_SELECT = "SELECT p.id AS id, p.name AS name, p.description AS description, p.sku AS sku, " +
+            "p.price AS price, p.quantityInStock AS quantityInStock, p.reservedQuantity AS reservedQuantity, " +
+            "p.minStockLevel AS minStockLevel, p.maxStockLevel AS maxStockLevel, p.category AS category, " +
+            "p.brand AS brand, p.tags AS tags, p.weight AS weight, p.dimensions AS dimensions, " +
+            "p.isActive AS isActive, p.createdAt AS createdAt, p.updatedAt AS updatedAt, " +
+            "p.createdBy AS createdBy, p.updatedBy AS updatedBy FROM Product p ";
+    
     Optional<Product> findBySku(String sku);
     
+    List<Product> findBySkuIn(Collection<String> skus);
+    
+    @Transactional(readOnly = true)
+    @Query("SELECT p.id AS id, p.quantityInStock AS quantityInStock, p.reservedQuantity AS reservedQuantity, " +
+           "p.minStockLevel AS minStockLevel, p.isActive AS isActive, p.version AS version FROM Product p WHERE p.id = :id")
+    Optional<ProductStockView> findStockViewById(@Param("id") Long id);
+    
+    @Transactional(readOnly = true)
+    @Query("SELECT p.id AS id, p.quantityInStock AS quantityInStock, p.reservedQuantity AS reservedQuantity, " +
+           "p.minStockLevel AS minStockLevel, p.isActive AS isActive, p.version AS version FROM Product p")
+    List<ProductStockView> findAllStockViews();
+    
+    /** Keyset page by id: rows after {@code afterId}, as many as the pageable's size. */
+    @Transactional(readOnly = true)
+    @Query(LIST_VIEW_SELECT + "WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductListView> findListViewsAfter(@Param("afterId") long afterId, Pageable pageable);
+    
+    @Transactional(readOnly = true)
+    @Query(LIST_VIEW_SELECT + "WHERE p.isActive = true AND p.id > :afterId ORDER BY p.id")
+    List<ProductListView> findActiveListViewsAfter(@Param("afterId") long afterId, Pageable pageable);
+    
+    @Transactional(readOnly = true)
+    @Query(LIST_VIEW_SELECT + "WHERE p.id IN :ids ORDER BY p.id")
+    List<ProductListView> findListViewsByIdIn(@Param("ids") Collection<Long> ids);
+    
     List<Product> findByIsActive(Boolean isActive);
     
     Page<Product> findByIsActive(Boolean isActive, Pageable pageable);
@@ -34,12 +68,6 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE p.quantityInStock = 0 AND p.isActive = true")
     List<Product> findOutOfStockProducts();
     
-    @Query("SELECT p FROM Product p WHERE p.name LIKE %:name% OR p.description LIKE %:description%")
-    List<Product> findByNameOrDescriptionContaining(@Param("name") String name, @Param("description") String description);
-    
-    @Query("SELECT p FROM Product p WHERE p.name LIKE %:name% OR p.description LIKE %:description%")
-    Page<Product> findByNameOrDescriptionContaining(@Param("name") String name, @Param("description") String description, Pageable pageable);
-    
     @Query("SELECT COUNT(p) FROM Product p WHERE p.isActive = true")
     Long countActiveProducts();
     
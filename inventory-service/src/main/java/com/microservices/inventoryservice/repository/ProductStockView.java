@@ -0,0 +1,19 @@
+package com.microservices.inventoryservice.repository;
+
+/**
+ * Projection of the stock columns of a product, for reads that do not need the full entity.
+ */
+public interface ProductStockView {
+
+    Long getId();
+
+    Integer getQuantityInStock();
+
+    Integer getReservedQuantity();
+
+    Integer getMinStockLevel();
+
+    Boolean getIsActive();
+
+    Long getVersion();
+}
@@ -0,0 +1,50 @@
+package com.microservices.inventoryservice.repository;
+
+import com.microservices.inventoryservice.entity.StockReservation;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.productId = :productId AND r.referenceId = :referenceId " +
+           "AND r.referenceType = :referenceType AND r.status = :status")
+    Optional<StockReservation> findByReferenceForUpdate(@Param("productId") Long productId,
+                                                        @Param("referenceId") String referenceId,
+                                                        @Param("referenceType") String referenceType,
+                                                        @Param("status") StockReservation.Status status);
+
+    List<StockReservation> findByProductIdAndReferenceIdAndReferenceType(Long productId, String referenceId,
+                                                                          String referenceType);
+
+    /**
+     * Due holds, locked for the caller's transaction. Rows locked by another reaper are skipped
+     * (lock timeout -2 is SKIP LOCKED), so replicas can expire holds side by side.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM StockReservation r WHERE r.status = :status AND r.expiresAt <= :now ORDER BY r.expiresAt")
+    List<StockReservation> findDueForUpdate(@Param("status") StockReservation.Status status,
+                                            @Param("now") LocalDateTime now,
+                                            Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = :status, r.resolvedAt = :now WHERE r.id IN :ids")
+    int resolveAll(@Param("ids") Collection<Long> ids,
+                   @Param("status") StockReservation.Status status,
+                   @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,15 @@
+package com.microservices.inventoryservice.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One ranked search match.
+ */
+@Getter
+@AllArgsConstructor
+public class Hit {
+
+    private final ProductSearchIndex.Document document;
+    private final double score;
+}
@@ -0,0 +1,411 @@
+package com.microservices.inventoryservice.search;
+
+import com.microservices.inventoryservice.entity.Product;
+import com.microservices.inventoryservice.event.ProductEvent;
+import com.microservices.inventoryservice.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over product name, SKU, tags, brand, category and description.
+ * Loaded from the database at startup and kept current from product changes, both local ones
+ * (after commit) and those published to inventory-events by other instances. Documents are
+ * ordered by the product row version, so a late event or a row read by the startup load never
+ * replaces a newer document.
+ * Queries match every term (the last one as a prefix), rank by field-weighted TF-IDF and
+ * return facet counts plus an opaque cursor for the next page.
+ */
+@Component
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final Pattern TOKEN_SPLIT = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int LOAD_PAGE_SIZE = 500;
+
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double SKU_WEIGHT = 3.0;
+    private static final double TAGS_WEIGHT = 2.0;
+    private static final double BRAND_WEIGHT = 2.0;
+    private static final double CATEGORY_WEIGHT = 1.5;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+
+    private static final BigDecimal[] PRICE_EDGES = {
+            BigDecimal.valueOf(25), BigDecimal.valueOf(50), BigDecimal.valueOf(100),
+            BigDecimal.valueOf(250), BigDecimal.valueOf(500)
+    };
+    private static final String[] PRICE_LABELS = {"0-25", "25-50", "50-100", "100-250", "250-500", "500+"};
+
+    // Best score first, product id as the tie-breaker so cursors are stable
+    private static final Comparator<Hit> RANKING = Comparator.comparingDouble(Hit::getScore).reversed()
+            .thenComparingLong(hit -> hit.getDocument().getId());
+
+    private final ProductRepository productRepository;
+    private final Timer searchTimer;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guarded by lock
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final NavigableMap<String, Map<Long, Double>> postings = new TreeMap<>();
+
+    public ProductSearchIndex(ProductRepository productRepository, MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.searchTimer = Timer.builder("inventory.search.time")
+                .description("Time taken by product search queries")
+                .tag("service", "inventory-service")
+                .register(meterRegistry);
+        Gauge.builder("inventory.search.index.size", this, ProductSearchIndex::size)
+                .description("Products in the search index")
+                .tag("service", "inventory-service")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Load every product from the database. Products changed while the load runs keep the
+     * version delivered by the change rather than the possibly older row read here.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long startNanos = System.nanoTime();
+        int loaded = 0;
+        try {
+            Slice<Product> page = productRepository.findAll(PageRequest.of(0, LOAD_PAGE_SIZE, Sort.by("id")));
+            while (true) {
+                List<Document> batch = page.getContent().stream().map(ProductSearchIndex::documentOf).toList();
+                withWriteLock(() -> batch.forEach(this::put));
+                loaded += batch.size();
+                if (!page.hasNext()) {
+                    break;
+                }
+                page = productRepository.findAll(page.nextPageable());
+            }
+        } catch (Exception e) {
+            log.error("Search index load stopped after {} products", loaded, e);
+        }
+        log.info("Search index loaded {} products in {} ms", loaded, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * Index a product saved in the current transaction once it commits.
+     */
+    public void indexAfterCommit(Product product) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    // Read now: the version is only incremented when the change is flushed
+                    withWriteLock(() -> put(documentOf(product)));
+                }
+            });
+        } else {
+            withWriteLock(() -> put(documentOf(product)));
+        }
+    }
+
+    /**
+     * Index a product event published by any instance. Events older than the indexed document are ignored.
+     */
+    public void index(ProductEvent event) {
+        if (event.getProductId() == null) {
+            return;
+        }
+        Document document = new Document(event.getProductId(), event.getVersion(), event.getSku(), event.getName(),
+                event.getDescription(), event.getTags(), event.getBrand(), event.getCategory(), event.getPrice(),
+                !Boolean.FALSE.equals(event.getActive()));
+        withWriteLock(() -> put(document));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public SearchResult search(SearchQuery query) {
+        return searchTimer.record(() -> {
+            lock.readLock().lock();
+            try {
+                return doSearch(query);
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+
+    private void put(Document document) {
+        Document current = documents.get(document.id);
+        if (current != null && document.version < current.version) {
+            log.debug("Ignoring version {} of product {}, version {} is indexed", document.version, document.id,
+                    current.version);
+            return;
+        }
+        removePostings(documents.put(document.id, document));
+        document.termWeights.forEach((term, weight) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(document.id, weight));
+    }
+
+    private void removePostings(Document previous) {
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.termWeights.keySet()) {
+            Map<Long, Double> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(previous.id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private SearchResult doSearch(SearchQuery query) {
+        Map<Long, Double> scores = score(tokenize(query.getText()));
+
+        Predicate<Document> visible = document -> query.isIncludeInactive() || document.active;
+        Predicate<Document> categoryFilter = document -> query.getCategory() == null
+                || query.getCategory().equalsIgnoreCase(document.category);
+        Predicate<Document> brandFilter = document -> query.getBrand() == null
+                || query.getBrand().equalsIgnoreCase(document.brand);
+        Predicate<Document> priceFilter = document -> inPriceRange(document.price, query.getMinPrice(), query.getMaxPrice());
+
+        List<Document> matched = new ArrayList<>();
+        if (scores == null) {
+            documents.values().stream().filter(visible).forEach(matched::add);
+        } else {
+            scores.keySet().stream().map(documents::get).filter(visible).forEach(matched::add);
+        }
+
+        // Each facet ignores its own filter, so the counts show what selecting another value would return
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        facets.put("category", countBy(matched, brandFilter.and(priceFilter), document -> document.category));
+        facets.put("brand", countBy(matched, categoryFilter.and(priceFilter), document -> document.brand));
+        facets.put("price", countBy(matched, categoryFilter.and(brandFilter), document -> priceBucket(document.price)));
+
+        List<Hit> hits = matched.stream()
+                .filter(categoryFilter.and(brandFilter).and(priceFilter))
+                .map(document -> new Hit(document, scores != null ? scores.get(document.id) : 0.0))
+                .sorted(RANKING)
+                .toList();
+
+        int start = 0;
+        if (query.getCursor() != null) {
+            Hit after = decodeCursor(query.getCursor());
+            while (start < hits.size() && RANKING.compare(hits.get(start), after) <= 0) {
+                start++;
+            }
+        }
+        int end = Math.min(start + query.getSize(), hits.size());
+        List<Hit> page = hits.subList(start, end);
+        String nextCursor = end < hits.size() && !page.isEmpty() ? encodeCursor(page.get(page.size() - 1)) : null;
+        return new SearchResult(new ArrayList<>(page), hits.size(), facets, nextCursor);
+    }
+
+    /**
+     * Scores for documents containing every term, or null when there are no terms.
+     */
+    private Map<Long, Double> score(List<String> terms) {
+        if (terms.isEmpty()) {
+            return null;
+        }
+        int totalDocuments = Math.max(documents.size(), 1);
+        Map<Long, Double> scores = null;
+        for (int i = 0; i < terms.size(); i++) {
+            String term = terms.get(i);
+            Map<Long, Double> termScores = new HashMap<>();
+            Map<String, Map<Long, Double>> matches = i == terms.size() - 1
+                    ? postings.subMap(term, true, term + Character.MAX_VALUE, false)
+                    : postings.containsKey(term) ? Map.of(term, postings.get(term)) : Map.of();
+            for (Map<Long, Double> posting : matches.values()) {
+                double idf = Math.log(1.0 + (double) totalDocuments / posting.size());
+                posting.forEach((id, weight) -> termScores.merge(id, weight * idf, Math::max));
+            }
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                Map<Long, Double> intersection = new HashMap<>();
+                for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                    Double termScore = termScores.get(entry.getKey());
+                    if (termScore != null) {
+                        intersection.put(entry.getKey(), entry.getValue() + termScore);
+                    }
+                }
+                scores = intersection;
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores;
+    }
+
+    private static Map<String, Long> countBy(List<Document> documents, Predicate<Document> otherFilters,
+                                             Function<Document, String> value) {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Document document : documents) {
+            if (otherFilters.test(document)) {
+                String key = value.apply(document);
+                if (key != null) {
+                    counts.merge(key, 1L, Long::sum);
+                }
+            }
+        }
+        return counts;
+    }
+
+    private static boolean inPriceRange(BigDecimal price, BigDecimal min, BigDecimal max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        if (price == null) {
+            return false;
+        }
+        return (min == null || price.compareTo(min) >= 0) && (max == null || price.compareTo(max) <= 0);
+    }
+
+    private static String priceBucket(BigDecimal price) {
+        if (price == null) {
+            return null;
+        }
+        for (int i = 0; i < PRICE_EDGES.length; i++) {
+            if (price.compareTo(PRICE_EDGES[i]) < 0) {
+                return PRICE_LABELS[i];
+            }
+        }
+        return PRICE_LABELS[PRICE_LABELS.length - 1];
+    }
+
+    private static String encodeCursor(Hit hit) {
+        String value = hit.getScore() + ":" + hit.getDocument().id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Hit decodeCursor(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(':');
+            double score = Double.parseDouble(value.substring(0, separator));
+            long id = Long.parseLong(value.substring(separator + 1));
+            return new Hit(new Document(id, null, null, null, null, null, null, null, null, false), score);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid search cursor", e);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        for (String token : TOKEN_SPLIT.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty() && !terms.contains(token)) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    private static Document documentOf(Product product) {
+        return new Document(product.getId(), product.getVersion(), product.getSku(), product.getName(),
+                product.getDescription(), product.getTags(), product.getBrand(), product.getCategory(),
+                product.getPrice(), Boolean.TRUE.equals(product.getIsActive()));
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexed view of one product; immutable once built.
+     */
+    @Getter
+    public static final class Document {
+        private final long id;
+        // Product row version; -1 when unknown, which any versioned document replaces
+        @Getter(AccessLevel.NONE)
+        private final long version;
+        private final String sku;
+        private final String name;
+        private final String brand;
+        private final String category;
+        private final BigDecimal price;
+        private final boolean active;
+        @Getter(AccessLevel.NONE)
+        private final Map<String, Double> termWeights;
+
+        Document(long id, Long version, String sku, String name, String description, String tags, String brand,
+                 String category, BigDecimal price, boolean active) {
+            this.id = id;
+            this.version = version != null ? version : -1L;
+            this.sku = sku;
+            this.name = name;
+            this.brand = brand;
+            this.category = category;
+            this.price = price;
+            this.active = active;
+
+            Map<String, Double> weights = new HashMap<>();
+            addTerms(weights, name, NAME_WEIGHT);
+            addTerms(weights, sku, SKU_WEIGHT);
+            if (sku != null) {
+                weights.merge(sku.toLowerCase(Locale.ROOT), SKU_WEIGHT, Double::sum);
+            }
+            addTerms(weights, tags, TAGS_WEIGHT);
+            addTerms(weights, brand, BRAND_WEIGHT);
+            addTerms(weights, category, CATEGORY_WEIGHT);
+            addTerms(weights, description, DESCRIPTION_WEIGHT);
+            this.termWeights = weights;
+        }
+
+        private static void addTerms(Map<String, Double> weights, String text, double fieldWeight) {
+            if (text == null || text.isBlank()) {
+                return;
+            }
+            // Repeats add weight with diminishing returns, so keyword stuffing does not dominate
+            Map<String, Integer> frequencies = new HashMap<>();
+            for (String token : TOKEN_SPLIT.split(text.toLowerCase(Locale.ROOT))) {
+                if (!token.isEmpty()) {
+                    frequencies.merge(token, 1, Integer::sum);
+                }
+            }
+            frequencies.forEach((term, frequency) ->
+                    weights.merge(term, fieldWeight * (1.0 + Math.log(frequency)), Double::sum));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.microservices.inventoryservice.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of search hits with the total match count, facet counts per field and the cursor
+ * for the following page (null on the last page).
+ */
+@Getter
+@AllArgsConstructor
+public class SearchResult {
+
+    private final List<Hit> hits;
+    private final int total;
+    private final Map<String, Map<String, Long>> facets;
+    private final String nextCursor;
+}
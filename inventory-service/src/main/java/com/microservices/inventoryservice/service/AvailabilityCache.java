@@ -0,0 +1,201 @@
+package com.microservices.inventoryservice.service;
+
+import com.microservices.inventoryservice.entity.Product;
+import com.microservices.inventoryservice.repository.ProductRepository;
+import com.microservices.inventoryservice.repository.ProductStockView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory stock snapshot per product (available quantity and active flag) behind the availability check.
+ * Snapshots are refreshed after local stock changes commit and from inventory events published
+ * by other instances. A snapshot that has not been confirmed within the staleness bound is
+ * reloaded from the database with a projection query, so answers are never older than that bound.
+ * <p>
+ * Snapshots are ordered by the product row version, so an update that arrives late (an event
+ * delayed behind a local commit, a reload racing an event) never replaces a newer one. An update
+ * at the same version is not applied; it only confirms the snapshot and restarts its staleness clock.
+ */
+@Service
+@Slf4j
+public class AvailabilityCache {
+
+    private final ProductRepository productRepository;
+    private final Map<Long, StockSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final long maxStalenessNanos;
+    private final int maxEntries;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter staleReloads;
+
+    public AvailabilityCache(ProductRepository productRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.availability-cache.enabled:true}") boolean enabled,
+                             @Value("${app.availability-cache.max-staleness-ms:2000}") long maxStalenessMillis,
+                             @Value("${app.availability-cache.max-entries:100000}") int maxEntries) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMillis);
+        this.maxEntries = maxEntries;
+
+        this.hits = lookupCounter(meterRegistry, "hit");
+        this.misses = lookupCounter(meterRegistry, "miss");
+        this.staleReloads = lookupCounter(meterRegistry, "stale");
+        Gauge.builder("inventory.availability.cache.size", snapshots, Map::size)
+                .description("Products with a cached stock snapshot")
+                .tag("service", "inventory-service")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether the product is active and has at least {@code quantity} units not held by reservations.
+     *
+     * @throws RuntimeException if the product does not exist
+     */
+    public boolean isAvailable(Long productId, int quantity) {
+        StockSnapshot snapshot = lookup(productId);
+        return snapshot.active && snapshot.quantity >= quantity;
+    }
+
+    /**
+     * Refresh the snapshot from a product changed in the current transaction, once it commits.
+     * Nothing is cached if the transaction rolls back.
+     */
+    public void refreshAfterCommit(Product product) {
+        if (!enabled || product.getId() == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    // Read now: the version is only incremented when the change is flushed
+                    refresh(product);
+                }
+            });
+        } else {
+            refresh(product);
+        }
+    }
+
+    /**
+     * Apply an available quantity or active flag seen on an inventory event for product row
+     * {@code version}. A null {@code active} keeps the cached flag; events for products without a
+     * snapshot are only cached when they carry both values. Events older than the snapshot are
+     * ignored, and events without an available quantity or a version drop the snapshot.
+     */
+    public void apply(Long productId, Integer quantity, Boolean active, Long version) {
+        if (!enabled || productId == null) {
+            return;
+        }
+        if (quantity == null || version == null) {
+            evict(productId);
+            return;
+        }
+        long observedAt = System.nanoTime();
+        if (active != null) {
+            store(productId, new StockSnapshot(quantity, active, version, observedAt));
+            return;
+        }
+        snapshots.computeIfPresent(productId, (id, current) ->
+                merge(current, new StockSnapshot(quantity, current.active, version, observedAt)));
+    }
+
+    public void evict(Long productId) {
+        snapshots.remove(productId);
+    }
+
+    private StockSnapshot lookup(Long productId) {
+        if (!enabled) {
+            return load(productId);
+        }
+        StockSnapshot snapshot = snapshots.get(productId);
+        if (snapshot == null) {
+            misses.increment();
+            return load(productId);
+        }
+        if (System.nanoTime() - snapshot.observedAt > maxStalenessNanos) {
+            staleReloads.increment();
+            return load(productId);
+        }
+        hits.increment();
+        return snapshot;
+    }
+
+    private StockSnapshot load(Long productId) {
+        ProductStockView view = productRepository.findStockViewById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+        int reserved = view.getReservedQuantity() != null ? view.getReservedQuantity() : 0;
+        StockSnapshot snapshot = new StockSnapshot(view.getQuantityInStock() - reserved,
+                Boolean.TRUE.equals(view.getIsActive()),
+                view.getVersion() != null ? view.getVersion() : 0L, System.nanoTime());
+        // A row without a version cannot be ordered against events, so it is not cached
+        if (enabled && view.getVersion() != null) {
+            store(productId, snapshot);
+        }
+        return snapshot;
+    }
+
+    private void refresh(Product product) {
+        if (product.getVersion() == null) {
+            evict(product.getId());
+            return;
+        }
+        store(product.getId(), new StockSnapshot(product.getAvailableQuantity(),
+                Boolean.TRUE.equals(product.getIsActive()), product.getVersion(), System.nanoTime()));
+    }
+
+    private void store(Long productId, StockSnapshot snapshot) {
+        if (snapshots.size() >= maxEntries && !snapshots.containsKey(productId)) {
+            log.debug("Availability cache full, not caching product {}", productId);
+            return;
+        }
+        snapshots.merge(productId, snapshot, AvailabilityCache::merge);
+    }
+
+    /** Keep the newer version; the same version only moves the confirmation time forward. */
+    private static StockSnapshot merge(StockSnapshot current, StockSnapshot candidate) {
+        if (candidate.version > current.version) {
+            return candidate;
+        }
+        if (candidate.version == current.version && candidate.observedAt > current.observedAt) {
+            return new StockSnapshot(current.quantity, current.active, current.version, candidate.observedAt);
+        }
+        return current;
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("inventory.availability.cache.lookups")
+                .description("Availability checks by cache outcome")
+                .tag("service", "inventory-service")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static final class StockSnapshot {
+        private final int quantity;
+        private final boolean active;
+        private final long version;
+        // When the snapshot was last written or confirmed, for the staleness bound only
+        private final long observedAt;
+
+        private StockSnapshot(int quantity, boolean active, long version, long observedAt) {
+            this.quantity = quantity;
+            this.active = active;
+            this.version = version;
+            this.observedAt = observedAt;
+        }
+    }
+}
@@ -0,0 +1,484 @@
+package com.microservices.inventoryservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.inventoryservice.dto.BulkStockImportSummary;
+import com.microservices.inventoryservice.dto.BulkStockRow;
+import com.microservices.inventoryservice.dto.BulkStockRowResult;
+import com.microservices.inventoryservice.entity.InventoryTransaction;
+import com.microservices.inventoryservice.entity.Product;
+import com.microservices.inventoryservice.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Streaming bulk stock import. Rows are parsed one line at a time and applied in chunks:
+ * one SKU lookup per chunk, the stock updates and ledger entries flushed as JDBC batches in
+ * one transaction, and the per-row results handed back as soon as the chunk commits. Memory
+ * use is bounded by the chunk size, not the size of the upload.
+ */
+@Service
+@Slf4j
+public class BulkStockImportService {
+
+    public static final String REFERENCE_TYPE = "BULK_IMPORT";
+
+    private static final String DEFAULT_REASON = "Bulk stock import";
+    private static final int MAX_SKU_LENGTH = 100;
+    private static final int MAX_REASON_LENGTH = 500;
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private final ProductRepository productRepository;
+    private final InventoryTransactionService inventoryTransactionService;
+    private final InventoryEventPublisher inventoryEventPublisher;
+    private final AvailabilityCache availabilityCache;
+    private final StockLevelTracker stockLevelTracker;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate chunkTransaction;
+
+    private final Map<BulkStockRowResult.Status, Counter> rowCounters = new EnumMap<>(BulkStockRowResult.Status.class);
+    private final Timer chunkTimer;
+
+    @Value("${app.bulk-import.chunk-size:500}")
+    private int chunkSize;
+
+    public BulkStockImportService(ProductRepository productRepository,
+                                  InventoryTransactionService inventoryTransactionService,
+                                  InventoryEventPublisher inventoryEventPublisher,
+                                  AvailabilityCache availabilityCache,
+                                  StockLevelTracker stockLevelTracker,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.inventoryTransactionService = inventoryTransactionService;
+        this.inventoryEventPublisher = inventoryEventPublisher;
+        this.availabilityCache = availabilityCache;
+        this.stockLevelTracker = stockLevelTracker;
+        this.objectMapper = objectMapper;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        for (BulkStockRowResult.Status status : BulkStockRowResult.Status.values()) {
+            rowCounters.put(status, Counter.builder("inventory.bulk-import.rows")
+                    .description("Bulk stock import rows by outcome")
+                    .tag("service", "inventory-service")
+                    .tag("status", status.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+        this.chunkTimer = Timer.builder("inventory.bulk-import.chunk.time")
+                .description("Time to apply and commit one chunk of a bulk stock import")
+                .tag("service", "inventory-service")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Apply every row of {@code input}. Chunks commit independently, so rows already reported
+     * stay applied if a later chunk or the upload itself fails.
+     *
+     * @param chunkResults receives the results of each chunk, in row order, once it has committed
+     */
+    public BulkStockImportSummary importStock(InputStream input, Format format, String performedBy,
+                                              Consumer<List<BulkStockRowResult>> chunkResults) throws IOException {
+        String importId = UUID.randomUUID().toString();
+        long startNanos = System.nanoTime();
+        Map<BulkStockRowResult.Status, Long> tally = new EnumMap<>(BulkStockRowResult.Status.class);
+        log.info("Starting bulk stock import {} ({}) by {}", importId, format, performedBy);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        RowReader rows = format == Format.CSV ? new CsvRowReader(reader) : new NdjsonRowReader(reader, objectMapper);
+        List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+        long rowCount = 0;
+        ParsedRow row;
+        while ((row = rows.next()) != null) {
+            rowCount++;
+            chunk.add(row);
+            if (chunk.size() >= chunkSize) {
+                emit(processChunk(chunk, importId, performedBy), tally, chunkResults);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            emit(processChunk(chunk, importId, performedBy), tally, chunkResults);
+        }
+
+        BulkStockImportSummary summary = BulkStockImportSummary.builder()
+                .importId(importId)
+                .rows(rowCount)
+                .updated(tally.getOrDefault(BulkStockRowResult.Status.UPDATED, 0L))
+                .unchanged(tally.getOrDefault(BulkStockRowResult.Status.UNCHANGED, 0L))
+                .notFound(tally.getOrDefault(BulkStockRowResult.Status.NOT_FOUND, 0L))
+                .invalid(tally.getOrDefault(BulkStockRowResult.Status.INVALID, 0L))
+                .failed(tally.getOrDefault(BulkStockRowResult.Status.FAILED, 0L))
+                .elapsedMs((System.nanoTime() - startNanos) / 1_000_000)
+                .build();
+        log.info("Bulk stock import {} finished: {} rows in {} ms ({} updated, {} unchanged, {} not found, {} invalid, {} failed)",
+                importId, summary.getRows(), summary.getElapsedMs(), summary.getUpdated(), summary.getUnchanged(),
+                summary.getNotFound(), summary.getInvalid(), summary.getFailed());
+        return summary;
+    }
+
+    private void emit(List<BulkStockRowResult> results, Map<BulkStockRowResult.Status, Long> tally,
+                      Consumer<List<BulkStockRowResult>> chunkResults) {
+        for (BulkStockRowResult result : results) {
+            tally.merge(result.getStatus(), 1L, Long::sum);
+            rowCounters.get(result.getStatus()).increment();
+        }
+        chunkResults.accept(results);
+    }
+
+    private List<BulkStockRowResult> processChunk(List<ParsedRow> rows, String importId, String performedBy) {
+        List<BulkStockRowResult> results = new ArrayList<>(rows.size());
+        List<ParsedRow> valid = new ArrayList<>(rows.size());
+        for (ParsedRow row : rows) {
+            if (row.error != null) {
+                results.add(BulkStockRowResult.builder()
+                        .row(row.number)
+                        .sku(row.row != null ? row.row.getSku() : null)
+                        .status(BulkStockRowResult.Status.INVALID)
+                        .error(row.error)
+                        .build());
+            } else {
+                valid.add(row);
+            }
+        }
+        if (!valid.isEmpty()) {
+            List<Outcome> outcomes = chunkTimer.record(() -> applyChunk(valid, importId, performedBy));
+            for (Outcome outcome : outcomes) {
+                // Published only once committed, so a chunk retried row by row never announces a rollback
+                if (outcome.product != null) {
+                    inventoryEventPublisher.publishStockUpdatedEvent(outcome.product,
+                            outcome.result.getPreviousQuantity(), outcome.result.getNewQuantity());
+                }
+                results.add(outcome.result);
+            }
+        }
+        results.sort(Comparator.comparingLong(BulkStockRowResult::getRow));
+        return results;
+    }
+
+    private List<Outcome> applyChunk(List<ParsedRow> rows, String importId, String performedBy) {
+        try {
+            return chunkTransaction.execute(status -> apply(rows, importId, performedBy));
+        } catch (RuntimeException e) {
+            if (rows.size() == 1) {
+                return List.of(failed(rows.get(0), e));
+            }
+            // Typically a concurrent update to one of the products; isolate it so the rest still apply
+            log.warn("Bulk stock import {} chunk of {} rows failed, retrying row by row: {}",
+                    importId, rows.size(), e.getMessage());
+            List<Outcome> outcomes = new ArrayList<>(rows.size());
+            for (ParsedRow row : rows) {
+                try {
+                    outcomes.addAll(chunkTransaction.execute(status -> apply(List.of(row), importId, performedBy)));
+                } catch (RuntimeException rowFailure) {
+                    outcomes.add(failed(row, rowFailure));
+                }
+            }
+            return outcomes;
+        }
+    }
+
+    private List<Outcome> apply(List<ParsedRow> rows, String importId, String performedBy) {
+        Set<String> skus = new HashSet<>();
+        for (ParsedRow row : rows) {
+            skus.add(row.row.getSku());
+        }
+        Map<String, Product> products = new HashMap<>();
+        for (Product product : productRepository.findBySkuIn(skus)) {
+            products.put(product.getSku(), product);
+        }
+
+        List<Outcome> outcomes = new ArrayList<>(rows.size());
+        for (ParsedRow row : rows) {
+            BulkStockRow data = row.row;
+            BulkStockRowResult.BulkStockRowResultBuilder result = BulkStockRowResult.builder()
+                    .row(row.number)
+                    .sku(data.getSku());
+            Product product = products.get(data.getSku());
+            if (product == null) {
+                outcomes.add(new Outcome(result.status(BulkStockRowResult.Status.NOT_FOUND).build(), null));
+                continue;
+            }
+            int previousQuantity = product.getQuantityInStock();
+            long target = data.getMode() == BulkStockRow.Mode.ADJUST
+                    ? (long) previousQuantity + data.getQuantity()
+                    : data.getQuantity();
+            result.productId(product.getId()).previousQuantity(previousQuantity);
+            if (target < 0 || target > Integer.MAX_VALUE) {
+                outcomes.add(new Outcome(result.status(BulkStockRowResult.Status.INVALID)
+                        .error("Resulting quantity " + target + " is out of range")
+                        .build(), null));
+                continue;
+            }
+            int reserved = product.getReservedQuantity() != null ? product.getReservedQuantity() : 0;
+            if (target < reserved) {
+                // Would leave confirmed holds without stock behind them
+                outcomes.add(new Outcome(result.status(BulkStockRowResult.Status.INVALID)
+                        .error("Resulting quantity " + target + " is below the " + reserved
+                                + " units held by reservations")
+                        .build(), null));
+                continue;
+            }
+            int newQuantity = (int) target;
+            if (newQuantity == previousQuantity) {
+                outcomes.add(new Outcome(result.status(BulkStockRowResult.Status.UNCHANGED)
+                        .newQuantity(newQuantity).build(), null));
+                continue;
+            }
+
+            StockLevelTracker.Level levelBefore = StockLevelTracker.Level.of(product);
+            // Ledger entry first: it reads the quantity before the change
+            inventoryTransactionService.createTransaction(
+                    product,
+                    newQuantity > previousQuantity
+                            ? InventoryTransaction.TransactionType.IN
+                            : InventoryTransaction.TransactionType.OUT,
+                    Math.abs(newQuantity - previousQuantity),
+                    data.getReason() != null ? data.getReason() : DEFAULT_REASON,
+                    performedBy,
+                    importId,
+                    REFERENCE_TYPE
+            );
+            // Managed entity: the update is batched with the others when the ledger flushes before commit
+            product.setQuantityInStock(newQuantity);
+            availabilityCache.refreshAfterCommit(product);
+            stockLevelTracker.recordAfterCommit(levelBefore, product);
+            outcomes.add(new Outcome(result.status(BulkStockRowResult.Status.UPDATED)
+                    .newQuantity(newQuantity).build(), product));
+        }
+        return outcomes;
+    }
+
+    private static Outcome failed(ParsedRow row, RuntimeException e) {
+        log.warn("Bulk stock import row {} ({}) failed: {}", row.number, row.row.getSku(), e.getMessage());
+        return new Outcome(BulkStockRowResult.builder()
+                .row(row.number)
+                .sku(row.row.getSku())
+                .status(BulkStockRowResult.Status.FAILED)
+                .error(e.getMessage())
+                .build(), null);
+    }
+
+    /** Checks shared by both formats; returns the problem with the row, or null. */
+    private static String validate(BulkStockRow row) {
+        if (row.getSku() == null || row.getSku().isBlank()) {
+            return "sku is required";
+        }
+        if (row.getSku().length() > MAX_SKU_LENGTH) {
+            return "sku must not exceed " + MAX_SKU_LENGTH + " characters";
+        }
+        if (row.getQuantity() == null) {
+            return "quantity is required";
+        }
+        if (row.getMode() == null) {
+            row.setMode(BulkStockRow.Mode.SET);
+        }
+        if (row.getMode() == BulkStockRow.Mode.SET && row.getQuantity() < 0) {
+            return "quantity must not be negative";
+        }
+        if (row.getReason() != null && row.getReason().length() > MAX_REASON_LENGTH) {
+            return "reason must not exceed " + MAX_REASON_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private interface RowReader {
+        /** Next non-blank row, or null at the end of the input. */
+        ParsedRow next() throws IOException;
+    }
+
+    /**
+     * {@code sku,quantity[,mode][,reason]}, one record per line. An optional header row
+     * starting with {@code sku} may name the columns in any order. Fields may be double-quoted.
+     */
+    private static final class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private int skuColumn = 0;
+        private int quantityColumn = 1;
+        private int modeColumn = 2;
+        private int reasonColumn = 3;
+        private boolean first = true;
+        private long number;
+
+        private CsvRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> fields = split(line);
+                if (first) {
+                    first = false;
+                    if ("sku".equalsIgnoreCase(fields.get(0))) {
+                        readHeader(fields);
+                        continue;
+                    }
+                }
+                return parse(++number, fields);
+            }
+            return null;
+        }
+
+        private void readHeader(List<String> fields) {
+            modeColumn = -1;
+            reasonColumn = -1;
+            quantityColumn = -1;
+            for (int i = 0; i < fields.size(); i++) {
+                switch (fields.get(i).toLowerCase(Locale.ROOT)) {
+                    case "sku" -> skuColumn = i;
+                    case "quantity" -> quantityColumn = i;
+                    case "mode" -> modeColumn = i;
+                    case "reason" -> reasonColumn = i;
+                    default -> { }
+                }
+            }
+        }
+
+        private ParsedRow parse(long number, List<String> fields) {
+            BulkStockRow row = BulkStockRow.builder()
+                    .sku(field(fields, skuColumn))
+                    .reason(field(fields, reasonColumn))
+                    .build();
+            String quantity = field(fields, quantityColumn);
+            String mode = field(fields, modeColumn);
+            try {
+                row.setQuantity(quantity != null ? Integer.valueOf(quantity) : null);
+            } catch (NumberFormatException e) {
+                return new ParsedRow(number, row, "quantity is not a whole number: " + quantity);
+            }
+            try {
+                row.setMode(mode != null ? BulkStockRow.Mode.valueOf(mode.toUpperCase(Locale.ROOT)) : null);
+            } catch (IllegalArgumentException e) {
+                return new ParsedRow(number, row, "mode must be SET or ADJUST: " + mode);
+            }
+            return new ParsedRow(number, row, validate(row));
+        }
+
+        private static String field(List<String> fields, int column) {
+            if (column < 0 || column >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(column).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private static List<String> split(String line) {
+            List<String> fields = new ArrayList<>(4);
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    /** One JSON object per line with the {@link BulkStockRow} field names. */
+    private static final class NdjsonRowReader implements RowReader {
+        private final BufferedReader reader;
+        private final ObjectMapper objectMapper;
+        private long number;
+
+        private NdjsonRowReader(BufferedReader reader, ObjectMapper objectMapper) {
+            this.reader = reader;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                number++;
+                BulkStockRow row;
+                try {
+                    row = objectMapper.readValue(line, BulkStockRow.class);
+                } catch (JsonProcessingException e) {
+                    return new ParsedRow(number, null, "Malformed JSON: " + e.getOriginalMessage());
+                }
+                if (row.getSku() != null) {
+                    row.setSku(row.getSku().trim());
+                }
+                return new ParsedRow(number, row, validate(row));
+            }
+            return null;
+        }
+    }
+
+    private static final class ParsedRow {
+        private final long number;
+        private final BulkStockRow row;
+        private final String error;
+
+        private ParsedRow(long number, BulkStockRow row, String error) {
+            this.number = number;
+            this.row = row;
+            this.error = error;
+        }
+    }
+
+    private static final class Outcome {
+        private final BulkStockRowResult result;
+        /** Set only for rows that changed stock */
+        private final Product product;
+
+        private Outcome(BulkStockRowResult result, Product product) {
+            this.result = result;
+            this.product = product;
+        }
+    }
+}
@@ -1,82 +1,159 @@
 package com.microservices.inventoryservice.service;
 
+import com.microservices.common.kafka.KafkaProducerTemplates;
 import com.microservices.inventoryservice.entity.Product;
-import lombok.RequiredArgsConstructor;
+import com.microservices.inventoryservice.event.InventoryEventCodec;
+import com.microservices.inventoryservice.event.ProductEvent;
+import com.microservices.inventoryservice.event.StockEvent;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Publishes compact inventory events keyed by product id, so all events for one product
+ * land on the same partition in order. The event type and SKU travel as headers, letting
+ * consumers route or filter without decoding the payload.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class InventoryEventPublisher {
-    
-    private final KafkaTemplate<String, Object> kafkaTemplate;
-    
+
+    public static final String EVENT_TYPE_HEADER = "eventType";
+    public static final String SKU_HEADER = "sku";
+    public static final String CONTENT_TYPE_HEADER = "contentType";
+
+    public static final String CONTENT_TYPE_JSON = "application/json";
+    public static final String CONTENT_TYPE_PROTOBUF = "application/x-protobuf";
+
+    private static final Map<String, Object> BINARY_VALUES =
+            Map.of(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+
+    private final KafkaProducerTemplates producerTemplates;
+    private final InventoryEventCodec codec;
+    private final boolean protobuf;
+
+    @Value("${kafka.topics.inventory-events:inventory-events}")
+    private String topic;
+
+    public InventoryEventPublisher(KafkaProducerTemplates producerTemplates,
+                                   InventoryEventCodec codec,
+                                   @Value("${kafka.events.encoding:json}") String encoding) {
+        this.producerTemplates = producerTemplates;
+        this.codec = codec;
+        this.protobuf = "protobuf".equalsIgnoreCase(encoding);
+    }
+
     public void publishProductCreatedEvent(Product product) {
         try {
             log.info("Publishing product created event for product: {}", product.getSku());
-            kafkaTemplate.send("inventory-events", "product.created", product);
+            send(ProductEvent.of(ProductEvent.PRODUCT_CREATED, product));
         } catch (Exception e) {
             log.error("Failed to publish product created event", e);
         }
     }
-    
+
     public void publishProductUpdatedEvent(Product product) {
         try {
             log.info("Publishing product updated event for product: {}", product.getSku());
-            kafkaTemplate.send("inventory-events", "product.updated", product);
+            send(ProductEvent.of(ProductEvent.PRODUCT_UPDATED, product));
         } catch (Exception e) {
             log.error("Failed to publish product updated event", e);
         }
     }
-    
+
     public void publishStockUpdatedEvent(Product product, Integer previousQuantity, Integer newQuantity) {
         try {
-            log.info("Publishing stock updated event for product: {} from {} to {}", 
+            log.info("Publishing stock updated event for product: {} from {} to {}",
                     product.getSku(), previousQuantity, newQuantity);
-            kafkaTemplate.send("inventory-events", "stock.updated", product);
+            send(StockEvent.of(StockEvent.STOCK_UPDATED, product, previousQuantity, newQuantity, null, null));
         } catch (Exception e) {
             log.error("Failed to publish stock updated event", e);
         }
     }
-    
-    public void publishStockReservedEvent(Product product, Integer quantity, String referenceId, String referenceType) {
+
+    /**
+     * Publish a reservation hold change (stock.reserved, stock.released, stock.expired).
+     * Holds do not move on-hand stock, only the available quantity carried on the event.
+     */
+    public void publishReservationEvent(String eventType, Product product, Integer quantity,
+                                        String referenceId, String referenceType) {
+        try {
+            log.info("Publishing {} event for product: {} quantity: {}", eventType, product.getSku(), quantity);
+            Integer onHand = product.getQuantityInStock();
+            send(StockEvent.of(eventType, product, onHand, onHand, referenceId, referenceType));
+        } catch (Exception e) {
+            log.error("Failed to publish {} event", eventType, e);
+        }
+    }
+
+    public void publishStockCommittedEvent(Product product, Integer quantity, String referenceId, String referenceType) {
         try {
-            log.info("Publishing stock reserved event for product: {} quantity: {}", 
+            log.info("Publishing stock committed event for product: {} quantity: {}",
                     product.getSku(), quantity);
-            kafkaTemplate.send("inventory-events", "stock.reserved", product);
+            Integer newQuantity = product.getQuantityInStock();
+            Integer previousQuantity = newQuantity != null && quantity != null ? newQuantity + quantity : null;
+            send(StockEvent.of(StockEvent.STOCK_COMMITTED, product, previousQuantity, newQuantity,
+                    referenceId, referenceType));
         } catch (Exception e) {
-            log.error("Failed to publish stock reserved event", e);
+            log.error("Failed to publish stock committed event", e);
         }
     }
-    
+
     public void publishStockReleasedEvent(Product product, Integer quantity, String referenceId, String referenceType) {
         try {
-            log.info("Publishing stock released event for product: {} quantity: {}", 
+            log.info("Publishing stock released event for product: {} quantity: {}",
                     product.getSku(), quantity);
-            kafkaTemplate.send("inventory-events", "stock.released", product);
+            Integer newQuantity = product.getQuantityInStock();
+            Integer previousQuantity = newQuantity != null && quantity != null ? newQuantity - quantity : null;
+            send(StockEvent.of(StockEvent.STOCK_RELEASED, product, previousQuantity, newQuantity,
+                    referenceId, referenceType));
         } catch (Exception e) {
             log.error("Failed to publish stock released event", e);
         }
     }
-    
+
     public void publishLowStockEvent(Product product) {
         try {
             log.info("Publishing low stock event for product: {}", product.getSku());
-            kafkaTemplate.send("inventory-events", "stock.low", product);
+            send(StockEvent.of(StockEvent.STOCK_LOW, product, null, product.getQuantityInStock(), null, null));
         } catch (Exception e) {
             log.error("Failed to publish low stock event", e);
         }
     }
-    
+
     public void publishOutOfStockEvent(Product product) {
         try {
             log.info("Publishing out of stock event for product: {}", product.getSku());
-            kafkaTemplate.send("inventory-events", "stock.out", product);
+            send(StockEvent.of(StockEvent.STOCK_OUT, product, null, product.getQuantityInStock(), null, null));
         } catch (Exception e) {
             log.error("Failed to publish out of stock event", e);
         }
     }
-}
 
+    private void send(ProductEvent event) {
+        Object payload = protobuf ? codec.toProtobuf(event) : codec.toJson(event);
+        send(event.getProductId(), event.getEventType(), event.getSku(), payload);
+    }
+
+    private void send(StockEvent event) {
+        Object payload = protobuf ? codec.toProtobuf(event) : codec.toJson(event);
+        send(event.getProductId(), event.getEventType(), event.getSku(), payload);
+    }
+
+    private void send(Long productId, String eventType, String sku, Object payload) {
+        ProducerRecord<String, Object> record = new ProducerRecord<>(topic, String.valueOf(productId), payload);
+        record.headers().add(EVENT_TYPE_HEADER, eventType.getBytes(StandardCharsets.UTF_8));
+        if (sku != null) {
+            record.headers().add(SKU_HEADER, sku.getBytes(StandardCharsets.UTF_8));
+        }
+        record.headers().add(CONTENT_TYPE_HEADER,
+                (protobuf ? CONTENT_TYPE_PROTOBUF : CONTENT_TYPE_JSON).getBytes(StandardCharsets.UTF_8));
+        producerTemplates.<String, Object>forTopic(topic, protobuf ? BINARY_VALUES : Map.of()).send(record);
+    }
+}
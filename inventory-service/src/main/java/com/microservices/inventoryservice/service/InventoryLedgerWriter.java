@@ -0,0 +1,104 @@
+package com.microservices.inventoryservice.service;
+
+import com.microservices.inventoryservice.entity.InventoryTransaction;
+import com.microservices.inventoryservice.repository.InventoryTransactionRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Append-only writer for the inventory ledger. Entries appended inside a transaction are
+ * buffered and persisted together just before that transaction commits, so Hibernate sends
+ * them as one JDBC batch (sequence ids, hibernate.jdbc.batch_size) alongside the stock updates.
+ * The entries commit or roll back with the stock change that produced them.
+ */
+@Component
+@Slf4j
+public class InventoryLedgerWriter {
+
+    private final InventoryTransactionRepository inventoryTransactionRepository;
+    private final DistributionSummary flushSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public InventoryLedgerWriter(InventoryTransactionRepository inventoryTransactionRepository,
+                                 MeterRegistry meterRegistry) {
+        this.inventoryTransactionRepository = inventoryTransactionRepository;
+        this.flushSize = DistributionSummary.builder("inventory.ledger.flush.size")
+                .description("Ledger entries written per transaction")
+                .tag("service", "inventory-service")
+                .register(meterRegistry);
+    }
+
+    public void append(InventoryTransaction entry) {
+        appendAll(List.of(entry));
+    }
+
+    /**
+     * Queue entries for the current transaction. Without an active transaction they are
+     * written immediately in one of their own.
+     */
+    public void appendAll(Collection<InventoryTransaction> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            inventoryTransactionRepository.saveAll(entries);
+            flushSize.record(entries.size());
+            return;
+        }
+        currentBuffer().addAll(entries);
+    }
+
+    private List<InventoryTransaction> currentBuffer() {
+        // Looked up among the transaction's synchronizations (not bound as a resource) so that
+        // a nested REQUIRES_NEW transaction, which suspends them, gets a buffer of its own
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof LedgerBuffer ledgerBuffer && ledgerBuffer.owner == this) {
+                return ledgerBuffer.entries;
+            }
+        }
+        LedgerBuffer ledgerBuffer = new LedgerBuffer(this);
+        TransactionSynchronizationManager.registerSynchronization(ledgerBuffer);
+        return ledgerBuffer.entries;
+    }
+
+    private void flush(List<InventoryTransaction> buffer) {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        for (InventoryTransaction entry : buffer) {
+            entityManager.persist(entry);
+        }
+        // One JDBC batch; if it fails the owning transaction does not commit
+        entityManager.flush();
+        flushSize.record(buffer.size());
+        log.debug("Wrote {} inventory ledger entries", buffer.size());
+        buffer.clear();
+    }
+
+    private static final class LedgerBuffer implements TransactionSynchronization {
+        private final InventoryLedgerWriter owner;
+        private final List<InventoryTransaction> entries = new ArrayList<>();
+
+        private LedgerBuffer(InventoryLedgerWriter owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            owner.flush(entries);
+        }
+    }
+}
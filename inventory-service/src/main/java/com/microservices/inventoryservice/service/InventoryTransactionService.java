@@ -18,8 +18,12 @@ import java.util.List;
 public class InventoryTransactionService {
     
     private final InventoryTransactionRepository inventoryTransactionRepository;
+    private final InventoryLedgerWriter inventoryLedgerWriter;
     
-    @Transactional
+    /**
+     * Record a stock movement. The entry is written with the caller's transaction, just before
+     * it commits, so its id is only assigned at that point.
+     */
     public InventoryTransaction createTransaction(Product product, 
                                                 InventoryTransaction.TransactionType transactionType,
                                                 Integer quantity,
@@ -27,7 +31,7 @@ public class InventoryTransactionService {
                                                 String performedBy,
                                                 String referenceId,
                                                 String referenceType) {
-        log.info("Creating inventory transaction for product: {} type: {} quantity: {}", 
+        log.debug("Recording inventory transaction for product: {} type: {} quantity: {}",
                 product.getSku(), transactionType, quantity);
         
         InventoryTransaction transaction = InventoryTransaction.builder()
@@ -42,11 +46,8 @@ public class InventoryTransactionService {
                 .performedBy(performedBy)
                 .build();
         
-        InventoryTransaction savedTransaction = inventoryTransactionRepository.save(transaction);
-        
-        log.info("Inventory transaction created: {}", savedTransaction.getId());
-        
-        return savedTransaction;
+        inventoryLedgerWriter.append(transaction);
+        return transaction;
     }
     
     @Transactional(readOnly = true)
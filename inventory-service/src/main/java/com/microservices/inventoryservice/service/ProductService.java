@@ -1,20 +1,36 @@
 package com.microservices.inventoryservice.service;
 
+import com.microservices.inventoryservice.dto.BulkStockImportSummary;
+import com.microservices.inventoryservice.dto.BulkStockRowResult;
+import com.microservices.inventoryservice.dto.ProductPage;
 import com.microservices.inventoryservice.dto.ProductRequest;
 import com.microservices.inventoryservice.dto.ProductResponse;
+import com.microservices.inventoryservice.dto.ProductSearchHit;
+import com.microservices.inventoryservice.dto.ProductSearchResponse;
 import com.microservices.inventoryservice.entity.Product;
 import com.microservices.inventoryservice.entity.InventoryTransaction;
+import com.microservices.inventoryservice.repository.ProductListView;
 import com.microservices.inventoryservice.repository.ProductRepository;
+import com.microservices.inventoryservice.search.ProductSearchIndex;
+import com.microservices.inventoryservice.search.SearchQuery;
+import com.microservices.inventoryservice.search.SearchResult;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,9 +38,27 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ProductService {
     
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final int MAX_LIST_PAGE_SIZE = 200;
+    private static final int EXPORT_CHUNK_SIZE = 1000;
+    
+    /** The product lists served as keyset pages and exports. */
+    public enum Listing {
+        ALL,
+        ACTIVE,
+        LOW_STOCK,
+        OUT_OF_STOCK
+    }
+    
     private final ProductRepository productRepository;
     private final InventoryTransactionService inventoryTransactionService;
     private final InventoryEventPublisher inventoryEventPublisher;
+    private final AvailabilityCache availabilityCache;
+    private final StockReservationService stockReservationService;
+    private final ProductSearchIndex productSearchIndex;
+    private final StockLevelTracker stockLevelTracker;
+    private final BulkStockImportService bulkStockImportService;
+    private final StockMutationExecutor stockMutationExecutor;
     
     @Transactional
     @CircuitBreaker(name = "productService", fallbackMethod = "createProductFallback")
@@ -47,6 +81,7 @@ public class ProductService {
                 .maxStockLevel(productRequest.getMaxStockLevel())
                 .category(productRequest.getCategory())
                 .brand(productRequest.getBrand())
+                .tags(productRequest.getTags())
                 .weight(productRequest.getWeight())
                 .dimensions(productRequest.getDimensions())
                 .isActive(productRequest.getIsActive())
@@ -54,6 +89,7 @@ public class ProductService {
                 .build();
         
         Product savedProduct = productRepository.save(product);
+        availabilityCache.refreshAfterCommit(savedProduct);
         
         // Create initial inventory transaction
         if (savedProduct.getQuantityInStock() > 0) {
@@ -68,6 +104,9 @@ public class ProductService {
             );
         }
         
+        productSearchIndex.indexAfterCommit(savedProduct);
+        stockLevelTracker.recordAfterCommit(null, savedProduct);
+        
         // Publish product created event
         inventoryEventPublisher.publishProductCreatedEvent(savedProduct);
         
@@ -92,12 +131,25 @@ public class ProductService {
         return mapToProductResponse(product);
     }
     
-    @Transactional(readOnly = true)
-    public List<ProductResponse> getAllProducts() {
-        List<Product> products = productRepository.findAll();
-        return products.stream()
+    /**
+     * One keyset page of a product list, ordered by id. Only the response columns are read;
+     * the low and out-of-stock lists take their ids from the in-memory stock level sets.
+     *
+     * @param cursor nextCursor of the previous page; null for the first page, which also carries the total
+     * @throws IllegalArgumentException if the cursor was not issued by this endpoint
+     */
+    public ProductPage getProducts(Listing listing, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_LIST_PAGE_SIZE));
+        KeysetSlice slice = fetch(listing, decodeCursor(cursor), limit);
+        List<ProductResponse> content = slice.views.stream()
                 .map(this::mapToProductResponse)
                 .collect(Collectors.toList());
+        return ProductPage.builder()
+                .content(content)
+                .size(content.size())
+                .nextCursor(slice.hasNext ? encodeCursor(slice.lastId) : null)
+                .totalElements(cursor == null ? count(listing) : null)
+                .build();
     }
     
     @Transactional(readOnly = true)
@@ -106,34 +158,113 @@ public class ProductService {
         return products.map(this::mapToProductResponse);
     }
     
-    @Transactional(readOnly = true)
-    public List<ProductResponse> getActiveProducts() {
-        List<Product> products = productRepository.findByIsActive(true);
-        return products.stream()
-                .map(this::mapToProductResponse)
-                .collect(Collectors.toList());
-    }
-    
     @Transactional(readOnly = true)
     public Page<ProductResponse> getActiveProducts(Pageable pageable) {
         Page<Product> products = productRepository.findByIsActive(true, pageable);
         return products.map(this::mapToProductResponse);
     }
     
-    @Transactional(readOnly = true)
-    public List<ProductResponse> getLowStockProducts() {
-        List<Product> products = productRepository.findLowStockProducts();
-        return products.stream()
-                .map(this::mapToProductResponse)
-                .collect(Collectors.toList());
+    /**
+     * Every product in the listing, passed to {@code chunks} one keyset page at a time. Each page
+     * is a short query of its own, so no transaction or connection is held while the export is written out.
+     */
+    public void exportProducts(Listing listing, Consumer<List<ProductResponse>> chunks) {
+        long afterId = 0;
+        KeysetSlice slice;
+        do {
+            slice = fetch(listing, afterId, EXPORT_CHUNK_SIZE);
+            if (!slice.views.isEmpty()) {
+                chunks.accept(slice.views.stream()
+                        .map(this::mapToProductResponse)
+                        .collect(Collectors.toList()));
+            }
+            afterId = slice.lastId;
+        } while (slice.hasNext);
     }
     
-    @Transactional(readOnly = true)
-    public List<ProductResponse> getOutOfStockProducts() {
-        List<Product> products = productRepository.findOutOfStockProducts();
-        return products.stream()
-                .map(this::mapToProductResponse)
+    private KeysetSlice fetch(Listing listing, long afterId, int limit) {
+        // One row (or id) past the page tells whether there is a next one
+        PageRequest probe = PageRequest.of(0, limit + 1);
+        return switch (listing) {
+            case ALL -> KeysetSlice.of(productRepository.findListViewsAfter(afterId, probe), afterId, limit);
+            case ACTIVE -> KeysetSlice.of(productRepository.findActiveListViewsAfter(afterId, probe), afterId, limit);
+            case LOW_STOCK -> byIds(stockLevelTracker.lowStockIds(afterId, limit + 1), afterId, limit);
+            case OUT_OF_STOCK -> byIds(stockLevelTracker.outOfStockIds(afterId, limit + 1), afterId, limit);
+        };
+    }
+    
+    private KeysetSlice byIds(List<Long> ids, long afterId, int limit) {
+        boolean hasNext = ids.size() > limit;
+        List<Long> page = hasNext ? ids.subList(0, limit) : ids;
+        List<ProductListView> views = page.isEmpty() ? List.of() : productRepository.findListViewsByIdIn(page);
+        // The cursor follows the ids, not the rows, so a product deleted meanwhile does not end the walk
+        return new KeysetSlice(views, hasNext, page.isEmpty() ? afterId : page.get(page.size() - 1));
+    }
+    
+    private long count(Listing listing) {
+        return switch (listing) {
+            case ALL -> productRepository.count();
+            case ACTIVE -> productRepository.countActiveProducts();
+            case LOW_STOCK -> stockLevelTracker.lowStockCount();
+            case OUT_OF_STOCK -> stockLevelTracker.outOfStockCount();
+        };
+    }
+    
+    private static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
+        long lastId;
+        try {
+            lastId = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        if (lastId < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return lastId;
+    }
+    
+    /**
+     * Ranked full-text search served from the in-memory index; no database access.
+     */
+    public ProductSearchResponse searchProducts(String text, String category, String brand,
+                                                BigDecimal minPrice, BigDecimal maxPrice,
+                                                String cursor, int size) {
+        SearchResult result = productSearchIndex.search(SearchQuery.builder()
+                .text(text)
+                .category(category)
+                .brand(brand)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .cursor(cursor)
+                .size(Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE)))
+                .build());
+        
+        List<ProductSearchHit> items = result.getHits().stream()
+                .map(hit -> ProductSearchHit.builder()
+                        .id(hit.getDocument().getId())
+                        .sku(hit.getDocument().getSku())
+                        .name(hit.getDocument().getName())
+                        .brand(hit.getDocument().getBrand())
+                        .category(hit.getDocument().getCategory())
+                        .price(hit.getDocument().getPrice())
+                        .score(hit.getScore())
+                        .build())
                 .collect(Collectors.toList());
+        
+        return ProductSearchResponse.builder()
+                .items(items)
+                .total(result.getTotal())
+                .facets(result.getFacets())
+                .nextCursor(result.getNextCursor())
+                .build();
     }
     
     @Transactional
@@ -149,6 +280,7 @@ public class ProductService {
             throw new RuntimeException("Product with SKU " + productRequest.getSku() + " already exists");
         }
         
+        StockLevelTracker.Level levelBefore = StockLevelTracker.Level.of(product);
         product.setName(productRequest.getName());
         product.setDescription(productRequest.getDescription());
         product.setSku(productRequest.getSku());
@@ -157,12 +289,18 @@ public class ProductService {
         product.setMaxStockLevel(productRequest.getMaxStockLevel());
         product.setCategory(productRequest.getCategory());
         product.setBrand(productRequest.getBrand());
+        product.setTags(productRequest.getTags());
         product.setWeight(productRequest.getWeight());
         product.setDimensions(productRequest.getDimensions());
         product.setIsActive(productRequest.getIsActive());
         product.setUpdatedBy(productRequest.getCreatedBy());
         
-        Product savedProduct = productRepository.save(product);
+        // Flushed now so the published event carries the incremented version
+        Product savedProduct = productRepository.saveAndFlush(product);
+        availabilityCache.refreshAfterCommit(savedProduct);
+        
+        productSearchIndex.indexAfterCommit(savedProduct);
+        stockLevelTracker.recordAfterCommit(levelBefore, savedProduct);
         
         // Publish product updated event
         inventoryEventPublisher.publishProductUpdatedEvent(savedProduct);
@@ -170,17 +308,37 @@ public class ProductService {
         return mapToProductResponse(savedProduct);
     }
     
-    @Transactional
+    /**
+     * Set the on-hand quantity. Runs in a transaction of its own and is retried if the
+     * product row changes concurrently.
+     *
+     * @throws IllegalStateException if the quantity is below the units held by reservations
+     */
     public ProductResponse updateStock(Long id, Integer newQuantity, String reason, String performedBy) {
         log.info("Updating stock for product: {} to {}", id, newQuantity);
-        
+        Product savedProduct = stockMutationExecutor.execute("update", id,
+                () -> applyStockUpdate(id, newQuantity, reason, performedBy));
+        return mapToProductResponse(savedProduct);
+    }
+    
+    private Product applyStockUpdate(Long id, Integer newQuantity, String reason, String performedBy) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
         
+        int reserved = product.getReservedQuantity() != null ? product.getReservedQuantity() : 0;
+        if (newQuantity < reserved) {
+            throw new IllegalStateException("Stock of product " + id + " cannot be set to " + newQuantity
+                    + ", below the " + reserved + " units held by reservations");
+        }
+        
         Integer previousQuantity = product.getQuantityInStock();
+        StockLevelTracker.Level levelBefore = StockLevelTracker.Level.of(product);
         product.setQuantityInStock(newQuantity);
         
-        Product savedProduct = productRepository.save(product);
+        // Flushed now so a version conflict surfaces before anything is published
+        Product savedProduct = productRepository.saveAndFlush(product);
+        availabilityCache.refreshAfterCommit(savedProduct);
+        stockLevelTracker.recordAfterCommit(levelBefore, savedProduct);
         
         // Create inventory transaction
         InventoryTransaction.TransactionType transactionType = newQuantity > previousQuantity ? 
@@ -199,87 +357,46 @@ public class ProductService {
         // Publish stock updated event
         inventoryEventPublisher.publishStockUpdatedEvent(savedProduct, previousQuantity, newQuantity);
         
-        return mapToProductResponse(savedProduct);
+        return savedProduct;
     }
     
-    @Transactional
+    /**
+     * Served from the availability cache; no transaction is opened, and a miss or stale
+     * snapshot costs one read-only projection query.
+     */
     public boolean checkProductAvailability(Long productId, Integer quantity) {
-        log.info("Checking availability for product: {} quantity: {}", productId, quantity);
-        
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
-        
-        boolean available = product.getIsActive() && product.getQuantityInStock() >= quantity;
-        
-        log.info("Product availability check result: {} for product: {} quantity: {}", available, productId, quantity);
-        
+        boolean available = availabilityCache.isAvailable(productId, quantity);
+        log.debug("Availability check for product: {} quantity: {} -> {}", productId, quantity, available);
         return available;
     }
     
-    @Transactional
-    public ProductResponse reserveStock(Long productId, Integer quantity, String referenceId, String referenceType) {
+    public ProductResponse reserveStock(Long productId, Integer quantity, String referenceId, String referenceType,
+                                        Long ttlSeconds) {
         log.info("Reserving stock for product: {} quantity: {}", productId, quantity);
-        
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
-        
-        if (!product.getIsActive()) {
-            throw new RuntimeException("Product is not active");
-        }
-        
-        if (product.getQuantityInStock() < quantity) {
-            throw new RuntimeException("Insufficient stock available");
-        }
-        
-        Integer newQuantity = product.getQuantityInStock() - quantity;
-        product.setQuantityInStock(newQuantity);
-        
-        Product savedProduct = productRepository.save(product);
-        
-        // Create inventory transaction
-        inventoryTransactionService.createTransaction(
-                savedProduct,
-                InventoryTransaction.TransactionType.OUT,
-                quantity,
-                "Stock reserved for " + referenceType + ": " + referenceId,
-                "SYSTEM",
-                referenceId,
-                referenceType
-        );
-        
-        // Publish stock reserved event
-        inventoryEventPublisher.publishStockReservedEvent(savedProduct, quantity, referenceId, referenceType);
-        
-        return mapToProductResponse(savedProduct);
+        return mapToProductResponse(stockMutationExecutor.execute("reserve", productId,
+                () -> stockReservationService.reserve(productId, quantity, referenceId, referenceType, ttlSeconds)));
+    }
+    
+    public ProductResponse confirmReservation(Long productId, String referenceId, String referenceType) {
+        log.info("Confirming reservation for product: {} {}: {}", productId, referenceType, referenceId);
+        return mapToProductResponse(stockMutationExecutor.execute("confirm", productId,
+                () -> stockReservationService.confirm(productId, referenceId, referenceType)));
     }
     
-    @Transactional
     public ProductResponse releaseStock(Long productId, Integer quantity, String referenceId, String referenceType) {
         log.info("Releasing stock for product: {} quantity: {}", productId, quantity);
-        
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
-        
-        Integer newQuantity = product.getQuantityInStock() + quantity;
-        product.setQuantityInStock(newQuantity);
-        
-        Product savedProduct = productRepository.save(product);
-        
-        // Create inventory transaction
-        inventoryTransactionService.createTransaction(
-                savedProduct,
-                InventoryTransaction.TransactionType.RETURN,
-                quantity,
-                "Stock released from " + referenceType + ": " + referenceId,
-                "SYSTEM",
-                referenceId,
-                referenceType
-        );
-        
-        // Publish stock released event
-        inventoryEventPublisher.publishStockReleasedEvent(savedProduct, quantity, referenceId, referenceType);
-        
-        return mapToProductResponse(savedProduct);
+        return mapToProductResponse(stockMutationExecutor.execute("release", productId,
+                () -> stockReservationService.release(productId, quantity, referenceId, referenceType)));
+    }
+    
+    /**
+     * Apply a CSV or NDJSON stock upload. Not transactional as a whole: each chunk of rows
+     * commits on its own and its results are passed to {@code chunkResults} straight away.
+     */
+    public BulkStockImportSummary importStock(InputStream input, BulkStockImportService.Format format,
+                                              String performedBy,
+                                              Consumer<List<BulkStockRowResult>> chunkResults) throws IOException {
+        return bulkStockImportService.importStock(input, format, performedBy, chunkResults);
     }
     
     private ProductResponse mapToProductResponse(Product product) {
@@ -290,10 +407,13 @@ public class ProductService {
                 .sku(product.getSku())
                 .price(product.getPrice())
                 .quantityInStock(product.getQuantityInStock())
+                .reservedQuantity(product.getReservedQuantity())
+                .availableQuantity(product.getAvailableQuantity())
                 .minStockLevel(product.getMinStockLevel())
                 .maxStockLevel(product.getMaxStockLevel())
                 .category(product.getCategory())
                 .brand(product.getBrand())
+                .tags(product.getTags())
                 .weight(product.getWeight())
                 .dimensions(product.getDimensions())
                 .isActive(product.getIsActive())
@@ -304,6 +424,50 @@ public class ProductService {
                 .build();
     }
     
+    private ProductResponse mapToProductResponse(ProductListView view) {
+        int reserved = view.getReservedQuantity() != null ? view.getReservedQuantity() : 0;
+        return ProductResponse.builder()
+                .id(view.getId())
+                .name(view.getName())
+                .description(view.getDescription())
+                .sku(view.getSku())
+                .price(view.getPrice())
+                .quantityInStock(view.getQuantityInStock())
+                .reservedQuantity(view.getReservedQuantity())
+                .availableQuantity(view.getQuantityInStock() != null ? view.getQuantityInStock() - reserved : null)
+                .minStockLevel(view.getMinStockLevel())
+                .maxStockLevel(view.getMaxStockLevel())
+                .category(view.getCategory())
+                .brand(view.getBrand())
+                .tags(view.getTags())
+                .weight(view.getWeight())
+                .dimensions(view.getDimensions())
+                .isActive(view.getIsActive())
+                .createdAt(view.getCreatedAt())
+                .updatedAt(view.getUpdatedAt())
+                .createdBy(view.getCreatedBy())
+                .updatedBy(view.getUpdatedBy())
+                .build();
+    }
+    
+    private static final class KeysetSlice {
+        private final List<ProductListView> views;
+        private final boolean hasNext;
+        private final long lastId;
+        
+        private KeysetSlice(List<ProductListView> views, boolean hasNext, long lastId) {
+            this.views = views;
+            this.hasNext = hasNext;
+            this.lastId = lastId;
+        }
+        
+        private static KeysetSlice of(List<ProductListView> rows, long afterId, int limit) {
+            boolean hasNext = rows.size() > limit;
+            List<ProductListView> page = hasNext ? rows.subList(0, limit) : rows;
+            return new KeysetSlice(page, hasNext, page.isEmpty() ? afterId : page.get(page.size() - 1).getId());
+        }
+    }
+    
     // Fallback methods
     public ProductResponse createProductFallback(ProductRequest productRequest, Exception ex) {
         log.error("Product creation failed, using fallback", ex);
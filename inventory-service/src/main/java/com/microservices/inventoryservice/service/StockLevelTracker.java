@@ -0,0 +1,199 @@
+package com.microservices.inventoryservice.service;
+
+import com.microservices.inventoryservice.entity.Product;
+import com.microservices.inventoryservice.repository.ProductRepository;
+import com.microservices.inventoryservice.repository.ProductStockView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Keeps the low-stock and out-of-stock product sets in memory, updated on every stock change
+ * instead of re-scanning the products table. The instance that commits a change compares the
+ * level before and after it and publishes stock.low / stock.out exactly when a threshold is
+ * crossed; other instances only update their sets from the resulting inventory events.
+ */
+@Service
+@Slf4j
+public class StockLevelTracker {
+
+    public enum Level {
+        NORMAL,
+        LOW,
+        OUT,
+        INACTIVE;
+
+        public static Level of(Integer quantity, Integer minStockLevel, Boolean active) {
+            if (!Boolean.TRUE.equals(active) || quantity == null) {
+                return INACTIVE;
+            }
+            if (quantity <= 0) {
+                return OUT;
+            }
+            return quantity <= (minStockLevel != null ? minStockLevel : 0) ? LOW : NORMAL;
+        }
+
+        /** Level of a product as it is right now; take it before changing the entity. */
+        public static Level of(Product product) {
+            return of(product.getQuantityInStock(), product.getMinStockLevel(), product.getIsActive());
+        }
+    }
+
+    private final ProductRepository productRepository;
+    private final InventoryEventPublisher inventoryEventPublisher;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Low stock includes out-of-stock products, matching quantity <= min_stock_level
+    private final ConcurrentSkipListSet<Long> lowStock = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListSet<Long> outOfStock = new ConcurrentSkipListSet<>();
+
+    public StockLevelTracker(ProductRepository productRepository,
+                             InventoryEventPublisher inventoryEventPublisher,
+                             MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.inventoryEventPublisher = inventoryEventPublisher;
+
+        Gauge.builder("inventory.stock.low.products", lowStock, Set::size)
+                .description("Active products at or below their minimum stock level")
+                .tag("service", "inventory-service")
+                .register(meterRegistry);
+        Gauge.builder("inventory.stock.out.products", outOfStock, Set::size)
+                .description("Active products with no stock")
+                .tag("service", "inventory-service")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long startNanos = System.nanoTime();
+        List<ProductStockView> levels = productRepository.findAllStockViews();
+        for (ProductStockView view : levels) {
+            entries.compute(view.getId(), (id, current) -> current != null ? current : update(id,
+                    new Entry(view.getQuantityInStock(), view.getMinStockLevel(), view.getIsActive())));
+        }
+        log.info("Stock level sets loaded for {} products in {} ms ({} low, {} out)", levels.size(),
+                (System.nanoTime() - startNanos) / 1_000_000, lowStock.size(), outOfStock.size());
+    }
+
+    /**
+     * Record a product saved in the current transaction. Once it commits, the sets are updated
+     * and a low or out-of-stock event is published if the change crossed into that level.
+     *
+     * @param before level taken with {@link Level#of(Product)} before the change; null for a new product
+     */
+    public void recordAfterCommit(Level before, Product product) {
+        Level after = Level.of(product);
+        Runnable record = () -> {
+            entries.compute(product.getId(), (id, current) -> update(id,
+                    new Entry(product.getQuantityInStock(), product.getMinStockLevel(), product.getIsActive())));
+            publishCrossing(before != null ? before : Level.NORMAL, after, product);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record.run();
+                }
+            });
+        } else {
+            record.run();
+        }
+    }
+
+    /**
+     * Apply values seen on an inventory event from another instance. Null values keep what is
+     * known; products first seen on an event are only tracked once all three values are known.
+     */
+    public void apply(Long productId, Integer quantity, Integer minStockLevel, Boolean active) {
+        if (productId == null) {
+            return;
+        }
+        entries.compute(productId, (id, current) -> {
+            Integer newQuantity = quantity != null ? quantity : current != null ? current.quantity : null;
+            Integer newMinStockLevel = minStockLevel != null ? minStockLevel : current != null ? current.minStockLevel : null;
+            Boolean newActive = active != null ? active : current != null ? current.active : null;
+            if (newQuantity == null || newMinStockLevel == null || newActive == null) {
+                return current;
+            }
+            return update(id, new Entry(newQuantity, newMinStockLevel, newActive));
+        });
+    }
+
+    /**
+     * Ids of low-stock products above {@code afterId}, ascending, at most {@code limit} of them.
+     * The sets are ordered by id, so this is a keyset page without touching the database.
+     */
+    public List<Long> lowStockIds(long afterId, int limit) {
+        return page(lowStock, afterId, limit);
+    }
+
+    public List<Long> outOfStockIds(long afterId, int limit) {
+        return page(outOfStock, afterId, limit);
+    }
+
+    public long lowStockCount() {
+        return lowStock.size();
+    }
+
+    public long outOfStockCount() {
+        return outOfStock.size();
+    }
+
+    private Entry update(Long productId, Entry entry) {
+        Level level = Level.of(entry.quantity, entry.minStockLevel, entry.active);
+        if (level == Level.LOW || level == Level.OUT) {
+            lowStock.add(productId);
+        } else {
+            lowStock.remove(productId);
+        }
+        if (level == Level.OUT) {
+            outOfStock.add(productId);
+        } else {
+            outOfStock.remove(productId);
+        }
+        return entry;
+    }
+
+    private void publishCrossing(Level before, Level after, Product product) {
+        if (after == Level.OUT && before != Level.OUT) {
+            inventoryEventPublisher.publishOutOfStockEvent(product);
+        } else if (after == Level.LOW && before != Level.LOW && before != Level.OUT) {
+            inventoryEventPublisher.publishLowStockEvent(product);
+        }
+    }
+
+    private static List<Long> page(ConcurrentSkipListSet<Long> ids, long afterId, int limit) {
+        List<Long> page = new ArrayList<>(Math.min(limit, 256));
+        for (Long id : ids.tailSet(afterId, false)) {
+            if (page.size() >= limit) {
+                break;
+            }
+            page.add(id);
+        }
+        return page;
+    }
+
+    private static final class Entry {
+        private final Integer quantity;
+        private final Integer minStockLevel;
+        private final Boolean active;
+
+        private Entry(Integer quantity, Integer minStockLevel, Boolean active) {
+            this.quantity = quantity;
+            this.minStockLevel = minStockLevel;
+            this.active = active;
+        }
+    }
+}
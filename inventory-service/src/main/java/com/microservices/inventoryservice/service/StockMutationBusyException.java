@@ -0,0 +1,11 @@
+package com.microservices.inventoryservice.service;
+
+/**
+ * Thrown when a mutation of a hot product gives up waiting for its turn in the queue.
+ * Nothing was changed, so the request can be retried.
+ */
+public class StockMutationBusyException extends RuntimeException {
+    public StockMutationBusyException(String message) {
+        super(message);
+    }
+}
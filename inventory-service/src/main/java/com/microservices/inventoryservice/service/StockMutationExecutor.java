@@ -0,0 +1,264 @@
+package com.microservices.inventoryservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Runs single-product stock mutations, each attempt in a transaction of its own, and retries
+ * the ones that lose an optimistic lock race on the product row ({@code @Version}) after a
+ * jittered exponential backoff, up to a bounded number of attempts.
+ * <p>
+ * Conflicts are counted per product. A product that conflicts often enough within the window
+ * is marked hot: while it stays hot, this instance queues its mutations behind a fair
+ * per-product lock so they run one after another instead of retrying against each other.
+ * A mutation that waits longer than the queue timeout is rejected with
+ * {@link StockMutationBusyException} rather than run alongside the queue.
+ * It cools down once no conflict has been seen for the cool-down period.
+ */
+@Component
+@Slf4j
+public class StockMutationExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Long, ConflictWindow> windows = new ConcurrentHashMap<>();
+    private final Map<Long, HotKey> hotKeys = new ConcurrentHashMap<>();
+    private final Map<String, Counter> conflictCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> exhaustedCounters = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> attemptSummaries = new ConcurrentHashMap<>();
+    private final Counter queueTimeouts;
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final int hotConflictThreshold;
+    private final long windowNanos;
+    private final long coolDownNanos;
+    private final int maxHotKeys;
+    private final long queueTimeoutMillis;
+
+    public StockMutationExecutor(PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.stock-mutations.max-attempts:5}") int maxAttempts,
+                                 @Value("${app.stock-mutations.initial-backoff-ms:5}") long initialBackoffMillis,
+                                 @Value("${app.stock-mutations.max-backoff-ms:200}") long maxBackoffMillis,
+                                 @Value("${app.stock-mutations.hot-key.conflict-threshold:10}") int hotConflictThreshold,
+                                 @Value("${app.stock-mutations.hot-key.window-ms:10000}") long windowMillis,
+                                 @Value("${app.stock-mutations.hot-key.cool-down-ms:60000}") long coolDownMillis,
+                                 @Value("${app.stock-mutations.hot-key.max-keys:100}") int maxHotKeys,
+                                 @Value("${app.stock-mutations.hot-key.queue-timeout-ms:2000}") long queueTimeoutMillis) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.hotConflictThreshold = hotConflictThreshold;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.coolDownNanos = TimeUnit.MILLISECONDS.toNanos(coolDownMillis);
+        this.maxHotKeys = maxHotKeys;
+        this.queueTimeoutMillis = queueTimeoutMillis;
+
+        this.queueTimeouts = Counter.builder("inventory.stock.mutation.queue.timeouts")
+                .description("Mutations of a hot product rejected after waiting too long in the queue")
+                .tag("service", "inventory-service")
+                .register(meterRegistry);
+        Gauge.builder("inventory.stock.hot.products", hotKeys, Map::size)
+                .description("Products whose stock mutations are currently serialized")
+                .tag("service", "inventory-service")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run {@code mutation} for a product, retrying it on optimistic lock conflicts. The mutation
+     * must be safe to repeat: it re-reads the product on every attempt. When called inside an
+     * existing transaction it runs once, since a conflict has already doomed that transaction.
+     *
+     * @param operation short name used in metrics and logs (update, reserve, ...)
+     * @throws StockMutationBusyException if the product is hot and its queue did not clear in time
+     */
+    public <T> T execute(String operation, Long productId, Supplier<T> mutation) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return mutation.get();
+        }
+        HotKey hotKey = hotKeys.get(productId);
+        if (hotKey == null) {
+            return executeWithRetry(operation, productId, mutation);
+        }
+
+        boolean queued;
+        try {
+            queued = hotKey.lock.tryLock(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting to update product " + productId, e);
+        }
+        if (!queued) {
+            // Running now would only add another writer to the contention the queue exists to avoid
+            queueTimeouts.increment();
+            log.debug("Gave up waiting in the queue for hot product {}", productId);
+            throw new StockMutationBusyException("Product " + productId + " is busy, retry the " + operation);
+        }
+        try {
+            return executeWithRetry(operation, productId, mutation);
+        } finally {
+            hotKey.lock.unlock();
+        }
+    }
+
+    private <T> T executeWithRetry(String operation, Long productId, Supplier<T> mutation) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = transactionTemplate.execute(status -> mutation.get());
+                attempts(operation).record(attempt);
+                return result;
+            } catch (RuntimeException e) {
+                if (!isConflict(e)) {
+                    throw e;
+                }
+                recordConflict(operation, productId);
+                if (attempt >= maxAttempts) {
+                    attempts(operation).record(attempt);
+                    counter(exhaustedCounters, "inventory.stock.mutation.exhausted", operation,
+                            "Stock mutations that still conflicted after the last attempt").increment();
+                    log.warn("Giving up on {} for product {} after {} conflicting attempts", operation, productId, attempt);
+                    throw e;
+                }
+                log.debug("Optimistic lock conflict on {} for product {}, attempt {}", operation, productId, attempt);
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        // Full jitter: uniform over [0, min(max, initial * 2^(attempt - 1))]
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        long sleepMillis = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        if (sleepMillis == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(sleepMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while retrying a stock update", e);
+        }
+    }
+
+    private void recordConflict(String operation, Long productId) {
+        counter(conflictCounters, "inventory.stock.mutation.conflicts", operation,
+                "Optimistic lock conflicts on product rows").increment();
+
+        long now = System.nanoTime();
+        ConflictWindow window = windows.compute(productId, (id, current) ->
+                current == null || now - current.startNanos > windowNanos
+                        ? new ConflictWindow(now, 1)
+                        : new ConflictWindow(current.startNanos, current.count + 1));
+
+        HotKey hotKey = hotKeys.get(productId);
+        if (hotKey != null) {
+            hotKey.lastConflictNanos = now;
+            hotKey.conflicts.increment();
+            return;
+        }
+        if (window.count < hotConflictThreshold) {
+            return;
+        }
+        // Promotions are rare; serializing them keeps the size check exact across products
+        synchronized (hotKeys) {
+            hotKeys.computeIfAbsent(productId, id -> {
+                if (hotKeys.size() >= maxHotKeys) {
+                    log.debug("Hot product limit {} reached, not serializing product {}", maxHotKeys, id);
+                    return null;
+                }
+                log.warn("Product {} is hot ({} conflicts in {} ms); serializing its stock mutations",
+                        id, window.count, TimeUnit.NANOSECONDS.toMillis(now - window.startNanos));
+                return new HotKey(now, Counter.builder("inventory.stock.hot.conflicts")
+                        .description("Optimistic lock conflicts on a product while it is hot")
+                        .tag("service", "inventory-service")
+                        .tag("product", String.valueOf(id))
+                        .register(meterRegistry));
+            });
+        }
+    }
+
+    /** Drop expired conflict windows and cool down hot products that have been quiet. */
+    @Scheduled(fixedDelayString = "${app.stock-mutations.hot-key.sweep-interval-ms:5000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        windows.values().removeIf(window -> now - window.startNanos > windowNanos);
+        hotKeys.entrySet().removeIf(entry -> {
+            if (now - entry.getValue().lastConflictNanos <= coolDownNanos) {
+                return false;
+            }
+            meterRegistry.remove(entry.getValue().conflicts);
+            log.info("Product {} cooled down; stock mutations no longer serialized", entry.getKey());
+            return true;
+        });
+    }
+
+    private static boolean isConflict(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockingFailureException || cause instanceof OptimisticLockException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Counter counter(Map<String, Counter> counters, String name, String operation, String description) {
+        return counters.computeIfAbsent(operation, op -> Counter.builder(name)
+                .description(description)
+                .tag("service", "inventory-service")
+                .tag("operation", op)
+                .register(meterRegistry));
+    }
+
+    private DistributionSummary attempts(String operation) {
+        return attemptSummaries.computeIfAbsent(operation, op -> DistributionSummary.builder("inventory.stock.mutation.attempts")
+                .description("Attempts taken per stock mutation")
+                .tag("service", "inventory-service")
+                .tag("operation", op)
+                .register(meterRegistry));
+    }
+
+    private static final class ConflictWindow {
+        private final long startNanos;
+        private final int count;
+
+        private ConflictWindow(long startNanos, int count) {
+            this.startNanos = startNanos;
+            this.count = count;
+        }
+    }
+
+    private static final class HotKey {
+        // Fair, so queued mutations run in arrival order
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private final Counter conflicts;
+        private volatile long lastConflictNanos;
+
+        private HotKey(long lastConflictNanos, Counter conflicts) {
+            this.lastConflictNanos = lastConflictNanos;
+            this.conflicts = conflicts;
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.microservices.inventoryservice.service;
+
+import com.microservices.inventoryservice.entity.InventoryTransaction;
+import com.microservices.inventoryservice.entity.Product;
+import com.microservices.inventoryservice.entity.StockReservation;
+import com.microservices.inventoryservice.event.StockEvent;
+import com.microservices.inventoryservice.repository.ProductRepository;
+import com.microservices.inventoryservice.repository.StockReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Soft reservations: a hold raises {@code products.reserved_quantity} and records a
+ * {@link StockReservation} with an expiry, without touching on-hand stock. Confirming a hold
+ * turns it into a stock-out; releasing it or letting it expire gives the units back.
+ * Each operation is one short transaction (one product row, one hold row). The product is
+ * flushed before events are published, so a version conflict aborts the attempt first and
+ * {@link StockMutationExecutor} can retry it cleanly.
+ */
+@Service
+@Slf4j
+public class StockReservationService {
+
+    private static final String PRODUCT_HOLDS_SQL =
+            "UPDATE products SET reserved_quantity = reserved_quantity - ?, version = version + 1 WHERE id = ?";
+
+    private final StockReservationRepository reservationRepository;
+    private final ProductRepository productRepository;
+    private final InventoryTransactionService inventoryTransactionService;
+    private final InventoryEventPublisher inventoryEventPublisher;
+    private final AvailabilityCache availabilityCache;
+    private final StockLevelTracker stockLevelTracker;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate reaperTransaction;
+
+    private final Counter held;
+    private final Counter confirmed;
+    private final Counter released;
+    private final Counter expired;
+
+    @Value("${app.reservations.default-ttl-seconds:900}")
+    private long defaultTtlSeconds;
+
+    @Value("${app.reservations.max-ttl-seconds:86400}")
+    private long maxTtlSeconds;
+
+    @Value("${app.reservations.reaper.batch-size:500}")
+    private int reaperBatchSize;
+
+    @Value("${app.reservations.reaper.max-batches:100}")
+    private int reaperMaxBatches;
+
+    public StockReservationService(StockReservationRepository reservationRepository,
+                                   ProductRepository productRepository,
+                                   InventoryTransactionService inventoryTransactionService,
+                                   InventoryEventPublisher inventoryEventPublisher,
+                                   AvailabilityCache availabilityCache,
+                                   StockLevelTracker stockLevelTracker,
+                                   JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        this.reservationRepository = reservationRepository;
+        this.productRepository = productRepository;
+        this.inventoryTransactionService = inventoryTransactionService;
+        this.inventoryEventPublisher = inventoryEventPublisher;
+        this.availabilityCache = availabilityCache;
+        this.stockLevelTracker = stockLevelTracker;
+        this.jdbcTemplate = jdbcTemplate;
+        this.reaperTransaction = new TransactionTemplate(transactionManager);
+        this.reaperTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.held = reservationCounter(meterRegistry, "held");
+        this.confirmed = reservationCounter(meterRegistry, "confirmed");
+        this.released = reservationCounter(meterRegistry, "released");
+        this.expired = reservationCounter(meterRegistry, "expired");
+    }
+
+    /**
+     * Hold {@code quantity} units for a reference. Calling again for the same reference
+     * resizes the existing hold and restarts its expiry instead of adding a second one.
+     *
+     * @param ttlSeconds hold lifetime; null uses the configured default
+     */
+    @Transactional
+    public Product reserve(Long productId, Integer quantity, String referenceId, String referenceType, Long ttlSeconds) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+
+        if (!product.getIsActive()) {
+            throw new RuntimeException("Product is not active");
+        }
+
+        StockReservation reservation = reservationRepository
+                .findByReferenceForUpdate(productId, referenceId, referenceType, StockReservation.Status.ACTIVE)
+                .orElse(null);
+        int additional = reservation != null ? quantity - reservation.getQuantity() : quantity;
+        if (additional > product.getAvailableQuantity()) {
+            throw new RuntimeException("Insufficient stock available");
+        }
+
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(resolveTtl(ttlSeconds));
+        if (reservation == null) {
+            reservation = StockReservation.builder()
+                    .productId(productId)
+                    .quantity(quantity)
+                    .referenceId(referenceId)
+                    .referenceType(referenceType)
+                    .status(StockReservation.Status.ACTIVE)
+                    .expiresAt(expiresAt)
+                    .build();
+        } else {
+            reservation.setQuantity(quantity);
+            reservation.setExpiresAt(expiresAt);
+        }
+        reservationRepository.save(reservation);
+
+        product.setReservedQuantity(product.getReservedQuantity() + additional);
+        Product savedProduct = productRepository.saveAndFlush(product);
+        availabilityCache.refreshAfterCommit(savedProduct);
+        stockLevelTracker.recordAfterCommit(StockLevelTracker.Level.of(savedProduct), savedProduct);
+        held.increment();
+
+        inventoryEventPublisher.publishReservationEvent(StockEvent.STOCK_RESERVED, savedProduct, quantity,
+                referenceId, referenceType);
+        return savedProduct;
+    }
+
+    /**
+     * Turn the active hold for a reference into a stock-out.
+     */
+    @Transactional
+    public Product confirm(Long productId, String referenceId, String referenceType) {
+        StockReservation reservation = reservationRepository
+                .findByReferenceForUpdate(productId, referenceId, referenceType, StockReservation.Status.ACTIVE)
+                .orElseThrow(() -> new RuntimeException("No active reservation for " + referenceType + ": " + referenceId));
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+
+        int quantity = reservation.getQuantity();
+        // Recorded against the pre-change level, like every other ledger entry
+        inventoryTransactionService.createTransaction(
+                product,
+                InventoryTransaction.TransactionType.OUT,
+                quantity,
+                "Stock reserved for " + referenceType + ": " + referenceId,
+                "SYSTEM",
+                referenceId,
+                referenceType
+        );
+
+        StockLevelTracker.Level levelBefore = StockLevelTracker.Level.of(product);
+        product.setQuantityInStock(product.getQuantityInStock() - quantity);
+        product.setReservedQuantity(product.getReservedQuantity() - quantity);
+        Product savedProduct = productRepository.saveAndFlush(product);
+        stockLevelTracker.recordAfterCommit(levelBefore, savedProduct);
+
+        reservation.setStatus(StockReservation.Status.CONFIRMED);
+        reservation.setResolvedAt(LocalDateTime.now());
+        reservationRepository.save(reservation);
+
+        availabilityCache.refreshAfterCommit(savedProduct);
+        confirmed.increment();
+        inventoryEventPublisher.publishStockCommittedEvent(savedProduct, quantity, referenceId, referenceType);
+        return savedProduct;
+    }
+
+    /**
+     * Give back up to {@code quantity} units for a reference. An active hold is shrunk or
+     * released; a confirmed hold, or stock taken before holds existed, is returned to stock.
+     * Releasing an expired or already released hold changes nothing.
+     */
+    @Transactional
+    public Product release(Long productId, Integer quantity, String referenceId, String referenceType) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+
+        StockReservation active = reservationRepository
+                .findByReferenceForUpdate(productId, referenceId, referenceType, StockReservation.Status.ACTIVE)
+                .orElse(null);
+        if (active != null) {
+            int releasedQuantity = Math.min(quantity, active.getQuantity());
+            if (releasedQuantity == active.getQuantity()) {
+                active.setStatus(StockReservation.Status.RELEASED);
+                active.setResolvedAt(LocalDateTime.now());
+            } else {
+                active.setQuantity(active.getQuantity() - releasedQuantity);
+            }
+            reservationRepository.save(active);
+
+            product.setReservedQuantity(product.getReservedQuantity() - releasedQuantity);
+            Product savedProduct = productRepository.saveAndFlush(product);
+            availabilityCache.refreshAfterCommit(savedProduct);
+            stockLevelTracker.recordAfterCommit(StockLevelTracker.Level.of(savedProduct), savedProduct);
+            released.increment();
+            inventoryEventPublisher.publishReservationEvent(StockEvent.STOCK_RELEASED, savedProduct, releasedQuantity,
+                    referenceId, referenceType);
+            return savedProduct;
+        }
+
+        List<StockReservation> history = reservationRepository
+                .findByProductIdAndReferenceIdAndReferenceType(productId, referenceId, referenceType);
+        boolean stockTaken = history.isEmpty()
+                || history.stream().anyMatch(r -> r.getStatus() == StockReservation.Status.CONFIRMED);
+        if (!stockTaken) {
+            log.info("Nothing to release for product: {} {}: {}", productId, referenceType, referenceId);
+            return product;
+        }
+
+        inventoryTransactionService.createTransaction(
+                product,
+                InventoryTransaction.TransactionType.RETURN,
+                quantity,
+                "Stock released from " + referenceType + ": " + referenceId,
+                "SYSTEM",
+                referenceId,
+                referenceType
+        );
+        StockLevelTracker.Level levelBefore = StockLevelTracker.Level.of(product);
+        product.setQuantityInStock(product.getQuantityInStock() + quantity);
+        Product savedProduct = productRepository.saveAndFlush(product);
+        availabilityCache.refreshAfterCommit(savedProduct);
+        stockLevelTracker.recordAfterCommit(levelBefore, savedProduct);
+        released.increment();
+        inventoryEventPublisher.publishStockReleasedEvent(savedProduct, quantity, referenceId, referenceType);
+        return savedProduct;
+    }
+
+    /**
+     * Expire due holds in bounded batches. Each batch commits on its own and returns the held
+     * units to the products with one batched UPDATE.
+     */
+    @Scheduled(fixedDelayString = "${app.reservations.reaper.interval-ms:15000}")
+    public void expireDueReservations() {
+        int total = 0;
+        for (int batch = 0; batch < reaperMaxBatches; batch++) {
+            Integer count = reaperTransaction.execute(status -> expireBatch(LocalDateTime.now()));
+            int expiredInBatch = count != null ? count : 0;
+            total += expiredInBatch;
+            if (expiredInBatch < reaperBatchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Expired {} stock reservations", total);
+        }
+    }
+
+    private int expireBatch(LocalDateTime now) {
+        List<StockReservation> due = reservationRepository.findDueForUpdate(
+                StockReservation.Status.ACTIVE, now, PageRequest.of(0, reaperBatchSize));
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = due.stream().map(StockReservation::getId).collect(Collectors.toList());
+        reservationRepository.resolveAll(ids, StockReservation.Status.EXPIRED, now);
+
+        // Sorted by product id so concurrent batches lock product rows in the same order
+        Map<Long, Integer> heldByProduct = due.stream().collect(Collectors.groupingBy(
+                StockReservation::getProductId, TreeMap::new, Collectors.summingInt(StockReservation::getQuantity)));
+        List<Object[]> productUpdates = new ArrayList<>(heldByProduct.size());
+        heldByProduct.forEach((productId, quantity) -> productUpdates.add(new Object[]{quantity, productId}));
+        jdbcTemplate.batchUpdate(PRODUCT_HOLDS_SQL, productUpdates);
+
+        for (Product product : productRepository.findAllById(heldByProduct.keySet())) {
+            availabilityCache.refreshAfterCommit(product);
+            stockLevelTracker.recordAfterCommit(StockLevelTracker.Level.of(product), product);
+            inventoryEventPublisher.publishReservationEvent(StockEvent.STOCK_EXPIRED, product,
+                    heldByProduct.get(product.getId()), null, null);
+        }
+        expired.increment(due.size());
+        return due.size();
+    }
+
+    private long resolveTtl(Long ttlSeconds) {
+        if (ttlSeconds == null || ttlSeconds <= 0) {
+            return defaultTtlSeconds;
+        }
+        return Math.min(ttlSeconds, maxTtlSeconds);
+    }
+
+    private static Counter reservationCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("inventory.reservations")
+                .description("Stock reservation holds by outcome")
+                .tag("service", "inventory-service")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
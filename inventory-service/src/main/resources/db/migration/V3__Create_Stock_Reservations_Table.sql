@@ -0,0 +1,28 @@
+-- Migration to add soft reservations
+-- Holds reduce available stock until they are confirmed, released or expire
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS reserved_quantity INTEGER NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS stock_reservations (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    quantity INTEGER NOT NULL,
+    reference_id VARCHAR(100) NOT NULL,
+    reference_type VARCHAR(50) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    resolved_at TIMESTAMP
+);
+
+-- The reaper scans active holds by expiry; the partial index keeps that scan small
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_status_expires_at
+    ON stock_reservations(status, expires_at);
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_active_expires_at
+    ON stock_reservations(expires_at) WHERE status = 'ACTIVE';
+CREATE INDEX IF NOT EXISTS idx_stock_reservations_reference
+    ON stock_reservations(product_id, reference_id, reference_type);
+
+COMMENT ON TABLE stock_reservations IS 'Time-limited stock holds for orders and carts';
+COMMENT ON COLUMN stock_reservations.status IS 'ACTIVE, CONFIRMED, RELEASED or EXPIRED';
+COMMENT ON COLUMN products.reserved_quantity IS 'Sum of active holds; available = quantity_in_stock - reserved_quantity';
@@ -0,0 +1,10 @@
+-- Migration to switch inventory_transactions ids to a pooled sequence
+-- Hibernate cannot batch inserts into IDENTITY columns; the entity now allocates ids 50 at a time
+
+CREATE SEQUENCE IF NOT EXISTS inventory_transactions_seq INCREMENT BY 50;
+
+-- Hibernate's pooled optimizer treats each nextval as the top of a 50-id block and hands out
+-- the 49 ids below it, so the first value must clear the existing ids by a whole block
+SELECT setval('inventory_transactions_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM inventory_transactions), false);
+
+ALTER TABLE inventory_transactions ALTER COLUMN id SET DEFAULT nextval('inventory_transactions_seq');
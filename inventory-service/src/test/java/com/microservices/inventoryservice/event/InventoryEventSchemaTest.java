@@ -0,0 +1,122 @@
+package com.microservices.inventoryservice.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the inventory-events wire format. Consumers depend on these field names,
+ * so a failure here means a breaking schema change.
+ */
+class InventoryEventSchemaTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final InventoryEventCodec codec = new InventoryEventCodec(objectMapper);
+
+    @Test
+    void productEventJsonKeepsPublishedFieldNames() throws Exception {
+        JsonNode json = objectMapper.readTree(codec.toJson(productEvent()));
+
+        assertThat(json.fieldNames()).toIterable().containsExactlyInAnyOrder(
+                "eventId", "eventType", "occurredAt", "productId", "sku", "name", "category",
+                "description", "brand", "tags", "price", "status", "active", "quantityInStock",
+                "minStockLevel", "availableQuantity", "version");
+        assertThat(json.get("occurredAt").isTextual()).isTrue();
+    }
+
+    @Test
+    void stockEventJsonKeepsPublishedFieldNames() throws Exception {
+        JsonNode json = objectMapper.readTree(codec.toJson(stockEvent()));
+
+        assertThat(json.fieldNames()).toIterable().containsExactlyInAnyOrder(
+                "eventId", "eventType", "occurredAt", "productId", "sku", "previousQuantity",
+                "newQuantity", "delta", "referenceId", "referenceType", "availableQuantity", "version");
+    }
+
+    @Test
+    void readerIgnoresFieldsAddedByNewerProducers() {
+        String json = "{\"eventType\":\"stock.updated\",\"productId\":7,\"sku\":\"SKU-7\","
+                + "\"delta\":-2,\"warehouseId\":\"EU-1\"}";
+
+        StockEvent event = codec.fromJson(json, StockEvent.class);
+
+        assertThat(event.getProductId()).isEqualTo(7L);
+        assertThat(event.getDelta()).isEqualTo(-2);
+    }
+
+    @Test
+    void jsonRoundTripPreservesEvent() {
+        ProductEvent event = productEvent();
+
+        assertThat(codec.fromJson(codec.toJson(event), ProductEvent.class)).isEqualTo(event);
+    }
+
+    @Test
+    void protobufRoundTripPreservesEvents() {
+        ProductEvent product = productEvent();
+        StockEvent stock = stockEvent();
+
+        assertThat(codec.productFromProtobuf(codec.toProtobuf(product))).isEqualTo(product);
+        assertThat(codec.stockFromProtobuf(codec.toProtobuf(stock))).isEqualTo(stock);
+    }
+
+    @Test
+    void protobufKeepsUnsetOptionalFieldsNull() {
+        StockEvent stock = stockEvent();
+        stock.setPreviousQuantity(null);
+        stock.setDelta(null);
+        stock.setVersion(null);
+
+        StockEvent decoded = codec.stockFromProtobuf(codec.toProtobuf(stock));
+
+        assertThat(decoded.getPreviousQuantity()).isNull();
+        assertThat(decoded.getDelta()).isNull();
+        assertThat(decoded.getVersion()).isNull();
+        assertThat(decoded.getNewQuantity()).isEqualTo(stock.getNewQuantity());
+    }
+
+    private ProductEvent productEvent() {
+        return ProductEvent.builder()
+                .eventId("4a1f0f55-1c1e-4b7b-9a7e-3f5a2c9d0e11")
+                .eventType(ProductEvent.PRODUCT_UPDATED)
+                .occurredAt(LocalDateTime.of(2025, 1, 15, 10, 30, 0))
+                .productId(42L)
+                .sku("SKU-42")
+                .name("Keyboard")
+                .category("Electronics")
+                .description("Mechanical keyboard with hot-swap switches")
+                .brand("Keychron")
+                .tags("keyboard,mechanical,wireless")
+                .price(new BigDecimal("49.90"))
+                .status("ACTIVE")
+                .active(true)
+                .quantityInStock(12)
+                .minStockLevel(5)
+                .availableQuantity(9)
+                .version(3L)
+                .build();
+    }
+
+    private StockEvent stockEvent() {
+        return StockEvent.builder()
+                .eventId("b3d2c1a0-0000-4000-8000-000000000001")
+                .eventType(StockEvent.STOCK_RESERVED)
+                .occurredAt(LocalDateTime.of(2025, 1, 15, 10, 31, 5))
+                .productId(42L)
+                .sku("SKU-42")
+                .previousQuantity(12)
+                .newQuantity(10)
+                .delta(-2)
+                .referenceId("ORD-1001")
+                .referenceType("ORDER")
+                .availableQuantity(7)
+                .version(4L)
+                .build();
+    }
+}
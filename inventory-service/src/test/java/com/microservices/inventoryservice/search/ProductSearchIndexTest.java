@@ -0,0 +1,115 @@
+package com.microservices.inventoryservice.search;
+
+import com.microservices.inventoryservice.event.ProductEvent;
+import com.microservices.inventoryservice.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Matching, ranking, facets, paging and event ordering of the in-process product index.
+ */
+class ProductSearchIndexTest {
+
+    private final ProductSearchIndex index = new ProductSearchIndex(mock(ProductRepository.class), new SimpleMeterRegistry());
+
+    @Test
+    void everyTermMustMatchAndOnlyTheLastIsAPrefix() {
+        index.index(product(1L, "Wireless Mouse").build());
+        index.index(product(2L, "Wireless Keyboard").build());
+        index.index(product(3L, "USB Mouse Pad").build());
+
+        assertThat(ids(search("wireless"))).containsExactly(1L, 2L);
+        assertThat(ids(search("wireless mou"))).containsExactly(1L);
+        assertThat(ids(search("keyboard wire"))).containsExactly(2L);
+        assertThat(ids(search("wire mouse"))).isEmpty();
+    }
+
+    @Test
+    void matchesRankByTheFieldTheTermIsIn() {
+        index.index(product(10L, "Oak Shelf").build());
+        index.index(product(11L, "Bookcase").description("Solid oak").build());
+        index.index(product(12L, "Side table").category("Oak").build());
+
+        assertThat(ids(search("oak"))).containsExactly(10L, 12L, 11L);
+    }
+
+    @Test
+    void facetsIgnoreTheirOwnFilter() {
+        index.index(product(1L, "Headphones").category("Audio").brand("Acme").price(BigDecimal.valueOf(20)).build());
+        index.index(product(2L, "Speaker").category("Audio").brand("Bolt").price(BigDecimal.valueOf(60)).build());
+        index.index(product(3L, "Monitor").category("Video").brand("Acme").price(BigDecimal.valueOf(300)).build());
+
+        SearchResult result = index.search(SearchQuery.builder().category("audio").size(10).build());
+
+        assertThat(ids(result)).containsExactly(1L, 2L);
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(result.getFacets().get("category")).isEqualTo(Map.of("Audio", 2L, "Video", 1L));
+        assertThat(result.getFacets().get("brand")).isEqualTo(Map.of("Acme", 1L, "Bolt", 1L));
+        assertThat(result.getFacets().get("price")).isEqualTo(Map.of("0-25", 1L, "50-100", 1L));
+    }
+
+    @Test
+    void cursorPagesThroughEqualScoresInIdOrder() {
+        for (long id : new long[]{5, 3, 1, 4, 2}) {
+            index.index(product(id, "Desk lamp").build());
+        }
+
+        SearchResult first = index.search(query("lamp", null));
+        SearchResult second = index.search(query("lamp", first.getNextCursor()));
+        SearchResult third = index.search(query("lamp", second.getNextCursor()));
+
+        assertThat(ids(first)).containsExactly(1L, 2L);
+        assertThat(ids(second)).containsExactly(3L, 4L);
+        assertThat(ids(third)).containsExactly(5L);
+        assertThat(third.getNextCursor()).isNull();
+        assertThat(first.getTotal()).isEqualTo(5);
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThatThrownBy(() -> index.search(query("lamp", "not a cursor!")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void olderEventsDoNotReplaceANewerDocument() {
+        index.index(product(1L, "Renamed lamp").version(3L).build());
+        index.index(product(1L, "Original lamp").version(2L).build());
+        index.index(product(1L, "Unversioned lamp").build());
+
+        assertThat(ids(search("renamed"))).containsExactly(1L);
+        assertThat(ids(search("original"))).isEmpty();
+        assertThat(ids(search("unversioned"))).isEmpty();
+
+        index.index(product(1L, "Current lamp").version(4L).build());
+
+        assertThat(ids(search("current"))).containsExactly(1L);
+        assertThat(ids(search("renamed"))).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    private SearchResult search(String text) {
+        return index.search(SearchQuery.builder().text(text).size(10).build());
+    }
+
+    private static SearchQuery query(String text, String cursor) {
+        return SearchQuery.builder().text(text).cursor(cursor).size(2).build();
+    }
+
+    private static ProductEvent.ProductEventBuilder product(Long id, String name) {
+        return ProductEvent.builder().productId(id).sku("SKU-" + id).name(name).active(true);
+    }
+
+    private static List<Long> ids(SearchResult result) {
+        return result.getHits().stream().map(hit -> hit.getDocument().getId()).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,107 @@
+package com.microservices.inventoryservice.service;
+
+import com.microservices.inventoryservice.dto.BulkStockImportSummary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 100k-row bulk stock import against H2 and an embedded broker, next to the same kind of
+ * update made one product at a time through {@link ProductService#updateStock}.
+ * Opt-in because it is slow: {@code mvn -pl inventory-service test -Dinventory.benchmark=true}
+ */
+@EnabledIfSystemProperty(named = "inventory.benchmark", matches = "true")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "internal.api.key=benchmark",
+        "logging.level.com.microservices.inventoryservice=WARN"
+})
+@ActiveProfiles("dev")
+@EmbeddedKafka(partitions = 1, topics = "inventory-events", bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class BulkStockImportBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkStockImportBenchmarkTest.class);
+    private static final int ROWS = 100_000;
+    private static final int SINGLE_UPDATES = 2_000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void importHundredThousandRows() throws Exception {
+        seedProducts(ROWS);
+        byte[] upload = csv(ROWS);
+
+        AtomicLong streamed = new AtomicLong();
+        long start = System.nanoTime();
+        BulkStockImportSummary summary = productService.importStock(new ByteArrayInputStream(upload),
+                BulkStockImportService.Format.CSV, "benchmark", results -> streamed.addAndGet(results.size()));
+        double bulkSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        assertThat(summary.getUpdated()).isEqualTo(ROWS);
+        assertThat(streamed.get()).isEqualTo(ROWS);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM inventory_transactions WHERE reference_id = ?", Long.class, summary.getImportId()))
+                .isEqualTo(ROWS);
+
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM products ORDER BY id LIMIT ?", Long.class, SINGLE_UPDATES);
+        start = System.nanoTime();
+        for (Long id : ids) {
+            productService.updateStock(id, 7, "benchmark", "benchmark");
+        }
+        double singleSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        log.warn("Bulk import: {} rows in {} s ({} rows/s); one product at a time: {} rows/s",
+                ROWS,
+                String.format("%.1f", bulkSeconds),
+                String.format("%.0f", ROWS / bulkSeconds),
+                String.format("%.0f", SINGLE_UPDATES / singleSeconds));
+    }
+
+    private void seedProducts(int count) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{"Benchmark product " + i, sku(i), 10, now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (name, sku, price, quantity_in_stock, reserved_quantity, "
+                + "min_stock_level, status, is_active, is_featured, reorder_point, total_sold, version, "
+                + "created_at, updated_at) VALUES (?, ?, ?, 100, 0, 5, 'ACTIVE', TRUE, FALSE, 0, 0, 0, ?, ?)", rows);
+    }
+
+    private static byte[] csv(int count) {
+        StringBuilder csv = new StringBuilder("sku,quantity,mode,reason\n");
+        for (int i = 0; i < count; i++) {
+            // A mix of absolute counts and deltas, all of which change the stock
+            if (i % 2 == 0) {
+                csv.append(sku(i)).append(',').append(200 + i % 50).append(",SET,cycle count\n");
+            } else {
+                csv.append(sku(i)).append(",-").append(1 + i % 20).append(",ADJUST,damaged\n");
+            }
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String sku(int i) {
+        return String.format("BENCH-%06d", i);
+    }
+}
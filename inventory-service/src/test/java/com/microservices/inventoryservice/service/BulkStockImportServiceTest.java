@@ -0,0 +1,89 @@
+package com.microservices.inventoryservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.inventoryservice.dto.BulkStockImportSummary;
+import com.microservices.inventoryservice.dto.BulkStockRowResult;
+import com.microservices.inventoryservice.entity.Product;
+import com.microservices.inventoryservice.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Row outcomes of a bulk stock import, against a mocked repository and a stub transaction manager.
+ */
+class BulkStockImportServiceTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final InventoryTransactionService inventoryTransactionService = mock(InventoryTransactionService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final BulkStockImportService service = new BulkStockImportService(
+            productRepository,
+            inventoryTransactionService,
+            mock(InventoryEventPublisher.class),
+            mock(AvailabilityCache.class),
+            mock(StockLevelTracker.class),
+            new ObjectMapper(),
+            transactionManager,
+            new SimpleMeterRegistry());
+
+    BulkStockImportServiceTest() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        ReflectionTestUtils.setField(service, "chunkSize", 100);
+    }
+
+    @Test
+    void rowsThatWouldDropBelowReservedStockAreInvalid() throws Exception {
+        Product product = product("SKU-1", 10, 5);
+        when(productRepository.findBySkuIn(any())).thenReturn(List.of(product));
+
+        List<BulkStockRowResult> results = new ArrayList<>();
+        BulkStockImportSummary summary = service.importStock(csv(
+                "sku,quantity,mode",
+                "SKU-1,3,SET",
+                "SKU-1,-8,ADJUST",
+                "SKU-1,5,SET"), BulkStockImportService.Format.CSV, "tester", results::addAll);
+
+        assertThat(results).extracting(BulkStockRowResult::getStatus).containsExactly(
+                BulkStockRowResult.Status.INVALID,
+                BulkStockRowResult.Status.INVALID,
+                BulkStockRowResult.Status.UPDATED);
+        assertThat(results.get(0).getError()).contains("5 units held by reservations");
+        assertThat(summary.getInvalid()).isEqualTo(2);
+        assertThat(product.getQuantityInStock()).isEqualTo(5);
+        verify(inventoryTransactionService, times(1))
+                .createTransaction(any(), any(), anyInt(), anyString(), any(), any(), any());
+    }
+
+    private static Product product(String sku, int quantity, int reserved) {
+        Product product = Product.builder()
+                .sku(sku)
+                .quantityInStock(quantity)
+                .minStockLevel(1)
+                .isActive(true)
+                .build();
+        product.setId(1L);
+        product.setReservedQuantity(reserved);
+        return product;
+    }
+
+    private static ByteArrayInputStream csv(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
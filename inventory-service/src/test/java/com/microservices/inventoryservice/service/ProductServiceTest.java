@@ -0,0 +1,191 @@
+package com.microservices.inventoryservice.service;
+
+import com.microservices.inventoryservice.dto.ProductPage;
+import com.microservices.inventoryservice.dto.ProductResponse;
+import com.microservices.inventoryservice.entity.Product;
+import com.microservices.inventoryservice.repository.ProductListView;
+import com.microservices.inventoryservice.repository.ProductRepository;
+import com.microservices.inventoryservice.search.ProductSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Keyset paging and export of the product lists, and stock updates, against a mocked repository and tracker.
+ */
+class ProductServiceTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final StockLevelTracker stockLevelTracker = mock(StockLevelTracker.class);
+    private final StockMutationExecutor stockMutationExecutor = mock(StockMutationExecutor.class);
+    private final ProductService productService = new ProductService(
+            productRepository,
+            mock(InventoryTransactionService.class),
+            mock(InventoryEventPublisher.class),
+            mock(AvailabilityCache.class),
+            mock(StockReservationService.class),
+            mock(ProductSearchIndex.class),
+            stockLevelTracker,
+            mock(BulkStockImportService.class),
+            stockMutationExecutor);
+
+    @Test
+    void firstPageCarriesTotalAndCursorToTheNextPage() {
+        when(productRepository.findListViewsAfter(0L, PageRequest.of(0, 3))).thenReturn(views(1, 2, 3));
+        when(productRepository.count()).thenReturn(3L);
+
+        ProductPage first = productService.getProducts(ProductService.Listing.ALL, null, 2);
+
+        assertThat(ids(first)).containsExactly(1L, 2L);
+        assertThat(first.getSize()).isEqualTo(2);
+        assertThat(first.getTotalElements()).isEqualTo(3L);
+        assertThat(first.getNextCursor()).isNotNull();
+
+        when(productRepository.findListViewsAfter(2L, PageRequest.of(0, 3))).thenReturn(views(3));
+
+        ProductPage second = productService.getProducts(ProductService.Listing.ALL, first.getNextCursor(), 2);
+
+        assertThat(ids(second)).containsExactly(3L);
+        assertThat(second.getNextCursor()).isNull();
+        assertThat(second.getTotalElements()).isNull();
+    }
+
+    @Test
+    void pageSizeIsClamped() {
+        when(productRepository.findActiveListViewsAfter(anyLong(), any())).thenReturn(List.of());
+
+        productService.getProducts(ProductService.Listing.ACTIVE, null, 10_000);
+        productService.getProducts(ProductService.Listing.ACTIVE, null, 0);
+
+        verify(productRepository).findActiveListViewsAfter(0L, PageRequest.of(0, 201));
+        verify(productRepository).findActiveListViewsAfter(0L, PageRequest.of(0, 2));
+    }
+
+    @Test
+    void lowStockPagesFollowTrackerIdsEvenWhenARowIsGone() {
+        when(stockLevelTracker.lowStockIds(0L, 3)).thenReturn(List.of(4L, 9L, 12L));
+        // Product 9 was deleted after the tracker listed it
+        when(productRepository.findListViewsByIdIn(List.of(4L, 9L))).thenReturn(views(4));
+        when(stockLevelTracker.lowStockCount()).thenReturn(3L);
+
+        ProductPage first = productService.getProducts(ProductService.Listing.LOW_STOCK, null, 2);
+
+        assertThat(ids(first)).containsExactly(4L);
+        assertThat(first.getTotalElements()).isEqualTo(3L);
+
+        when(stockLevelTracker.lowStockIds(9L, 3)).thenReturn(List.of(12L));
+        when(productRepository.findListViewsByIdIn(List.of(12L))).thenReturn(views(12));
+
+        ProductPage second = productService.getProducts(ProductService.Listing.LOW_STOCK, first.getNextCursor(), 2);
+
+        assertThat(ids(second)).containsExactly(12L);
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void emptyIdPageDoesNotQueryTheDatabase() {
+        when(stockLevelTracker.outOfStockIds(0L, 51)).thenReturn(List.of());
+
+        ProductPage page = productService.getProducts(ProductService.Listing.OUT_OF_STOCK, null, 50);
+
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.getNextCursor()).isNull();
+        verify(productRepository, never()).findListViewsByIdIn(any());
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThatThrownBy(() -> productService.getProducts(ProductService.Listing.ALL, "not a cursor!", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> productService.getProducts(ProductService.Listing.ALL, cursor("abc"), 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> productService.getProducts(ProductService.Listing.ALL, cursor("-5"), 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(productRepository, never()).findListViewsAfter(anyLong(), any());
+    }
+
+    @Test
+    void emptyCursorStartsFromTheBeginning() {
+        when(productRepository.findListViewsAfter(anyLong(), any())).thenReturn(List.of());
+
+        productService.getProducts(ProductService.Listing.ALL, "", 10);
+
+        verify(productRepository).findListViewsAfter(0L, PageRequest.of(0, 11));
+    }
+
+    @Test
+    void exportWalksEveryPageInChunks() {
+        when(productRepository.findListViewsAfter(0L, PageRequest.of(0, 1001)))
+                .thenReturn(views(LongStream.rangeClosed(1, 1001).toArray()));
+        when(productRepository.findListViewsAfter(1000L, PageRequest.of(0, 1001))).thenReturn(views(1001));
+
+        List<List<ProductResponse>> chunks = new ArrayList<>();
+        productService.exportProducts(ProductService.Listing.ALL, chunks::add);
+
+        assertThat(chunks).hasSize(2);
+        assertThat(chunks.get(0)).hasSize(1000);
+        assertThat(chunks.get(1)).extracting(ProductResponse::getId).containsExactly(1001L);
+    }
+
+    @Test
+    void exportOfAnEmptyListingWritesNothing() {
+        when(stockLevelTracker.outOfStockIds(anyLong(), anyInt())).thenReturn(List.of());
+
+        List<List<ProductResponse>> chunks = new ArrayList<>();
+        productService.exportProducts(ProductService.Listing.OUT_OF_STOCK, chunks::add);
+
+        assertThat(chunks).isEmpty();
+    }
+
+    @Test
+    void stockCannotBeSetBelowReservedUnits() {
+        when(stockMutationExecutor.execute(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+        Product product = Product.builder().quantityInStock(10).isActive(true).build();
+        product.setId(1L);
+        product.setReservedQuantity(4);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        assertThatThrownBy(() -> productService.updateStock(1L, 3, "count", "tester"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("4 units held by reservations");
+        assertThat(product.getQuantityInStock()).isEqualTo(10);
+        verify(productRepository, never()).saveAndFlush(any());
+    }
+
+    private static List<ProductListView> views(long... ids) {
+        List<ProductListView> views = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            ProductListView view = mock(ProductListView.class);
+            when(view.getId()).thenReturn(id);
+            views.add(view);
+        }
+        return views;
+    }
+
+    private static List<Long> ids(ProductPage page) {
+        return page.getContent().stream().map(ProductResponse::getId).collect(Collectors.toList());
+    }
+
+    private static String cursor(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
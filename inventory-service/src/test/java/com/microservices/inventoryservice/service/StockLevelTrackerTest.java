@@ -0,0 +1,61 @@
+package com.microservices.inventoryservice.service;
+
+import com.microservices.inventoryservice.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Keyset paging over the in-memory low and out-of-stock sets.
+ */
+class StockLevelTrackerTest {
+
+    private final StockLevelTracker tracker = new StockLevelTracker(
+            mock(ProductRepository.class), mock(InventoryEventPublisher.class), new SimpleMeterRegistry());
+
+    @Test
+    void lowStockIdsArePagedInIdOrder() {
+        tracker.apply(5L, 2, 5, true);
+        tracker.apply(1L, 3, 5, true);
+        tracker.apply(3L, 5, 5, true);
+        tracker.apply(2L, 50, 5, true);
+        tracker.apply(4L, 0, 5, true);
+
+        assertThat(tracker.lowStockIds(0, 2)).containsExactly(1L, 3L);
+        assertThat(tracker.lowStockIds(3, 2)).containsExactly(4L, 5L);
+        assertThat(tracker.lowStockIds(5, 2)).isEmpty();
+        assertThat(tracker.lowStockCount()).isEqualTo(4);
+    }
+
+    @Test
+    void outOfStockIdsStartAfterTheCursor() {
+        tracker.apply(7L, 0, 5, true);
+        tracker.apply(8L, 0, 5, true);
+        tracker.apply(9L, 1, 5, true);
+
+        assertThat(tracker.outOfStockIds(0, 10)).containsExactly(7L, 8L);
+        assertThat(tracker.outOfStockIds(7, 10)).containsExactly(8L);
+        assertThat(tracker.outOfStockCount()).isEqualTo(2);
+    }
+
+    @Test
+    void restockedAndInactiveProductsLeaveTheSets() {
+        tracker.apply(1L, 0, 5, true);
+        tracker.apply(2L, 0, 5, true);
+
+        tracker.apply(1L, 20, null, null);
+        tracker.apply(2L, null, null, false);
+
+        assertThat(tracker.lowStockIds(0, 10)).isEmpty();
+        assertThat(tracker.outOfStockIds(0, 10)).isEmpty();
+    }
+
+    @Test
+    void productsFirstSeenWithoutAllValuesAreNotListed() {
+        tracker.apply(1L, 0, null, null);
+
+        assertThat(tracker.outOfStockIds(0, 10)).isEmpty();
+    }
+}
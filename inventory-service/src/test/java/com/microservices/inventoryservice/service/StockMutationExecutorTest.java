@@ -0,0 +1,228 @@
+package com.microservices.inventoryservice.service;
+
+import com.microservices.inventoryservice.entity.Product;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Retry and hot-product behaviour of {@link StockMutationExecutor}, with a stub transaction
+ * manager and mutations that lose the optimistic lock race on demand.
+ */
+class StockMutationExecutorTest {
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    StockMutationExecutorTest() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+    }
+
+    @Test
+    void conflictsAreRetriedUpToMaxAttempts() {
+        StockMutationExecutor executor = executor(3, 100, 60_000, 10);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.execute("update", 1L, () -> {
+            calls.incrementAndGet();
+            throw conflict(1L);
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(counter("inventory.stock.mutation.exhausted").count()).isEqualTo(1.0);
+        assertThat(counter("inventory.stock.mutation.conflicts").count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void mutationThatWinsARetryReturnsItsResult() {
+        StockMutationExecutor executor = executor(5, 100, 60_000, 10);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = executor.execute("update", 1L, () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw conflict(1L);
+            }
+            return "saved";
+        });
+
+        assertThat(result).isEqualTo("saved");
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(meterRegistry.find("inventory.stock.mutation.exhausted").counter()).isNull();
+    }
+
+    @Test
+    void otherFailuresAreNotRetried() {
+        StockMutationExecutor executor = executor(5, 100, 60_000, 10);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.execute("update", 1L, () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("Insufficient stock");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void productBecomesHotAtTheConflictThreshold() {
+        StockMutationExecutor executor = executor(1, 3, 60_000, 10);
+
+        conflictOnce(executor, 7L);
+        conflictOnce(executor, 7L);
+        assertThat(hotProducts()).isZero();
+
+        conflictOnce(executor, 7L);
+        assertThat(hotProducts()).isEqualTo(1.0);
+        assertThat(meterRegistry.find("inventory.stock.hot.conflicts").tag("product", "7").counter()).isNotNull();
+    }
+
+    @Test
+    void hotProductsAreCappedAtMaxKeys() {
+        StockMutationExecutor executor = executor(1, 1, 60_000, 1);
+
+        conflictOnce(executor, 1L);
+        conflictOnce(executor, 2L);
+
+        assertThat(hotProducts()).isEqualTo(1.0);
+        assertThat(meterRegistry.find("inventory.stock.hot.conflicts").tag("product", "2").counter()).isNull();
+    }
+
+    @Test
+    void mutationsOfAHotProductRunOneAtATime() throws Exception {
+        StockMutationExecutor executor = executor(1, 1, 60_000, 10);
+        conflictOnce(executor, 7L);
+        assertThat(hotProducts()).isEqualTo(1.0);
+
+        int threads = 4;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return executor.execute("reserve", 7L, () -> {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        try {
+                            Thread.sleep(20);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return running.decrementAndGet();
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                result.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(maxRunning.get()).isEqualTo(1);
+        assertThat(counter("inventory.stock.mutation.queue.timeouts").count()).isZero();
+    }
+
+    @Test
+    void mutationThatTimesOutInTheQueueIsRejectedWithoutRunning() throws Exception {
+        StockMutationExecutor executor = new StockMutationExecutor(transactionManager, meterRegistry, 1, 0, 0,
+                1, 10_000, 60_000, 10, 50);
+        conflictOnce(executor, 7L);
+
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> holder = pool.submit(() -> executor.execute("reserve", 7L, () -> {
+                holding.countDown();
+                try {
+                    finish.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "held";
+            }));
+            assertThat(holding.await(5, TimeUnit.SECONDS)).isTrue();
+
+            AtomicInteger calls = new AtomicInteger();
+            assertThatThrownBy(() -> executor.execute("reserve", 7L, calls::incrementAndGet))
+                    .isInstanceOf(StockMutationBusyException.class);
+            assertThat(calls.get()).isZero();
+            assertThat(counter("inventory.stock.mutation.queue.timeouts").count()).isEqualTo(1.0);
+
+            finish.countDown();
+            assertThat(holder.get(5, TimeUnit.SECONDS)).isEqualTo("held");
+        } finally {
+            finish.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void sweepCoolsDownQuietProducts() throws Exception {
+        StockMutationExecutor executor = executor(1, 1, 1, 10);
+        conflictOnce(executor, 7L);
+        assertThat(hotProducts()).isEqualTo(1.0);
+
+        Thread.sleep(10);
+        executor.sweep();
+
+        assertThat(hotProducts()).isZero();
+        assertThat(meterRegistry.find("inventory.stock.hot.conflicts").tag("product", "7").counter()).isNull();
+    }
+
+    @Test
+    void sweepKeepsProductsStillInTheirCoolDown() {
+        StockMutationExecutor executor = executor(1, 1, 60_000, 10);
+        conflictOnce(executor, 7L);
+
+        executor.sweep();
+
+        assertThat(hotProducts()).isEqualTo(1.0);
+    }
+
+    private StockMutationExecutor executor(int maxAttempts, int conflictThreshold, long coolDownMillis, int maxHotKeys) {
+        // No backoff, so the tests do not sleep between attempts
+        return new StockMutationExecutor(transactionManager, meterRegistry, maxAttempts, 0, 0,
+                conflictThreshold, 10_000, coolDownMillis, maxHotKeys, 5_000);
+    }
+
+    private static void conflictOnce(StockMutationExecutor executor, Long productId) {
+        assertThatThrownBy(() -> executor.execute("update", productId, () -> {
+            throw conflict(productId);
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+    }
+
+    private static ObjectOptimisticLockingFailureException conflict(Long productId) {
+        return new ObjectOptimisticLockingFailureException(Product.class, productId);
+    }
+
+    private Counter counter(String name) {
+        return meterRegistry.get(name).counter();
+    }
+
+    private double hotProducts() {
+        return meterRegistry.get("inventory.stock.hot.products").gauge().value();
+    }
+}
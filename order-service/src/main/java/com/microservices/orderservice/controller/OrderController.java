@@ -3,7 +3,9 @@ package com.microservices.orderservice.controller;
 import com.microservices.orderservice.dto.OrderRequest;
 import com.microservices.orderservice.dto.OrderResponse;
 import com.microservices.orderservice.entity.Order;
+import com.microservices.orderservice.service.IdempotencyService;
 import com.microservices.orderservice.service.OrderService;
+import com.microservices.orderservice.service.OrderStatusStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,10 +15,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -26,6 +32,8 @@ import java.util.List;
 public class OrderController {
     
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+    private final OrderStatusStreamService orderStatusStreamService;
     
     @GetMapping
     @Operation(summary = "Get all orders", description = "Retrieves all orders with pagination and filtering")
@@ -38,10 +46,16 @@ public class OrderController {
     }
     
     @PostMapping
-    @Operation(summary = "Create a new order", description = "Creates a new order with the provided details")
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody OrderRequest orderRequest) {
+    @Operation(summary = "Create a new order", description = "Creates a new order with the provided details. " +
+            "Requests carrying an Idempotency-Key header are executed at most once; replays return the original response")
+    public ResponseEntity<OrderResponse> createOrder(
+            @Valid @RequestBody OrderRequest orderRequest,
+            @Parameter(description = "Client generated key that makes retries of this request safe")
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
         log.info("Creating order for user: {}", orderRequest.getUserId());
-        OrderResponse orderResponse = orderService.createOrder(orderRequest);
+        OrderResponse orderResponse = idempotencyKey != null
+                ? idempotencyService.execute(idempotencyKey, orderRequest, () -> orderService.createOrder(orderRequest))
+                : orderService.createOrder(orderRequest);
         return ResponseEntity.status(HttpStatus.CREATED).body(orderResponse);
     }
     
@@ -53,6 +67,21 @@ public class OrderController {
         return ResponseEntity.ok(orderResponse);
     }
     
+    @GetMapping(value = "/{id}/status-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream order status", description = "Server-Sent Events stream of status changes for an order, starting with its current status")
+    public SseEmitter streamOrderStatus(@PathVariable Long id) {
+        log.info("Opening status stream for order: {}", id);
+        OrderResponse order = orderService.getOrderById(id);
+
+        Map<String, Object> currentStatus = new LinkedHashMap<>();
+        currentStatus.put("orderId", order.getId());
+        currentStatus.put("orderNumber", order.getOrderNumber());
+        currentStatus.put("previousStatus", null);
+        currentStatus.put("status", order.getStatus().name());
+        currentStatus.put("updatedAt", order.getUpdatedAt() != null ? order.getUpdatedAt().toString() : null);
+        return orderStatusStreamService.subscribe(id, currentStatus);
+    }
+    
     @GetMapping("/order-number/{orderNumber}")
     @Operation(summary = "Get order by order number", description = "Retrieves an order by its order number")
     public ResponseEntity<OrderResponse> getOrderByOrderNumber(@PathVariable String orderNumber) {
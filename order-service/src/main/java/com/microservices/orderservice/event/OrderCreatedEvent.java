@@ -0,0 +1,72 @@
+package com.microservices.orderservice.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.microservices.orderservice.entity.Order;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published to order-events when an order is placed. Only line items, totals and identifiers
+ * are carried; addresses, payment details and audit columns stay in the order service.
+ * Schema changes must stay backward compatible: add fields, never rename or remove them.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class OrderCreatedEvent {
+
+    public static final String ORDER_CREATED = "order.created";
+
+    private String eventId;
+    private String eventType;
+    private LocalDateTime occurredAt;
+    private Long orderId;
+    private String orderNumber;
+    private Long userId;
+    private String status;
+    private BigDecimal totalAmount;
+    private List<Item> items;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Item {
+        private Long productId;
+        private String productSku;
+        private Integer quantity;
+        private BigDecimal unitPrice;
+    }
+
+    public static OrderCreatedEvent of(Order order) {
+        List<Item> items = order.getOrderItems() == null ? List.of() : order.getOrderItems().stream()
+                .map(item -> Item.builder()
+                        .productId(item.getProductId())
+                        .productSku(item.getProductSku())
+                        .quantity(item.getQuantity())
+                        .unitPrice(item.getUnitPrice())
+                        .build())
+                .toList();
+        return OrderCreatedEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType(ORDER_CREATED)
+                .occurredAt(LocalDateTime.now())
+                .orderId(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .userId(order.getUserId())
+                .status(order.getStatus() != null ? order.getStatus().name() : null)
+                .totalAmount(order.getTotalAmount())
+                .items(items)
+                .build();
+    }
+}
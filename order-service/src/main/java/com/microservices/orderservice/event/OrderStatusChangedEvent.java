@@ -0,0 +1,48 @@
+package com.microservices.orderservice.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.microservices.orderservice.entity.Order;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Published to order-events for status transitions (order.status.changed, order.cancelled).
+ * Schema changes must stay backward compatible: add fields, never rename or remove them.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class OrderStatusChangedEvent {
+
+    public static final String ORDER_STATUS_CHANGED = "order.status.changed";
+    public static final String ORDER_CANCELLED = "order.cancelled";
+
+    private String eventId;
+    private String eventType;
+    private LocalDateTime occurredAt;
+    private Long orderId;
+    private String orderNumber;
+    private String previousStatus;
+    private String status;
+    private String reason;
+
+    public static OrderStatusChangedEvent of(String eventType, Order order, Order.OrderStatus previousStatus) {
+        return OrderStatusChangedEvent.builder()
+                .eventId(UUID.randomUUID().toString())
+                .eventType(eventType)
+                .occurredAt(LocalDateTime.now())
+                .orderId(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .previousStatus(previousStatus != null ? previousStatus.name() : null)
+                .status(order.getStatus() != null ? order.getStatus().name() : null)
+                .reason(ORDER_CANCELLED.equals(eventType) ? order.getCancellationReason() : null)
+                .build();
+    }
+}
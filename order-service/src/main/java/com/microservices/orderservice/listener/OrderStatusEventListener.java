@@ -0,0 +1,72 @@
+package com.microservices.orderservice.listener;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.orderservice.service.OrderStatusStreamService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Feeds order status changes from the order-events topic into the SSE streams.
+ * Each instance consumes with its own group and from the latest offset, since
+ * subscribers only care about changes made while they are connected.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderStatusEventListener {
+
+    private final OrderStatusStreamService orderStatusStreamService;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(topics = "${kafka.topics.order-events:order-events}",
+                   groupId = "${app.order-stream.group-id:order-service-status-stream-${HOSTNAME:local}}",
+                   properties = "auto.offset.reset=latest")
+    public void onOrderEvent(ConsumerRecord<String, String> record) {
+        try {
+            JsonNode event = objectMapper.readTree(record.value());
+            if (event.isTextual()) {
+                // Payload written by a JSON serializer on top of an already serialized string
+                event = objectMapper.readTree(event.asText());
+            }
+            String eventType = event.hasNonNull("eventType") ? event.get("eventType").asText() : header(record, "eventType");
+            if (!OrderStatusStreamService.STATUS_EVENT.equals(eventType) && !"order.cancelled".equals(eventType)) {
+                return;
+            }
+
+            JsonNode orderId = event.hasNonNull("orderId") ? event.get("orderId") : event.get("id");
+            if (orderId == null || !orderId.canConvertToLong()) {
+                return;
+            }
+
+            Map<String, Object> statusChange = new LinkedHashMap<>();
+            statusChange.put("orderId", orderId.asLong());
+            statusChange.put("orderNumber", textOrNull(event, "orderNumber"));
+            statusChange.put("previousStatus", textOrNull(event, "previousStatus"));
+            statusChange.put("status", textOrNull(event, "status"));
+            statusChange.put("updatedAt", event.hasNonNull("occurredAt")
+                    ? textOrNull(event, "occurredAt") : textOrNull(event, "updatedAt"));
+            orderStatusStreamService.publish(orderId.asLong(), statusChange);
+        } catch (Exception e) {
+            log.warn("Could not process order event from partition {} offset {}: {}",
+                    record.partition(), record.offset(), e.getMessage());
+        }
+    }
+
+    private String header(ConsumerRecord<String, String> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+
+    private String textOrNull(JsonNode event, String field) {
+        return event.hasNonNull(field) ? event.get(field).asText() : null;
+    }
+}
@@ -0,0 +1,53 @@
+package com.microservices.orderservice.repository;
+
+import com.microservices.orderservice.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Claim a key. Plain INSERT (rather than save/merge) so a concurrent claim
+     * of the same key fails on the primary key instead of overwriting it.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO order_idempotency_keys (idempotency_key, request_hash, status, created_at, expires_at) " +
+                   "VALUES (:key, :requestHash, 'IN_PROGRESS', :createdAt, :expiresAt)", nativeQuery = true)
+    int claim(@Param("key") String key,
+              @Param("requestHash") String requestHash,
+              @Param("createdAt") LocalDateTime createdAt,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Take over a claim left IN_PROGRESS since before {@code staleBefore}, e.g. by an instance
+     * that died mid-request. Conditional so only one concurrent caller wins the takeover.
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.createdAt = :createdAt, r.expiresAt = :expiresAt " +
+           "WHERE r.idempotencyKey = :key AND r.requestHash = :requestHash " +
+           "AND r.status = :status AND r.createdAt < :staleBefore")
+    int takeOver(@Param("key") String key,
+                 @Param("requestHash") String requestHash,
+                 @Param("status") IdempotencyRecord.Status status,
+                 @Param("staleBefore") LocalDateTime staleBefore,
+                 @Param("createdAt") LocalDateTime createdAt,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.orderId = :orderId, r.responseBody = :responseBody " +
+           "WHERE r.idempotencyKey = :key")
+    int complete(@Param("key") String key,
+                 @Param("status") IdempotencyRecord.Status status,
+                 @Param("orderId") Long orderId,
+                 @Param("responseBody") String responseBody);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,258 @@
+package com.microservices.orderservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.orderservice.dto.OrderRequest;
+import com.microservices.orderservice.dto.OrderResponse;
+import com.microservices.orderservice.entity.IdempotencyRecord;
+import com.microservices.orderservice.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling for order creation.
+ * <p>
+ * The first request with a key claims it in {@code order_idempotency_keys}, runs the
+ * order workflow and stores the response. Replays with the same key and body are
+ * answered from a bounded in-memory cache (or the table on a cache miss) without
+ * touching User/Inventory Service again. A key reused with a different body is
+ * rejected, and a replay that arrives while the original is still running gets 409.
+ * A claim that stays IN_PROGRESS longer than the in-progress timeout (the instance running
+ * it died, or the release after a failure was lost) is taken over by the next request.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate keyTransaction;
+    private final Map<String, CachedResponse> responseCache;
+    private final Duration retention;
+    private final Duration inProgressTimeout;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.idempotency.cache-max-size:10000}") int cacheMaxSize,
+                              @Value("${app.idempotency.retention-hours:24}") long retentionHours,
+                              @Value("${app.idempotency.in-progress-timeout-seconds:120}") long inProgressTimeoutSeconds) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.keyTransaction = new TransactionTemplate(transactionManager);
+        this.keyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.retention = Duration.ofHours(retentionHours);
+        this.inProgressTimeout = Duration.ofSeconds(inProgressTimeoutSeconds);
+        this.responseCache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > cacheMaxSize;
+            }
+        });
+    }
+
+    /**
+     * Run {@code action} at most once per idempotency key.
+     *
+     * @param key     client supplied Idempotency-Key
+     * @param request request body, used to detect a key reused for a different order
+     * @param action  the actual order creation; must commit before returning
+     * @return the stored response for a replay, otherwise the fresh result of {@code action}
+     */
+    public OrderResponse execute(String key, OrderRequest request, Supplier<OrderResponse> action) {
+        validateKey(key);
+        String requestHash = hash(request);
+
+        Optional<OrderResponse> replay = findReplay(key, requestHash);
+        if (replay.isPresent()) {
+            return replay.get();
+        }
+
+        if (!claim(key, requestHash)) {
+            // Lost the race to a concurrent request with the same key
+            return findReplay(key, requestHash).orElseThrow(() -> new ResponseStatusException(
+                    HttpStatus.CONFLICT, "A request with this Idempotency-Key is already being processed"));
+        }
+
+        OrderResponse response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error e) {
+            // Release the key so the client can retry once the cause is fixed. If the release
+            // fails too, the claim is taken over once it passes the in-progress timeout.
+            try {
+                keyTransaction.executeWithoutResult(status -> idempotencyRecordRepository.deleteById(key));
+            } catch (RuntimeException releaseFailure) {
+                log.warn("Failed to release Idempotency-Key {}: {}", key, releaseFailure.getMessage());
+                e.addSuppressed(releaseFailure);
+            }
+            throw e;
+        }
+
+        complete(key, requestHash, response);
+        return response;
+    }
+
+    private Optional<OrderResponse> findReplay(String key, String requestHash) {
+        CachedResponse cached = responseCache.get(key);
+        if (cached != null && !cached.isExpired()) {
+            checkSameRequest(key, cached.requestHash, requestHash);
+            log.info("Replaying cached response for Idempotency-Key: {}", key);
+            return Optional.of(cached.response);
+        }
+
+        Optional<IdempotencyRecord> stored = idempotencyRecordRepository.findById(key);
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+
+        IdempotencyRecord record = stored.get();
+        if (record.isExpired()) {
+            keyTransaction.executeWithoutResult(status -> idempotencyRecordRepository.deleteById(key));
+            return Optional.empty();
+        }
+        checkSameRequest(key, record.getRequestHash(), requestHash);
+        if (record.getStatus() != IdempotencyRecord.Status.COMPLETED) {
+            if (isAbandoned(record)) {
+                // Let claim() take it over
+                return Optional.empty();
+            }
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is already being processed");
+        }
+
+        OrderResponse response = deserialize(record.getResponseBody());
+        responseCache.put(key, new CachedResponse(requestHash, response, record.getExpiresAt()));
+        log.info("Replaying stored response for Idempotency-Key: {}", key);
+        return Optional.of(response);
+    }
+
+    private boolean claim(String key, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            keyTransaction.executeWithoutResult(status ->
+                    idempotencyRecordRepository.claim(key, requestHash, now, now.plus(retention)));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return takeOverAbandoned(key, requestHash, now);
+        }
+    }
+
+    private boolean takeOverAbandoned(String key, String requestHash, LocalDateTime now) {
+        Integer updated = keyTransaction.execute(status -> idempotencyRecordRepository.takeOver(
+                key, requestHash, IdempotencyRecord.Status.IN_PROGRESS,
+                now.minus(inProgressTimeout), now, now.plus(retention)));
+        if (updated == null || updated == 0) {
+            return false;
+        }
+        log.warn("Took over Idempotency-Key {} left in progress for more than {} s", key, inProgressTimeout.toSeconds());
+        return true;
+    }
+
+    private boolean isAbandoned(IdempotencyRecord record) {
+        return record.getCreatedAt().isBefore(LocalDateTime.now().minus(inProgressTimeout));
+    }
+
+    private void complete(String key, String requestHash, OrderResponse response) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(retention);
+        responseCache.put(key, new CachedResponse(requestHash, response, expiresAt));
+        try {
+            keyTransaction.executeWithoutResult(status -> idempotencyRecordRepository.complete(
+                    key, IdempotencyRecord.Status.COMPLETED, response.getId(), serialize(response)));
+        } catch (RuntimeException e) {
+            // The order is committed; replays on this instance are still served from the cache
+            log.error("Failed to store response for Idempotency-Key: {}", key, e);
+        }
+    }
+
+    private void checkSameRequest(String key, String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            log.warn("Idempotency-Key {} reused with a different request body", key);
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used for a different request");
+        }
+    }
+
+    private void validateKey(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    private String hash(OrderRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Failed to hash order request", e);
+        }
+    }
+
+    private String serialize(OrderResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize order response", e);
+        }
+    }
+
+    private OrderResponse deserialize(String body) {
+        try {
+            return objectMapper.readValue(body, OrderResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to read stored order response", e);
+        }
+    }
+
+    /**
+     * Drop expired keys from the table and the cache.
+     */
+    @Scheduled(cron = "${app.idempotency.cleanup-cron:0 30 * * * ?}")
+    public void cleanupExpiredKeys() {
+        Integer deleted = keyTransaction.execute(status ->
+                idempotencyRecordRepository.deleteExpired(LocalDateTime.now()));
+        synchronized (responseCache) {
+            responseCache.values().removeIf(CachedResponse::isExpired);
+        }
+        log.info("Cleaned up {} expired idempotency keys", deleted);
+    }
+
+    private static final class CachedResponse {
+        private final String requestHash;
+        private final OrderResponse response;
+        private final LocalDateTime expiresAt;
+
+        private CachedResponse(String requestHash, OrderResponse response, LocalDateTime expiresAt) {
+            this.requestHash = requestHash;
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return expiresAt.isBefore(LocalDateTime.now());
+        }
+    }
+}
@@ -1,22 +1,40 @@
 package com.microservices.orderservice.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.common.kafka.KafkaProducerTemplates;
 import com.microservices.orderservice.entity.Order;
+import com.microservices.orderservice.event.OrderCreatedEvent;
+import com.microservices.orderservice.event.OrderStatusChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Publishes compact order events keyed by order id, so every event of one order stays
+ * on a single partition in order. The event type is also sent as a header.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OrderEventPublisher {
-    
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    public static final String EVENT_TYPE_HEADER = "eventType";
+
+    private final KafkaProducerTemplates producerTemplates;
+    private final ObjectMapper objectMapper;
+
+    @Value("${kafka.topics.order-events:order-events}")
+    private String topic;
     
     public void publishOrderCreatedEvent(Order order) {
         try {
             log.info("Publishing order created event for order: {}", order.getOrderNumber());
-            kafkaTemplate.send("order-events", "order.created", order);
+            send(order.getId(), OrderCreatedEvent.ORDER_CREATED, OrderCreatedEvent.of(order));
         } catch (Exception e) {
             log.error("Failed to publish order created event", e);
         }
@@ -26,19 +44,27 @@ public class OrderEventPublisher {
         try {
             log.info("Publishing order status changed event for order: {} from {} to {}", 
                     order.getOrderNumber(), oldStatus, order.getStatus());
-            kafkaTemplate.send("order-events", "order.status.changed", order);
+            send(order.getId(), OrderStatusChangedEvent.ORDER_STATUS_CHANGED,
+                    OrderStatusChangedEvent.of(OrderStatusChangedEvent.ORDER_STATUS_CHANGED, order, oldStatus));
         } catch (Exception e) {
             log.error("Failed to publish order status changed event", e);
         }
     }
     
-    public void publishOrderCancelledEvent(Order order) {
+    public void publishOrderCancelledEvent(Order order, Order.OrderStatus oldStatus) {
         try {
             log.info("Publishing order cancelled event for order: {}", order.getOrderNumber());
-            kafkaTemplate.send("order-events", "order.cancelled", order);
+            send(order.getId(), OrderStatusChangedEvent.ORDER_CANCELLED,
+                    OrderStatusChangedEvent.of(OrderStatusChangedEvent.ORDER_CANCELLED, order, oldStatus));
         } catch (Exception e) {
             log.error("Failed to publish order cancelled event", e);
         }
     }
-}
 
+    private void send(Long orderId, String eventType, Object event) throws JsonProcessingException {
+        ProducerRecord<String, Object> record =
+                new ProducerRecord<>(topic, String.valueOf(orderId), objectMapper.writeValueAsString(event));
+        record.headers().add(EVENT_TYPE_HEADER, eventType.getBytes(StandardCharsets.UTF_8));
+        producerTemplates.<String, Object>forTopic(topic).send(record);
+    }
+}
@@ -6,7 +6,6 @@ import com.microservices.orderservice.entity.Order;
 import com.microservices.orderservice.entity.OrderItem;
 import com.microservices.orderservice.repository.OrderRepository;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -36,7 +35,6 @@ public class OrderService {
     
     @Transactional
     @CircuitBreaker(name = "orderService", fallbackMethod = "createOrderFallback")
-    @Retry(name = "orderService")
     public OrderResponse createOrder(OrderRequest orderRequest) {
         log.info("Creating order for user: {}", orderRequest.getUserId());
         
@@ -170,6 +168,7 @@ public class OrderService {
             throw new RuntimeException("Cannot cancel delivered order");
         }
         
+        Order.OrderStatus oldStatus = order.getStatus();
         order.setStatus(Order.OrderStatus.CANCELLED);
         order.setCancelledAt(LocalDateTime.now());
         order.setCancellationReason(reason);
@@ -177,7 +176,7 @@ public class OrderService {
         Order savedOrder = orderRepository.save(order);
         
         // Publish order cancelled event
-        orderEventPublisher.publishOrderCancelledEvent(savedOrder);
+        orderEventPublisher.publishOrderCancelledEvent(savedOrder, oldStatus);
         
         return mapToOrderResponse(savedOrder);
     }
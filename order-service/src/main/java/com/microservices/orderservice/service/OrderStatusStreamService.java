@@ -0,0 +1,192 @@
+package com.microservices.orderservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps the open Server-Sent Events connections watching order status, per order, and
+ * fans status changes out to them. Changes arrive from the order-events topic (one
+ * consumer per instance, see OrderStatusEventListener), so a subscriber connected to any
+ * instance sees updates made on any other.
+ * <p>
+ * Writes to the connections run on send lanes, so a slow client never blocks the Kafka
+ * listener or the heartbeat. Each order maps to one single-threaded lane, which keeps its
+ * events in order. When a lane's queue is full, the order's streams are closed; clients
+ * reconnect and get the current status as their first event.
+ */
+@Service
+@Slf4j
+public class OrderStatusStreamService {
+
+    public static final String STATUS_EVENT = "order.status.changed";
+
+    private final Map<Long, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ThreadPoolExecutor[] sendLanes;
+    private final Counter droppedSends;
+
+    @Value("${app.order-stream.timeout:30m}")
+    private Duration timeout;
+
+    @Value("${app.order-stream.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    public OrderStatusStreamService(MeterRegistry meterRegistry,
+                                    @Value("${app.order-stream.send-threads:4}") int sendThreads,
+                                    @Value("${app.order-stream.send-queue-capacity:1000}") int sendQueueCapacity) {
+        this.sendLanes = new ThreadPoolExecutor[Math.max(1, sendThreads)];
+        for (int i = 0; i < sendLanes.length; i++) {
+            String threadName = "order-stream-send-" + (i + 1);
+            sendLanes[i] = new ThreadPoolExecutor(
+                    1, 1,
+                    60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(sendQueueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, threadName);
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+            sendLanes[i].allowCoreThreadTimeOut(true);
+        }
+
+        Gauge.builder("order.status.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open order status SSE connections")
+                .tag("service", "order-service")
+                .register(meterRegistry);
+        Gauge.builder("order.status.stream.send.queue", sendLanes, lanes -> {
+                    int queued = 0;
+                    for (ThreadPoolExecutor lane : lanes) {
+                        queued += lane.getQueue().size();
+                    }
+                    return queued;
+                })
+                .description("Order status SSE writes waiting to run")
+                .tag("service", "order-service")
+                .register(meterRegistry);
+        this.droppedSends = Counter.builder("order.status.stream.send.dropped")
+                .description("Order status SSE writes dropped because the send queue was full")
+                .tag("service", "order-service")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a stream for one order and send its current status as the first event.
+     */
+    public SseEmitter subscribe(Long orderId, Map<String, Object> currentStatus) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many open order status streams");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        // Added inside compute so a concurrent remove() cannot drop the list it is being added to
+        subscribers.compute(orderId, (id, emitters) -> {
+            List<SseEmitter> list = emitters != null ? emitters : new CopyOnWriteArrayList<>();
+            list.add(emitter);
+            return list;
+        });
+        emitter.onCompletion(() -> remove(orderId, emitter));
+        emitter.onTimeout(() -> remove(orderId, emitter));
+        emitter.onError(e -> remove(orderId, emitter));
+
+        dispatch(orderId, List.of(emitter), currentStatus);
+        return emitter;
+    }
+
+    /**
+     * Push a status change to every subscriber of the order on this instance.
+     */
+    public void publish(Long orderId, Map<String, Object> statusChange) {
+        List<SseEmitter> emitters = subscribers.get(orderId);
+        if (emitters != null) {
+            dispatch(orderId, emitters, statusChange);
+        }
+    }
+
+    /**
+     * Comment heartbeat so idle connections survive proxies and dead clients are detected.
+     */
+    @Scheduled(fixedDelayString = "${app.order-stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.forEach((orderId, emitters) -> dispatch(orderId, emitters, null));
+    }
+
+    /**
+     * Queue a write of {@code payload} (a heartbeat when null) to the emitters on the order's lane.
+     */
+    private void dispatch(Long orderId, List<SseEmitter> emitters, Map<String, Object> payload) {
+        ThreadPoolExecutor lane = sendLanes[Math.floorMod(orderId.hashCode(), sendLanes.length)];
+        try {
+            lane.execute(() -> {
+                for (SseEmitter emitter : emitters) {
+                    send(orderId, emitter, payload);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            droppedSends.increment();
+            log.warn("Order status send queue full; closing {} streams of order {}", emitters.size(), orderId);
+            emitters.forEach(SseEmitter::complete);
+        }
+    }
+
+    private void send(Long orderId, SseEmitter emitter, Map<String, Object> payload) {
+        try {
+            emitter.send(payload != null
+                    ? SseEmitter.event().name(STATUS_EVENT).data(payload)
+                    : SseEmitter.event().comment("heartbeat"));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping order status subscriber for order {}: {}", orderId, e.getMessage());
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void remove(Long orderId, SseEmitter emitter) {
+        subscribers.computeIfPresent(orderId, (id, emitters) -> {
+            if (emitters.remove(emitter)) {
+                subscriberCount.decrementAndGet();
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : sendLanes) {
+            lane.shutdown();
+        }
+        try {
+            for (ThreadPoolExecutor lane : sendLanes) {
+                if (!lane.awaitTermination(5, TimeUnit.SECONDS)) {
+                    lane.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            for (ThreadPoolExecutor lane : sendLanes) {
+                lane.shutdownNow();
+            }
+            Thread.currentThread().interrupt();
+        }
+    }
+}
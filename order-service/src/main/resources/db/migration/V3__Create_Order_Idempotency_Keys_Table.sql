@@ -0,0 +1,21 @@
+-- Migration to create order_idempotency_keys table
+-- Stores the outcome of order creation requests keyed by the client's Idempotency-Key
+
+CREATE TABLE IF NOT EXISTS order_idempotency_keys (
+    idempotency_key VARCHAR(100) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    order_id BIGINT,
+    response_body TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+-- Create indexes for better performance
+CREATE INDEX IF NOT EXISTS idx_order_idempotency_keys_expires_at ON order_idempotency_keys(expires_at);
+
+-- Add comments for documentation
+COMMENT ON TABLE order_idempotency_keys IS 'Idempotency keys for order creation requests';
+COMMENT ON COLUMN order_idempotency_keys.request_hash IS 'SHA-256 of the request body, used to reject a key reused for a different request';
+COMMENT ON COLUMN order_idempotency_keys.status IS 'IN_PROGRESS while the order is being created, COMPLETED once the response is stored';
+COMMENT ON COLUMN order_idempotency_keys.response_body IS 'Serialized response returned to replays of the same key';
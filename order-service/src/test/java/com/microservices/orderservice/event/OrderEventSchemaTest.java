@@ -0,0 +1,95 @@
+package com.microservices.orderservice.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the order-events wire format. Consumers depend on these field names,
+ * so a failure here means a breaking schema change.
+ */
+class OrderEventSchemaTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void orderCreatedEventKeepsPublishedFieldNames() throws Exception {
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(orderCreatedEvent()));
+
+        assertThat(json.fieldNames()).toIterable().containsExactlyInAnyOrder(
+                "eventId", "eventType", "occurredAt", "orderId", "orderNumber", "userId",
+                "status", "totalAmount", "items");
+        assertThat(json.get("items").get(0).fieldNames()).toIterable().containsExactlyInAnyOrder(
+                "productId", "productSku", "quantity", "unitPrice");
+    }
+
+    @Test
+    void statusChangedEventKeepsPublishedFieldNames() throws Exception {
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(statusChangedEvent()));
+
+        assertThat(json.fieldNames()).toIterable().containsExactlyInAnyOrder(
+                "eventId", "eventType", "occurredAt", "orderId", "orderNumber",
+                "previousStatus", "status", "reason");
+        assertThat(json.get("occurredAt").isTextual()).isTrue();
+    }
+
+    @Test
+    void readerIgnoresFieldsAddedByNewerProducers() throws Exception {
+        String json = "{\"eventType\":\"order.cancelled\",\"orderId\":9,\"status\":\"CANCELLED\","
+                + "\"channel\":\"mobile\"}";
+
+        OrderStatusChangedEvent event = objectMapper.readValue(json, OrderStatusChangedEvent.class);
+
+        assertThat(event.getOrderId()).isEqualTo(9L);
+        assertThat(event.getStatus()).isEqualTo("CANCELLED");
+    }
+
+    @Test
+    void jsonRoundTripPreservesEvents() throws Exception {
+        OrderCreatedEvent created = orderCreatedEvent();
+        OrderStatusChangedEvent changed = statusChangedEvent();
+
+        assertThat(objectMapper.readValue(objectMapper.writeValueAsString(created), OrderCreatedEvent.class))
+                .isEqualTo(created);
+        assertThat(objectMapper.readValue(objectMapper.writeValueAsString(changed), OrderStatusChangedEvent.class))
+                .isEqualTo(changed);
+    }
+
+    private OrderCreatedEvent orderCreatedEvent() {
+        return OrderCreatedEvent.builder()
+                .eventId("0d9c8b7a-6f5e-4d3c-8b2a-190817161514")
+                .eventType(OrderCreatedEvent.ORDER_CREATED)
+                .occurredAt(LocalDateTime.of(2025, 1, 15, 9, 0, 0))
+                .orderId(1001L)
+                .orderNumber("ORD-1001")
+                .userId(5L)
+                .status("PENDING")
+                .totalAmount(new BigDecimal("99.80"))
+                .items(List.of(OrderCreatedEvent.Item.builder()
+                        .productId(42L)
+                        .productSku("SKU-42")
+                        .quantity(2)
+                        .unitPrice(new BigDecimal("49.90"))
+                        .build()))
+                .build();
+    }
+
+    private OrderStatusChangedEvent statusChangedEvent() {
+        return OrderStatusChangedEvent.builder()
+                .eventId("7e6d5c4b-3a29-4817-a6b5-c4d3e2f1a0b9")
+                .eventType(OrderStatusChangedEvent.ORDER_STATUS_CHANGED)
+                .occurredAt(LocalDateTime.of(2025, 1, 15, 9, 5, 0))
+                .orderId(1001L)
+                .orderNumber("ORD-1001")
+                .previousStatus("PENDING")
+                .status("CONFIRMED")
+                .build();
+    }
+}
@@ -2,10 +2,10 @@ package com.microservices.userservice.producer;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.common.kafka.KafkaProducerTemplates;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
@@ -16,7 +16,7 @@ import java.util.Map;
 @Slf4j
 public class UserEventProducer {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaProducerTemplates producerTemplates;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Value("${app.kafka.topic.user-events:user-events}")
@@ -36,7 +36,7 @@ public class UserEventProducer {
             payload.put("source", "user-service");
 
             String message = objectMapper.writeValueAsString(payload);
-            kafkaTemplate.send(userEventsTopic, username, message);
+            producerTemplates.<String, String>forTopic(userEventsTopic).send(userEventsTopic, username, message);
             log.info("Published user created event for: {} to topic: {}", username, userEventsTopic);
         } catch (JsonProcessingException e) {
             log.error("Error serializing user created event: {}", e.getMessage(), e);
@@ -55,7 +55,7 @@ public class UserEventProducer {
             payload.put("source", "user-service");
 
             String message = objectMapper.writeValueAsString(payload);
-            kafkaTemplate.send(userEventsTopic, username, message);
+            producerTemplates.<String, String>forTopic(userEventsTopic).send(userEventsTopic, username, message);
             log.info("Published user updated event for: {} to topic: {}", username, userEventsTopic);
         } catch (JsonProcessingException e) {
             log.error("Error serializing user updated event: {}", e.getMessage(), e);